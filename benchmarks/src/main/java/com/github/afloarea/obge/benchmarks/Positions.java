@@ -0,0 +1,79 @@
+package com.github.afloarea.obge.benchmarks;
+
+import com.github.afloarea.obge.Direction;
+import com.github.afloarea.obge.dice.DiceRoll;
+import com.github.afloarea.obge.factory.BoardTemplate;
+import com.github.afloarea.obge.layout.ColumnSequence;
+import com.github.afloarea.obge.layout.ColumnsFactory;
+
+import java.util.List;
+
+import static com.github.afloarea.obge.common.Constants.DICE_ROLLS;
+
+/**
+ * The positions the benchmarks are run against, all played clockwise.
+ */
+public enum Positions {
+    OPENING(new int[][]{
+            { 2, 0, 0, 0, 0, -5,    0, -3, 0, 0, 0,  5},
+            {-2, 0, 0, 0, 0,  5,    0,  3, 0, 0, 0, -5}
+    }, 0, 0, 0, 0),
+    CONTACT(new int[][]{
+            { 2, -1, 0, 0, 0, -4,   0, -3, 1, 0,  0,  4},
+            {-2,  0, 0, 1, 1,  3,   0,  3, 0, 0, -1, -4}
+    }, 0, 0, 0, 0),
+    PRIME(new int[][]{
+            {-3, -2, -2, -2, -2, -2,    0, 0, 0, 0, 0, 1},
+            {-2,  2,  2,  2,  2,  2,    2, 0, 0, 0, 0, 2}
+    }, 0, 0, 0, 0),
+    RACE(new int[][]{
+            {-3, -3, -2, -2, -2, -1,    -1, -1, 0, 0, 0, 0},
+            { 3,  3,  2,  2,  2,  1,     1,  1, 0, 0, 0, 0}
+    }, 0, 0, 0, 0),
+    BEAR_OFF(new int[][]{
+            {-4, -3, -3, -2, -1, -1,    0, 0, 0, 0, 0, 0},
+            { 3,  3,  2,  2,  1,  0,    0, 0, 0, 0, 0, 0}
+    }, 0, 0, 4, 1);
+
+    private final int[][] composition;
+    private final int clockwiseSuspended;
+    private final int anticlockwiseSuspended;
+    private final int clockwiseCollected;
+    private final int anticlockwiseCollected;
+
+    Positions(int[][] composition, int clockwiseSuspended, int anticlockwiseSuspended,
+              int clockwiseCollected, int anticlockwiseCollected) {
+        this.composition = composition;
+        this.clockwiseSuspended = clockwiseSuspended;
+        this.anticlockwiseSuspended = anticlockwiseSuspended;
+        this.clockwiseCollected = clockwiseCollected;
+        this.anticlockwiseCollected = anticlockwiseCollected;
+    }
+
+    public ColumnSequence buildColumns() {
+        return ColumnsFactory.buildColumnSequence(BoardTemplate.getDefault(), composition,
+                clockwiseSuspended, anticlockwiseSuspended, clockwiseCollected, anticlockwiseCollected);
+    }
+
+    public Direction getDirection() {
+        return Direction.CLOCKWISE;
+    }
+
+    /**
+     * The rolls a benchmark iterates over.
+     */
+    public enum Rolls {
+        ALL(DICE_ROLLS),
+        DOUBLES(DICE_ROLLS.stream().filter(DiceRoll::isDouble).toList());
+
+        private final List<DiceRoll> rolls;
+
+        Rolls(List<DiceRoll> rolls) {
+            this.rolls = rolls;
+        }
+
+        public List<DiceRoll> get() {
+            return rolls;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.github.afloarea.obge.benchmarks;
+
+import com.github.afloarea.obge.dice.DiceRoll;
+import com.github.afloarea.obge.layout.ColumnSequence;
+import com.github.afloarea.obge.predictors.BoardPredictor;
+import com.github.afloarea.obge.predictors.ObgPredictor;
+import com.github.afloarea.obge.predictors.PlayLengthPredictor;
+import com.github.afloarea.obge.predictors.TransitionTreePredictor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Predicts every roll of a set on a position. One operation covers all the rolls of the set.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PredictorBenchmark {
+
+    public enum Predictor {
+        BOARDS(BoardPredictor::new),
+        TREE_WITH_BOARDS(() -> new TransitionTreePredictor(true)),
+        TREE(() -> new TransitionTreePredictor(false)),
+        PLAY_LENGTH(PlayLengthPredictor::new);
+
+        private final Supplier<ObgPredictor<?>> factory;
+
+        Predictor(Supplier<ObgPredictor<?>> factory) {
+            this.factory = factory;
+        }
+    }
+
+    @Param
+    private Positions position;
+
+    @Param
+    private Positions.Rolls rolls;
+
+    @Param
+    private Predictor predictor;
+
+    private ColumnSequence columns;
+    private List<DiceRoll> diceRolls;
+    private ObgPredictor<?> instance;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        columns = position.buildColumns();
+        diceRolls = rolls.get();
+        instance = predictor.factory.get();
+    }
+
+    @Benchmark
+    public void predict(Blackhole blackhole) {
+        for (var roll : diceRolls) {
+            blackhole.consume(instance.predict(columns, roll, position.getDirection()));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.github.afloarea.obge.benchmarks;
+
+import com.github.afloarea.obge.Direction;
+import com.github.afloarea.obge.InteractiveObgEngine;
+import com.github.afloarea.obge.MixedModeObgEngine;
+import com.github.afloarea.obge.ObgEngine;
+import com.github.afloarea.obge.TurnBasedObgEngine;
+import com.github.afloarea.obge.board.BoardSnapshot;
+import com.github.afloarea.obge.dice.DiceRoll;
+import com.github.afloarea.obge.factory.BoardTemplate;
+import com.github.afloarea.obge.factory.EngineOptions;
+import com.github.afloarea.obge.factory.ObgEngines;
+import com.github.afloarea.obge.moves.ObgMove;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+
+/**
+ * Plays a full game with random dice and random choices. One operation is one game.
+ * Every operation uses the same seed, and the choices are sorted before picking one,
+ * so all the engines play the same games whatever the iteration order of their sets.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SelfPlayBenchmark {
+    private static final long SEED = 42;
+    private static final int MAX_TURNS = 1000;
+    private static final int BOARD_COLUMNS = 24;
+    private static final Direction[] DIRECTIONS = {Direction.CLOCKWISE, Direction.ANTICLOCKWISE};
+
+    // moves only differing by their dice execute the same way, so their order does not matter
+    private static final Comparator<ObgMove> MOVE_ORDER = Comparator.comparing(ObgMove::source)
+            .thenComparing(ObgMove::target);
+
+    // any total order works, as long as it only depends on the boards
+    private static final Comparator<BoardSnapshot> BOARD_ORDER = (first, second) -> {
+        for (int index = 0; index < BOARD_COLUMNS; index++) {
+            final int comparison = Integer.compare(first.getSignedPieceCount(index), second.getSignedPieceCount(index));
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        for (var direction : DIRECTIONS) {
+            final int suspended = Integer.compare(first.getSuspended(direction), second.getSuspended(direction));
+            if (suspended != 0) {
+                return suspended;
+            }
+            final int collected = Integer.compare(first.getCollected(direction), second.getCollected(direction));
+            if (collected != 0) {
+                return collected;
+            }
+        }
+        return 0;
+    };
+
+    public enum Engine {
+        INTERACTIVE(InteractiveObgEngine.class, EngineOptions.getDefault()),
+        TURN_BASED(TurnBasedObgEngine.class, EngineOptions.getDefault()),
+        TURN_BASED_LAZY(TurnBasedObgEngine.class, EngineOptions.builder().withLazyPrediction(true).build()),
+        MIXED_MODE_INTERACTIVE(MixedModeObgEngine.class, EngineOptions.getDefault()),
+        MIXED_MODE_COMPACT(MixedModeObgEngine.class, EngineOptions.builder().withCompactPredictions(true).build());
+
+        private final Class<? extends ObgEngine> type;
+        private final EngineOptions options;
+
+        Engine(Class<? extends ObgEngine> type, EngineOptions options) {
+            this.type = type;
+            this.options = options;
+        }
+    }
+
+    @Param
+    private Engine engine;
+
+    @Benchmark
+    public int playGame() {
+        final var random = new SplittableRandom(SEED);
+        final var game = ObgEngines.create(engine.type, BoardTemplate.getDefault(), engine.options);
+
+        var direction = Direction.CLOCKWISE;
+        int turns = 0;
+        while (!game.isGameComplete() && turns < MAX_TURNS) {
+            game.applyDiceRoll(direction, DiceRoll.of(random.nextInt(1, 7), random.nextInt(1, 7)));
+            if (game instanceof InteractiveObgEngine interactive) {
+                playInteractive(interactive, direction, random);
+            } else {
+                playTurnBased((TurnBasedObgEngine) game, direction, random);
+            }
+            direction = direction.reverse();
+            turns++;
+        }
+        return turns;
+    }
+
+    private static void playInteractive(InteractiveObgEngine game, Direction direction, SplittableRandom random) {
+        while (!game.isCurrentTurnDone()) {
+            final var moves = new ArrayList<>(game.getPossibleMoves());
+            moves.sort(MOVE_ORDER);
+            final var move = moves.get(random.nextInt(moves.size()));
+            game.execute(direction, move.source(), move.target());
+        }
+    }
+
+    private static void playTurnBased(TurnBasedObgEngine game, Direction direction, SplittableRandom random) {
+        if (game.isCurrentTurnDone()) {
+            return;
+        }
+        final var boards = new ArrayList<>(game.getBoardChoices());
+        boards.sort(BOARD_ORDER);
+        game.chooseBoard(direction, boards.get(random.nextInt(boards.size())));
+    }
+}
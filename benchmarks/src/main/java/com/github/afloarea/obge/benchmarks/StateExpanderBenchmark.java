@@ -0,0 +1,40 @@
+package com.github.afloarea.obge.benchmarks;
+
+import com.github.afloarea.obge.expander.StateExpander;
+import com.github.afloarea.obge.layout.BoardMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Expands a position over all the rolls, for a number of plies, counting the leaves.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class StateExpanderBenchmark {
+
+    @Param({"1", "2", "3"})
+    private int plies;
+
+    @Param({"OPENING", "RACE", "BEAR_OFF"})
+    private Positions position;
+
+    @Benchmark
+    public long expand() {
+        final long[] leaves = new long[1];
+        final var expander = StateExpander.<Void>builder()
+                .withLeafConsumer(node -> leaves[0]++)
+                .build();
+        expander.expand(BoardMapper.takeSnapshot(position.buildColumns()), position.getDirection(), plies);
+        return leaves[0];
+    }
+}
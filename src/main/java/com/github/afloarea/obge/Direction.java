@@ -1,6 +1,6 @@
 package com.github.afloarea.obge;
 
-import java.util.random.RandomGenerator;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * The direction.
@@ -49,14 +49,10 @@ public enum Direction {
     }
 
     /**
-     * Get a random direction.
+     * Get a random direction, using the random generator of the current thread.
      * @return a direction at random but not {@code NONE}.
      */
     public static Direction getRandom() {
-        return Wrapper.RNG.nextBoolean() ? Direction.CLOCKWISE : Direction.ANTICLOCKWISE;
-    }
-
-    private static final class Wrapper {
-        private static final RandomGenerator RNG = RandomGenerator.of("Random");
+        return ThreadLocalRandom.current().nextBoolean() ? Direction.CLOCKWISE : Direction.ANTICLOCKWISE;
     }
 }
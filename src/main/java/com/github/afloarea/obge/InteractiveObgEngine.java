@@ -6,6 +6,7 @@ import com.github.afloarea.obge.moves.ObgTransition;
 
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Engine that works with partial, simple moves.
@@ -31,4 +32,38 @@ public interface InteractiveObgEngine extends ObgEngine {
      * @return a set of possible moves
      */
     Set<ObgMove> getPossibleMoves();
+
+    /**
+     * Obtain the set of possible moves (both simple and composite) starting from the given column.
+     *
+     * @param source the id of the source column
+     * @return a set of possible moves
+     */
+    default Set<ObgMove> getPossibleMoves(String source) {
+        return getPossibleMoves().stream()
+                .filter(move -> move.source().equals(source))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Take back the last move executed in the current turn, including any suspended piece.
+     *
+     * @param direction the direction in which the move was executed
+     * @return the list of simple moves taken back, in the order in which they were executed
+     * @throws IllegalObgActionException if there is no move to take back
+     */
+    List<ObgTransition> undo(Direction direction);
+
+    /**
+     * Execute again the last move that was taken back with {@link #undo(Direction)}.
+     * Executing any other move in the meantime discards the moves that can be redone.
+     *
+     * @param direction the direction in which to execute the move
+     * @return the list of simple moves executed
+     * @throws IllegalObgActionException if there is no move to redo
+     */
+    List<ObgTransition> redo(Direction direction);
+
+    @Override
+    InteractiveObgEngine fork();
 }
@@ -7,7 +7,8 @@ import java.util.List;
 
 /**
  * Hybrid Engine that provides the capabilities of both {@link InteractiveObgEngine} and {@link TurnBasedObgEngine}.
- * Has a larger memory footprint that either of them.
+ * Has a larger memory footprint that either of them,
+ * see {@link com.github.afloarea.obge.factory.ObgEngines#estimateFootprint(ObgEngine)}.
  */
 public interface MixedModeObgEngine extends InteractiveObgEngine, TurnBasedObgEngine {
 
@@ -20,4 +21,7 @@ public interface MixedModeObgEngine extends InteractiveObgEngine, TurnBasedObgEn
      */
     List<ObgTransition> transitionTo(Direction playingDirection, BoardSnapshot boardSnapshot);
 
+    @Override
+    MixedModeObgEngine fork();
+
 }
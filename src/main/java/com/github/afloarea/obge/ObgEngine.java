@@ -61,4 +61,13 @@ public interface ObgEngine {
      * Reset the engine to the starting state.
      */
     void reset();
+
+    /**
+     * Create an independent engine in the same state as this one,
+     * including the playing direction and the moves still available in the current turn.
+     * Actions on the copy do not affect this engine and vice versa.
+     *
+     * @return the copy
+     */
+    ObgEngine fork();
 }
@@ -34,4 +34,7 @@ public interface TurnBasedObgEngine extends ObgEngine {
      */
     BoardSnapshot getCurrentBoard();
 
+    @Override
+    TurnBasedObgEngine fork();
+
 }
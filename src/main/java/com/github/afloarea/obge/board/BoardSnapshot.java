@@ -3,27 +3,66 @@ package com.github.afloarea.obge.board;
 import com.github.afloarea.obge.Direction;
 
 import java.util.Arrays;
-import java.util.Objects;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+import static com.github.afloarea.obge.common.Constants.BOARD_COLUMNS;
+import static com.github.afloarea.obge.common.Constants.PIECES_PER_PLAYER;
+
 /**
  * A snapshot of the backgammon board.
+ * <p>
+ * The columns are stored packed, 5 bits per column, in two longs, with the collected and suspended counts
+ * packed in a single int. This keeps snapshots small and makes equality checks and hashing cheap.
  */
 public final class BoardSnapshot {
 
-    private final ColumnSnapshot[] columns;
-    private final int clockwiseCollected;
-    private final int anticlockwiseCollected;
-    private final int clockwiseSuspended;
-    private final int anticlockwiseSuspended;
+    private static final int COLUMNS_PER_WORD = BOARD_COLUMNS / 2;
+    private static final int BITS_PER_COLUMN = 5;
+    private static final long COLUMN_MASK = (1L << BITS_PER_COLUMN) - 1;
+    private static final int BITS_PER_COUNTER = 8;
+    private static final int COUNTER_MASK = (1 << BITS_PER_COUNTER) - 1;
+
+    private final long lowerColumns;  // columns 0 to 11, clockwise order
+    private final long upperColumns;  // columns 12 to 23, clockwise order
+    private final int counters;       // collected and suspended pieces for both directions
+    private final int hash;
 
     private BoardSnapshot(Builder builder) {
-        columns = builder.columns;
-        clockwiseCollected = builder.clockwiseCollected;
-        anticlockwiseCollected = builder.anticlockwiseCollected;
-        clockwiseSuspended = builder.clockwiseSuspended;
-        anticlockwiseSuspended = builder.anticlockwiseSuspended;
+        if (builder.columns == null || builder.columns.length != BOARD_COLUMNS) {
+            throw new IllegalArgumentException("A board must have " + BOARD_COLUMNS + " columns");
+        }
+        lowerColumns = packColumns(builder.columns, 0);
+        upperColumns = packColumns(builder.columns, COLUMNS_PER_WORD);
+        counters = packCounter(builder.clockwiseCollected, 0)
+                | packCounter(builder.anticlockwiseCollected, 1)
+                | packCounter(builder.clockwiseSuspended, 2)
+                | packCounter(builder.anticlockwiseSuspended, 3);
+        hash = 31 * (31 * Long.hashCode(lowerColumns) + Long.hashCode(upperColumns)) + counters;
+    }
+
+    private static long packColumns(ColumnSnapshot[] columns, int start) {
+        long packed = 0;
+        for (int index = 0; index < COLUMNS_PER_WORD; index++) {
+            final var column = columns[start + index];
+            if (column.pieceCount() < 0 || column.pieceCount() > PIECES_PER_PLAYER) {
+                throw new IllegalArgumentException("Invalid number of pieces " + column.pieceCount());
+            }
+            final long value = column.signedPieceCount() + PIECES_PER_PLAYER;
+            packed |= value << (index * BITS_PER_COLUMN);
+        }
+        return packed;
+    }
+
+    private static int packCounter(int value, int position) {
+        if (value < 0 || value > PIECES_PER_PLAYER) {
+            throw new IllegalArgumentException("Invalid number of pieces " + value);
+        }
+        return value << (position * BITS_PER_COUNTER);
+    }
+
+    private int unpackCounter(int position) {
+        return (counters >>> (position * BITS_PER_COUNTER)) & COUNTER_MASK;
     }
 
     public static Builder builder() {
@@ -31,41 +70,67 @@ public final class BoardSnapshot {
     }
 
     public int getClockwiseCollected() {
-        return clockwiseCollected;
+        return unpackCounter(0);
     }
 
     public int getAnticlockwiseCollected() {
-        return anticlockwiseCollected;
+        return unpackCounter(1);
     }
 
     public int getClockwiseSuspended() {
-        return clockwiseSuspended;
+        return unpackCounter(2);
     }
 
     public int getAnticlockwiseSuspended() {
-        return anticlockwiseSuspended;
+        return unpackCounter(3);
     }
 
     public int getCollected(Direction direction) {
         if (direction == Direction.CLOCKWISE) {
-            return clockwiseCollected;
+            return getClockwiseCollected();
         }
         if (direction == Direction.ANTICLOCKWISE) {
-            return anticlockwiseCollected;
+            return getAnticlockwiseCollected();
         }
         throw new IllegalArgumentException("Invalid direction provided");
     }
 
     public int getSuspended(Direction direction) {
         if (direction == Direction.CLOCKWISE) {
-            return clockwiseSuspended;
+            return getClockwiseSuspended();
         }
         if (direction == Direction.ANTICLOCKWISE) {
-            return anticlockwiseSuspended;
+            return getAnticlockwiseSuspended();
         }
         throw new IllegalArgumentException("Invalid direction provided");
     }
 
+    /**
+     * Get a regular column by its index in the clockwise order.
+     *
+     * @param index the index, from 0 to 23
+     * @return the column
+     */
+    public ColumnSnapshot getColumn(int index) {
+        return ColumnSnapshot.ofSigned(getSignedPieceCount(index));
+    }
+
+    /**
+     * Get the number of pieces on a regular column, positive if they move clockwise
+     * and negative if they move anticlockwise.
+     *
+     * @param index the index of the column in the clockwise order, from 0 to 23
+     * @return the signed piece count
+     */
+    public int getSignedPieceCount(int index) {
+        if (index < 0 || index >= BOARD_COLUMNS) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        final long word = index < COLUMNS_PER_WORD ? lowerColumns : upperColumns;
+        final int shift = (index % COLUMNS_PER_WORD) * BITS_PER_COLUMN;
+        return (int) ((word >>> shift) & COLUMN_MASK) - PIECES_PER_PLAYER;
+    }
+
     /**
      * Stream regular columns (non-suspended, non-collected) in the given direction.
      * @param direction the direction
@@ -74,9 +139,9 @@ public final class BoardSnapshot {
     public Stream<ColumnSnapshot> stream(Direction direction) {
         return switch (direction) {
             case NONE -> throw new IllegalArgumentException("Invalid direction");
-            case CLOCKWISE -> Arrays.stream(columns);
-            case ANTICLOCKWISE -> IntStream.iterate(columns.length - 1, index -> index >= 0, index -> index - 1)
-                    .mapToObj(index -> columns[index]);
+            case CLOCKWISE -> IntStream.range(0, BOARD_COLUMNS).mapToObj(this::getColumn);
+            case ANTICLOCKWISE -> IntStream.iterate(BOARD_COLUMNS - 1, index -> index >= 0, index -> index - 1)
+                    .mapToObj(this::getColumn);
         };
     }
 
@@ -85,28 +150,25 @@ public final class BoardSnapshot {
         if (this == o) return true;
         if (!(o instanceof BoardSnapshot)) return false;
         BoardSnapshot that = (BoardSnapshot) o;
-        return clockwiseCollected == that.clockwiseCollected
-                && anticlockwiseCollected == that.anticlockwiseCollected
-                && clockwiseSuspended == that.clockwiseSuspended
-                && anticlockwiseSuspended == that.anticlockwiseSuspended
-                && Arrays.equals(columns, that.columns);
+        return hash == that.hash
+                && lowerColumns == that.lowerColumns
+                && upperColumns == that.upperColumns
+                && counters == that.counters;
     }
 
     @Override
     public int hashCode() {
-        int result = Objects.hash(clockwiseCollected, anticlockwiseCollected, clockwiseSuspended, anticlockwiseSuspended);
-        result = 31 * result + Arrays.hashCode(columns);
-        return result;
+        return hash;
     }
 
     @Override
     public String toString() {
         return "BoardSnapshot{" +
-                "columns=" + Arrays.toString(columns) +
-                ", clockwiseCollected=" + clockwiseCollected +
-                ", anticlockwiseCollected=" + anticlockwiseCollected +
-                ", clockwiseSuspended=" + clockwiseSuspended +
-                ", anticlockwiseSuspended=" + anticlockwiseSuspended +
+                "columns=" + Arrays.toString(stream(Direction.CLOCKWISE).toArray()) +
+                ", clockwiseCollected=" + getClockwiseCollected() +
+                ", anticlockwiseCollected=" + getAnticlockwiseCollected() +
+                ", clockwiseSuspended=" + getClockwiseSuspended() +
+                ", anticlockwiseSuspended=" + getAnticlockwiseSuspended() +
                 '}';
     }
 
@@ -2,9 +2,68 @@ package com.github.afloarea.obge.board;
 
 import com.github.afloarea.obge.Direction;
 
+import static com.github.afloarea.obge.common.Constants.PIECES_PER_PLAYER;
+
 /**
  * A snapshot of the board column containing the number of pieces for that column and
  * the direction that the pieces should be moving.
+ * <p>
+ * There are only a few distinct column snapshots, so {@link #of(int, Direction)} returns shared instances.
  */
 public record ColumnSnapshot(int pieceCount, Direction elementsDirection) {
+    public static final ColumnSnapshot EMPTY = new ColumnSnapshot(0, Direction.NONE);
+
+    private static final ColumnSnapshot[] CLOCKWISE_COLUMNS = buildColumns(Direction.CLOCKWISE);
+    private static final ColumnSnapshot[] ANTICLOCKWISE_COLUMNS = buildColumns(Direction.ANTICLOCKWISE);
+
+    /**
+     * Get the snapshot of a column.
+     * An empty column always has the {@link Direction#NONE} direction.
+     *
+     * @param pieceCount        the number of pieces
+     * @param elementsDirection the direction of the pieces
+     * @return the (shared) snapshot
+     */
+    public static ColumnSnapshot of(int pieceCount, Direction elementsDirection) {
+        if (pieceCount == 0) {
+            return EMPTY;
+        }
+        if (pieceCount < 0 || pieceCount > PIECES_PER_PLAYER) {
+            throw new IllegalArgumentException("Invalid number of pieces " + pieceCount);
+        }
+        return switch (elementsDirection) {
+            case CLOCKWISE -> CLOCKWISE_COLUMNS[pieceCount];
+            case ANTICLOCKWISE -> ANTICLOCKWISE_COLUMNS[pieceCount];
+            case NONE -> throw new IllegalArgumentException("Pieces must have a direction");
+        };
+    }
+
+    /**
+     * Get the snapshot of a column from a signed piece count:
+     * positive for clockwise pieces, negative for anticlockwise pieces.
+     *
+     * @param signedPieceCount the signed piece count
+     * @return the (shared) snapshot
+     */
+    public static ColumnSnapshot ofSigned(int signedPieceCount) {
+        return of(Math.abs(signedPieceCount), Direction.ofSign(signedPieceCount));
+    }
+
+    /**
+     * Get the number of pieces, positive if they move clockwise and negative if they move anticlockwise.
+     *
+     * @return the signed piece count
+     */
+    public int signedPieceCount() {
+        return pieceCount * elementsDirection.getSign();
+    }
+
+    private static ColumnSnapshot[] buildColumns(Direction direction) {
+        final var columns = new ColumnSnapshot[PIECES_PER_PLAYER + 1];
+        columns[0] = EMPTY;
+        for (int pieceCount = 1; pieceCount <= PIECES_PER_PLAYER; pieceCount++) {
+            columns[pieceCount] = new ColumnSnapshot(pieceCount, direction);
+        }
+        return columns;
+    }
 }
@@ -0,0 +1,86 @@
+package com.github.afloarea.obge.common;
+
+/**
+ * Approximate shallow sizes, in bytes, of the objects used by the engines, for a 64-bit JVM with
+ * compressed references (the default for heaps below 32 GB): 12 byte object headers, 16 byte array headers,
+ * 4 byte references and 8 byte alignment. Collections are sized after the OpenJDK implementations.
+ */
+public final class ObjectSizes {
+    public static final int REFERENCE = 4;
+    public static final int OBJECT_HEADER = 12;
+    public static final int ARRAY_HEADER = 16;
+    private static final int ALIGNMENT = 8;
+
+    /**
+     * The size of an object with the given fields.
+     *
+     * @param fieldBytes the total size of the fields, references included
+     * @return the aligned size
+     */
+    public static long object(long fieldBytes) {
+        return align(OBJECT_HEADER + fieldBytes);
+    }
+
+    public static long referenceArray(long length) {
+        return align(ARRAY_HEADER + length * REFERENCE);
+    }
+
+    public static long arrayList(int size) {
+        // size, modCount and elements; the elements start as a shared empty array and grow to at least the size
+        return object(2 * Integer.BYTES + REFERENCE) + (size == 0 ? 0 : referenceArray(size));
+    }
+
+    public static long arrayDeque(int size) {
+        // elements, head and tail; the default capacity is 16, plus the always empty slot
+        return object(REFERENCE + 2 * Integer.BYTES) + referenceArray(Math.max(16, size) + 1);
+    }
+
+    public static long hashMap(int size) {
+        int capacity = 16;
+        while (capacity * 0.75 < size) {
+            capacity <<= 1;
+        }
+        // table, views, size, modCount, threshold, load factor; each entry is a node with hash, key, value, next
+        return object(4 * REFERENCE + 4 * Integer.BYTES) + referenceArray(capacity)
+                + size * object(Integer.BYTES + 3 * REFERENCE);
+    }
+
+    /**
+     * The size of a list created by {@code List.of}, {@code List.copyOf} or {@code Stream.toList}.
+     */
+    public static long immutableList(int size) {
+        if (size == 0) {
+            return 0; // shared instance
+        }
+        return size <= 2 ? object(2 * REFERENCE) : object(REFERENCE) + referenceArray(size);
+    }
+
+    /**
+     * The size of a set created by {@code Set.of} or {@code Set.copyOf}, which use open addressing
+     * with twice as many slots as elements.
+     */
+    public static long immutableSet(int size) {
+        if (size == 0) {
+            return 0; // shared instance
+        }
+        return size <= 2 ? object(2 * REFERENCE) : object(REFERENCE + Integer.BYTES) + referenceArray(2L * size);
+    }
+
+    /**
+     * The size of a map created by {@code Map.of} or {@code Map.copyOf}, which store keys and values
+     * in a single table with twice as many slots as entries.
+     */
+    public static long immutableMap(int size) {
+        if (size == 0) {
+            return 0; // shared instance
+        }
+        return size == 1 ? object(2 * REFERENCE) : object(REFERENCE + Integer.BYTES) + referenceArray(4L * size);
+    }
+
+    private static long align(long size) {
+        return (size + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+
+    private ObjectSizes() {
+    }
+}
@@ -1,6 +1,5 @@
 package com.github.afloarea.obge.dice;
 
-import java.util.random.RandomGenerator;
 import java.util.stream.IntStream;
 
 import static com.github.afloarea.obge.common.Constants.MAX_DICE;
@@ -10,7 +9,18 @@ import static com.github.afloarea.obge.common.Constants.MIN_DICE;
  * A record representing a dice roll.
  */
 public record DiceRoll(int dice1, int dice2) {
-    private static final RandomGenerator RANDOM = RandomGenerator.of("Random");
+    private static final int FACES = MAX_DICE - MIN_DICE + 1;
+
+    // indexed by the higher and then the lower die
+    private static final DiceRoll[] INTERNED = new DiceRoll[FACES * FACES];
+
+    static {
+        for (int first = MIN_DICE; first <= MAX_DICE; first++) {
+            for (int second = MIN_DICE; second <= first; second++) {
+                INTERNED[internIndex(first, second)] = new DiceRoll(first, second);
+            }
+        }
+    }
 
     /**
      * Create an ordered (higher first) dice roll result.
@@ -26,13 +36,43 @@ public record DiceRoll(int dice1, int dice2) {
     }
 
     /**
-     * Create a dice roll result.
+     * Create a dice roll result. Rolls are interned, so this always returns the same instance for the same values.
      * @param dice1 the first die value
      * @param dice2 the second die value
      * @return the result
      */
     public static DiceRoll of(int dice1, int dice2) {
-        return new DiceRoll(dice1, dice2);
+        if (dice1 < MIN_DICE || dice1 > MAX_DICE || dice2 < MIN_DICE || dice2 > MAX_DICE) {
+            return new DiceRoll(dice1, dice2); // throws
+        }
+        return INTERNED[internIndex(Math.max(dice1, dice2), Math.min(dice1, dice2))];
+    }
+
+    /**
+     * Get the roll of two ordered dice, numbered from 0 to 35, so that a single draw gives a uniform roll
+     * and iterating over all the outcomes gives every roll with its probability.
+     *
+     * @param outcome the outcome, from 0 to {@link #outcomeCount()} (exclusive)
+     * @return the roll
+     */
+    public static DiceRoll ofOutcome(int outcome) {
+        if (outcome < 0 || outcome >= outcomeCount()) {
+            throw new IllegalArgumentException("Invalid outcome " + outcome);
+        }
+        return of(MIN_DICE + outcome / FACES, MIN_DICE + outcome % FACES);
+    }
+
+    /**
+     * Get the number of outcomes of rolling two ordered dice.
+     *
+     * @return the number of outcomes
+     */
+    public static int outcomeCount() {
+        return FACES * FACES;
+    }
+
+    private static int internIndex(int higher, int lower) {
+        return (higher - MIN_DICE) * FACES + (lower - MIN_DICE);
     }
 
     /**
@@ -60,12 +100,11 @@ public record DiceRoll(int dice1, int dice2) {
     }
 
     /**
-     * Throw the dice!
+     * Throw the dice, using the random generator of the current thread.
+     * Use a {@link DiceSource} for reproducible rolls.
      * @return the dice roll result
      */
     public static DiceRoll generate() {
-        final int first = MIN_DICE + RANDOM.nextInt(MAX_DICE);
-        final int second = MIN_DICE + RANDOM.nextInt(MAX_DICE);
-        return new DiceRoll(Math.max(first, second), Math.min(first, second));
+        return DiceSource.threadLocal().roll();
     }
 }
@@ -0,0 +1,93 @@
+package com.github.afloarea.obge.dice;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+/**
+ * A source of dice rolls.
+ * <p>
+ * Sources backed by a seeded generator are reproducible. They are not thread-safe: every thread (or every game)
+ * should get its own source, e.g. by splitting a {@link SplittableDiceSource}.
+ */
+public interface DiceSource {
+
+    /**
+     * Throw a single die.
+     *
+     * @return the die value
+     */
+    int die();
+
+    /**
+     * Throw the dice.
+     *
+     * @return the roll
+     */
+    default DiceRoll roll() {
+        return DiceRoll.of(die(), die());
+    }
+
+    /**
+     * Throw the dice many times.
+     *
+     * @param rolls the array receiving the rolls, filled from the start
+     */
+    default void fill(DiceRoll[] rolls) {
+        for (int index = 0; index < rolls.length; index++) {
+            rolls[index] = roll();
+        }
+    }
+
+    /**
+     * Throw the dice many times.
+     *
+     * @param count the number of rolls
+     * @return the rolls, in order
+     */
+    default DiceRoll[] rolls(int count) {
+        final var rolls = new DiceRoll[count];
+        fill(rolls);
+        return rolls;
+    }
+
+    /**
+     * Create a source drawing from a random generator.
+     *
+     * @param generator the generator, only used by the returned source from now on
+     * @return the source
+     */
+    static RandomDiceSource of(RandomGenerator generator) {
+        return new RandomDiceSource(generator);
+    }
+
+    /**
+     * Create a splittable source drawing from a splittable generator.
+     *
+     * @param generator the generator, only used by the returned source from now on
+     * @return the source
+     */
+    static SplittableDiceSource of(SplittableGenerator generator) {
+        return new SplittableDiceSource(generator);
+    }
+
+    /**
+     * Create a reproducible, splittable source.
+     *
+     * @param seed the seed
+     * @return the source
+     */
+    static SplittableDiceSource seeded(long seed) {
+        return new SplittableDiceSource(new SplittableRandom(seed));
+    }
+
+    /**
+     * Get a source drawing from the random generator of the calling thread.
+     * It can be shared by any number of threads without contention, but it cannot be seeded.
+     *
+     * @return the source
+     */
+    static DiceSource threadLocal() {
+        return ThreadLocalDiceSource.INSTANCE;
+    }
+}
@@ -11,6 +11,9 @@ import static com.github.afloarea.obge.common.Constants.MIN_DICE;
 /**
  * Class used to represent the dice values used by a move.
  * Can have from 1 to 4 values.
+ * <p>
+ * The valid combinations (any one or two values, or three or four equal values) are interned:
+ * the factory methods always return the same instance for the same values.
  */
 public final class DiceValues implements Iterable<Integer> {
     public static final DiceValues NONE = new DiceValues(new int[0]);
@@ -18,6 +21,27 @@ public final class DiceValues implements Iterable<Integer> {
     private static final int MIN_SIZE = 1;
     private static final int MAX_SIZE = 4;
 
+    private static final int FACES = MAX_DICE - MIN_DICE + 1;
+
+    // indexed by (size - 1) and then by the values
+    private static final DiceValues[][] INTERNED = {
+            new DiceValues[FACES],
+            new DiceValues[FACES * FACES],
+            new DiceValues[FACES],
+            new DiceValues[FACES]
+    };
+
+    static {
+        for (int first = MIN_DICE; first <= MAX_DICE; first++) {
+            INTERNED[0][internIndex(first)] = new DiceValues(new int[]{first});
+            INTERNED[2][internIndex(first)] = new DiceValues(new int[]{first, first, first});
+            INTERNED[3][internIndex(first)] = new DiceValues(new int[]{first, first, first, first});
+            for (int second = MIN_DICE; second <= MAX_DICE; second++) {
+                INTERNED[1][internIndex(first, second)] = new DiceValues(new int[]{first, second});
+            }
+        }
+    }
+
     private final int[] wrappedValues;
 
     public static DiceValues of(List<Integer> values) {
@@ -25,7 +49,22 @@ public final class DiceValues implements Iterable<Integer> {
             throw new IllegalArgumentException(
                     "The list must have between " + MIN_SIZE + " and " + MAX_SIZE + " values");
         }
-        return new DiceValues(values.stream().mapToInt(x -> x).toArray());
+        return ofVar(values.stream().mapToInt(x -> x).toArray());
+    }
+
+    /**
+     * Get the dice values of the first {@code count} elements of the array.
+     *
+     * @param values the values
+     * @param count  the number of values to use
+     * @return the dice values
+     */
+    public static DiceValues of(int[] values, int count) {
+        if (count > MAX_SIZE || count < MIN_SIZE || count > values.length) {
+            throw new IllegalArgumentException("Between " + MIN_SIZE + " and " + MAX_SIZE + " values must be used");
+        }
+        final var interned = findInterned(values, count);
+        return interned != null ? interned : new DiceValues(Arrays.copyOf(values, count));
     }
 
     public static DiceValues of(int value1) {
@@ -51,7 +90,39 @@ public final class DiceValues implements Iterable<Integer> {
     }
 
     private static DiceValues ofVar(int... values) {
-        return new DiceValues(values);
+        final var interned = findInterned(values, values.length);
+        return interned != null ? interned : new DiceValues(values);
+    }
+
+    private static DiceValues findInterned(int[] values, int count) {
+        for (int index = 0; index < count; index++) {
+            if (values[index] < MIN_DICE || values[index] > MAX_DICE) {
+                return null;
+            }
+        }
+        return switch (count) {
+            case 1 -> INTERNED[0][internIndex(values[0])];
+            case 2 -> INTERNED[1][internIndex(values[0], values[1])];
+            case 3, 4 -> allEqual(values, count) ? INTERNED[count - 1][internIndex(values[0])] : null;
+            default -> null;
+        };
+    }
+
+    private static boolean allEqual(int[] values, int count) {
+        for (int index = 1; index < count; index++) {
+            if (values[index] != values[0]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int internIndex(int value) {
+        return value - MIN_DICE;
+    }
+
+    private static int internIndex(int first, int second) {
+        return internIndex(first) * FACES + internIndex(second);
     }
 
     private DiceValues(int[] wrappedValues) {
@@ -0,0 +1,46 @@
+package com.github.afloarea.obge.dice;
+
+import java.util.Objects;
+import java.util.random.RandomGenerator;
+
+import static com.github.afloarea.obge.common.Constants.MAX_DICE;
+import static com.github.afloarea.obge.common.Constants.MIN_DICE;
+
+/**
+ * A dice source drawing from a random generator. Every roll takes a single draw from the generator
+ * and returns an interned {@link DiceRoll}, so rolling never allocates.
+ */
+public class RandomDiceSource implements DiceSource {
+    private final RandomGenerator generator;
+
+    RandomDiceSource(RandomGenerator generator) {
+        this.generator = Objects.requireNonNull(generator);
+    }
+
+    /**
+     * Get the generator of this source, e.g. to make random choices reproducible along with the dice.
+     *
+     * @return the generator
+     */
+    public RandomGenerator getGenerator() {
+        return generator;
+    }
+
+    @Override
+    public int die() {
+        return generator.nextInt(MIN_DICE, MAX_DICE + 1);
+    }
+
+    @Override
+    public DiceRoll roll() {
+        return DiceRoll.ofOutcome(generator.nextInt(DiceRoll.outcomeCount()));
+    }
+
+    @Override
+    public void fill(DiceRoll[] rolls) {
+        final int outcomes = DiceRoll.outcomeCount();
+        for (int index = 0; index < rolls.length; index++) {
+            rolls[index] = DiceRoll.ofOutcome(generator.nextInt(outcomes));
+        }
+    }
+}
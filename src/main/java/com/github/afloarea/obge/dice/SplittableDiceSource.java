@@ -0,0 +1,42 @@
+package com.github.afloarea.obge.dice;
+
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.stream.Stream;
+
+/**
+ * A dice source that can be split into independent sources, one per thread or per game.
+ * Splitting a seeded source always gives the same sources in the same order,
+ * so a parallel run stays reproducible as long as the splits are made before the work is distributed.
+ */
+public final class SplittableDiceSource extends RandomDiceSource {
+    private final SplittableGenerator generator;
+
+    SplittableDiceSource(SplittableGenerator generator) {
+        super(generator);
+        this.generator = generator;
+    }
+
+    @Override
+    public SplittableGenerator getGenerator() {
+        return generator;
+    }
+
+    /**
+     * Create a new source, independent of this one. This source advances.
+     *
+     * @return the new source
+     */
+    public SplittableDiceSource split() {
+        return new SplittableDiceSource(generator.split());
+    }
+
+    /**
+     * Create new sources, independent of this one and of each other.
+     *
+     * @param count the number of sources
+     * @return the sources
+     */
+    public Stream<SplittableDiceSource> splits(long count) {
+        return generator.splits(count).map(SplittableDiceSource::new);
+    }
+}
@@ -0,0 +1,26 @@
+package com.github.afloarea.obge.dice;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.github.afloarea.obge.common.Constants.MAX_DICE;
+import static com.github.afloarea.obge.common.Constants.MIN_DICE;
+
+/**
+ * Draws from the random generator of the calling thread, see {@link DiceSource#threadLocal()}.
+ */
+final class ThreadLocalDiceSource implements DiceSource {
+    static final ThreadLocalDiceSource INSTANCE = new ThreadLocalDiceSource();
+
+    private ThreadLocalDiceSource() {
+    }
+
+    @Override
+    public int die() {
+        return ThreadLocalRandom.current().nextInt(MIN_DICE, MAX_DICE + 1);
+    }
+
+    @Override
+    public DiceRoll roll() {
+        return DiceRoll.ofOutcome(ThreadLocalRandom.current().nextInt(DiceRoll.outcomeCount()));
+    }
+}
@@ -2,26 +2,102 @@ package com.github.afloarea.obge.engines;
 
 import com.github.afloarea.obge.Direction;
 import com.github.afloarea.obge.ObgEngine;
-import com.github.afloarea.obge.dice.DiceValues;
+import com.github.afloarea.obge.dice.DiceRoll;
 import com.github.afloarea.obge.exceptions.IllegalObgActionException;
+import com.github.afloarea.obge.layout.BoardMapper;
 import com.github.afloarea.obge.layout.ColumnSequence;
+import com.github.afloarea.obge.metrics.AllocationCounter;
+import com.github.afloarea.obge.metrics.EngineCommandEvent;
+import com.github.afloarea.obge.metrics.MemoryFootprint;
+import com.github.afloarea.obge.metrics.ObgCache;
+import com.github.afloarea.obge.metrics.ObgMetricsListener;
+import com.github.afloarea.obge.metrics.ObgOperation;
+import com.github.afloarea.obge.metrics.RollType;
 import com.github.afloarea.obge.moves.ObgMove;
 import com.github.afloarea.obge.moves.ObgTransition;
+import com.github.afloarea.obge.predictors.MoveRules;
+import com.github.afloarea.obge.predictors.ObgPredictor;
+import com.github.afloarea.obge.predictors.TransitionNode;
 
-import java.util.ArrayList;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
-import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static com.github.afloarea.obge.common.Constants.PIECES_PER_PLAYER;
 
 public abstract class BaseObgEngine implements ObgEngine {
+    private static final int MAX_MOVE_DICE = 4;
+    private static final VarHandle IDLE;
+
+    static {
+        try {
+            IDLE = MethodHandles.lookup().findVarHandle(BaseObgEngine.class, "idle", boolean.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     protected Direction currentDirection = Direction.NONE;
+    protected DiceRoll currentRoll = null;
     protected final ColumnSequence columns;
 
+    private ObgMetricsListener metricsListener = ObgMetricsListener.NOOP;
+    private boolean measuringAllocations;
+    private long operationStartTime;
+    private long operationStartAllocation;
+
+    private final Executor speculativeExecutor;
+    private SpeculativePredictions<?> speculativePredictions;
+
+    // set while the engine waits in a pool, read and written through IDLE
+    @SuppressWarnings("unused")
+    private volatile boolean idle;
+
     protected BaseObgEngine(ColumnSequence columns) {
+        this(columns, null);
+    }
+
+    /**
+     * Create an engine.
+     *
+     * @param columns             the columns
+     * @param speculativeExecutor the executor used to predict all the rolls of the next turn
+     *                            as soon as a turn is over, or null to only predict the rolled dice
+     */
+    protected BaseObgEngine(ColumnSequence columns, Executor speculativeExecutor) {
         this.columns = columns;
+        this.speculativeExecutor = speculativeExecutor;
+    }
+
+    /**
+     * Copy constructor used when forking an engine.
+     * The predictions already started for the next turn are not shared with the fork.
+     *
+     * @param original the engine to copy
+     */
+    protected BaseObgEngine(BaseObgEngine original) {
+        this.columns = original.columns.copy();
+        this.currentDirection = original.currentDirection;
+        this.currentRoll = original.currentRoll;
+        this.speculativeExecutor = original.speculativeExecutor;
+        this.metricsListener = original.metricsListener;
+        this.measuringAllocations = original.measuringAllocations;
+    }
+
+    /**
+     * Set the listener notified of the operations, predictions and cache accesses of this engine,
+     * and of the allocations done by the operations if the listener measures them.
+     * Forks share the listener of the original engine.
+     *
+     * @param metricsListener the listener, {@link ObgMetricsListener#NOOP} to stop collecting metrics
+     */
+    public final void setMetricsListener(ObgMetricsListener metricsListener) {
+        this.metricsListener = Objects.requireNonNull(metricsListener);
+        this.measuringAllocations = metricsListener.isMeasuringAllocations();
     }
 
     protected final void validateDirection(Direction direction) {
@@ -65,60 +141,199 @@ public abstract class BaseObgEngine implements ObgEngine {
     @Override
     public void reset() {
         currentDirection = Direction.NONE;
+        currentRoll = null;
         columns.reset();
+        clearTurnState();
+        boardChanged();
     }
 
-    // helper methods
+    /**
+     * Mark the engine as idle in a pool, or as handed out by it.
+     *
+     * @param idle true when the engine is returned to a pool, false when it is taken out of it
+     * @return false if the engine was already in the requested state
+     */
+    public final boolean markIdle(boolean idle) {
+        return IDLE.compareAndSet(this, !idle, idle);
+    }
 
-    protected final boolean sequenceHasSourceAndTarget(List<ObgTransition> sequence, String source, String target) {
-        if (!sequence.get(0).source().equals(source)) return false;
-        if (sequence.get(0).target().equals(target)) return true;
+    /**
+     * Discard any state computed for the current turn (predictions, pending sequences etc.).
+     */
+    protected abstract void clearTurnState();
 
-        for (int index = 1; index < sequence.size(); index++) {
-            if (!sequence.get(index).source().equals(sequence.get(index - 1).target())) {
-                return false;
-            }
-            if (sequence.get(index).target().equals(target)) return true;
+    /**
+     * Estimate the memory retained by the columns, the predictions and the caches of this engine.
+     * The estimate is computed from the sizes of the objects, without walking the heap, see {@link MemoryFootprint}.
+     * The turn state shared with forks is counted by each of them.
+     *
+     * @return the estimated footprint
+     */
+    public final MemoryFootprint estimateFootprint() {
+        final var footprint = MemoryFootprint.builder()
+                .withComponent(MemoryFootprint.COLUMNS, columns.estimateSize());
+        estimateTurnState(footprint);
+        if (speculativePredictions != null) {
+            footprint.withComponent(MemoryFootprint.SPECULATIVE_PREDICTIONS, speculativePredictions.estimateSize());
+        }
+        return footprint.build();
+    }
+
+    /**
+     * Add the estimated sizes of the state kept for the current turn (predictions, journal, caches etc.).
+     *
+     * @param footprint the footprint being built
+     */
+    protected abstract void estimateTurnState(MemoryFootprint.Builder footprint);
+
+    /**
+     * Create a predictor computing the same predictions as the ones done when applying a dice roll.
+     * Used for predicting the rolls of the next turn in the background, so it must return a new instance every time.
+     *
+     * @return the predictor
+     */
+    protected abstract ObgPredictor<?> newPredictor();
+
+    /**
+     * Must be called after every action changing the board. Discards the predictions started for the next turn,
+     * then starts them again if speculative predictions are enabled and the current turn is over.
+     */
+    protected final void boardChanged() {
+        if (speculativePredictions != null) {
+            speculativePredictions.cancel();
+            speculativePredictions = null;
+        }
+        if (speculativeExecutor != null && currentDirection != Direction.NONE
+                && isCurrentTurnDone() && !isGameComplete()) {
+            final var listener = metricsListener;
+            speculativePredictions = SpeculativePredictions.start(
+                    speculativeExecutor, columns, currentDirection.reverse(), () -> {
+                        final var predictor = newPredictor();
+                        predictor.setMetricsListener(listener);
+                        return predictor;
+                    });
+        }
+    }
+
+    /**
+     * Take the prediction computed in the background for a roll, if available. Discards all the other ones.
+     *
+     * @param direction the playing direction
+     * @param dice      the rolled dice
+     * @param <R>       the type of the prediction, as returned by {@link #newPredictor()}
+     * @return the prediction or null if it has to be computed
+     */
+    @SuppressWarnings("unchecked")
+    protected final <R> R takeSpeculativePrediction(Direction direction, DiceRoll dice) {
+        final var predictions = (SpeculativePredictions<R>) speculativePredictions;
+        speculativePredictions = null;
+        if (predictions == null) {
+            return null;
         }
+        final R prediction = predictions.take(direction, dice);
+        metricsListener.cacheAccessed(ObgCache.SPECULATIVE_PREDICTIONS, prediction != null);
+        return prediction;
+    }
+
+    // metrics
 
-        return false;
+    /**
+     * Run a predictor on the columns of this engine, reporting to the listener of this engine.
+     */
+    protected final <R> R predict(ObgPredictor<R> predictor, DiceRoll dice, Direction direction) {
+        predictor.setMetricsListener(metricsListener);
+        return predictor.predict(columns, dice, direction);
+    }
+
+    /**
+     * Start timing an operation. Operations do not nest, so the start time is kept by the engine.
+     *
+     * @return the flight recorder event of the operation, to be passed to
+     * {@link #operationCompleted(ObgOperation, EngineCommandEvent, int)}, or null if the event is not recorded
+     */
+    protected final EngineCommandEvent operationStarted() {
+        final var event = EngineCommandEvent.isRecorded() ? new EngineCommandEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        if (metricsListener != ObgMetricsListener.NOOP) {
+            if (measuringAllocations) {
+                operationStartAllocation = AllocationCounter.currentThreadAllocatedBytes();
+            }
+            operationStartTime = System.nanoTime();
+        }
+        return event;
     }
 
-    protected final List<ObgTransition> extractUpToTarget(List<ObgTransition> sequence, String target) {
-        final int targetIndex = IntStream.range(0, sequence.size())
-                .filter(index -> sequence.get(index).target().equals(target))
-                .findFirst()
-                .orElseThrow();
+    /**
+     * Report a successful operation. Failed operations are not reported.
+     *
+     * @param operation   the operation
+     * @param event       the event returned by {@link #operationStarted()}
+     * @param transitions the number of transitions performed or reverted by the operation
+     */
+    protected final void operationCompleted(ObgOperation operation, EngineCommandEvent event, int transitions) {
+        if (metricsListener != ObgMetricsListener.NOOP) {
+            final long elapsed = System.nanoTime() - operationStartTime;
+            final var rollType = RollType.of(currentRoll);
+            if (measuringAllocations) {
+                metricsListener.allocationMeasured(operation, rollType,
+                        AllocationCounter.currentThreadAllocatedBytes() - operationStartAllocation);
+            }
+            metricsListener.operationCompleted(operation, rollType, elapsed);
+        }
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.setEngine(getClass().getSimpleName());
+            event.setCommand(operation.name());
+            event.setPosition(BoardMapper.takeSnapshot(columns).toString());
+            event.setDirection(currentDirection.name());
+            event.setRoll(Objects.toString(currentRoll));
+            event.setResultCount(transitions);
+            event.commit();
+        }
+    }
 
-        return sequence.subList(0, targetIndex + 1);
+    protected final void cacheAccessed(ObgCache cache, boolean hit) {
+        metricsListener.cacheAccessed(cache, hit);
     }
 
+    // helper methods
+
     protected final void executeSequence(List<ObgTransition> sequence) {
-        sequence.forEach(transition -> {
-            if (transition.isSuspending()) {
-                columns.getColumnById(transition.target()).removeElement();
-                columns.getColumnById(transition.suspended()).addElement(currentDirection.reverse());
-            }
-            columns.getColumnById(transition.source()).removeElement();
-            columns.getColumnById(transition.target()).addElement(currentDirection);
-        });
-    }
-
-    protected final void sequenceToMultipleMoves(List<ObgTransition> sequence, Consumer<ObgMove> moveConsumer) {
-        final var first = sequence.get(0);
-        moveConsumer.accept(ObgMove.of(first.source(), first.target(), DiceValues.of(first.usedDie())));
-
-        var previous = first;
-        final var dice = new ArrayList<Integer>();
-        dice.add(first.usedDie());
-        for (int index = 1; index < sequence.size(); index++) {
-            final var next = sequence.get(index);
-            if (!previous.target().equals(next.source())) {
-                break;
+        sequence.forEach(transition -> MoveRules.apply(columns, currentDirection, transition));
+    }
+
+    protected final void revertSequence(List<ObgTransition> sequence) {
+        for (int index = sequence.size() - 1; index >= 0; index--) {
+            MoveRules.revert(columns, currentDirection, sequence.get(index));
+        }
+    }
+
+    /**
+     * Emit the moves available from a node of the transition tree: each child is a simple move,
+     * and following children that continue moving the same piece gives composite moves.
+     */
+    protected final void nodeToMoves(TransitionNode node, Consumer<ObgMove> moveConsumer) {
+        final var dice = new int[MAX_MOVE_DICE];
+        for (var child : node.getChildren()) {
+            final int sourceIndex = columns.getColumnIndex(child.getTransition().source(), currentDirection);
+            collectChainMoves(child, sourceIndex, dice, 0, moveConsumer);
+        }
+    }
+
+    private void collectChainMoves(TransitionNode node, int sourceIndex, int[] dice, int diceCount,
+                                   Consumer<ObgMove> moveConsumer) {
+        final var transition = node.getTransition();
+        dice[diceCount] = transition.usedDie();
+        moveConsumer.accept(columns.getTransitionTable().getMove(currentDirection, sourceIndex, dice, diceCount + 1));
+        for (var child : node.getChildren()) {
+            if (child.getTransition().source().equals(transition.target())) {
+                collectChainMoves(child, sourceIndex, dice, diceCount + 1, moveConsumer);
             }
-            dice.add(next.usedDie());
-            moveConsumer.accept(ObgMove.of(first.source(), next.target(), DiceValues.of(dice)));
-            previous = next;
         }
     }
 }
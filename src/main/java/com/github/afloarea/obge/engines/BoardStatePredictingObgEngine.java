@@ -7,53 +7,128 @@ import com.github.afloarea.obge.dice.DiceRoll;
 import com.github.afloarea.obge.exceptions.IllegalObgActionException;
 import com.github.afloarea.obge.layout.BoardMapper;
 import com.github.afloarea.obge.layout.ColumnSequence;
+import com.github.afloarea.obge.metrics.MemoryFootprint;
+import com.github.afloarea.obge.metrics.ObgOperation;
 import com.github.afloarea.obge.predictors.BoardPredictor;
+import com.github.afloarea.obge.predictors.BoardReachabilityPredictor;
 import com.github.afloarea.obge.predictors.ObgPredictor;
+import com.github.afloarea.obge.predictors.PlayLengthPredictor;
 
-import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 public final class BoardStatePredictingObgEngine extends BaseObgEngine implements TurnBasedObgEngine {
 
-    private final Set<BoardSnapshot> possibleBoards = new HashSet<>();
+    // immutable, replaced on every change so that it can be shared with forks; null while not yet predicted
+    private Set<BoardSnapshot> possibleBoards = Set.of();
     private final ObgPredictor<Set<BoardSnapshot>> boardPredictor = new BoardPredictor();
+    private final boolean lazyPrediction;
+    private int playLength;
 
     public BoardStatePredictingObgEngine(ColumnSequence columns) {
-        super(columns);
+        this(columns, false, null);
+    }
+
+    /**
+     * Create an engine.
+     *
+     * @param columns             the columns
+     * @param lazyPrediction      whether to predict the possible boards only when they are requested.
+     *                            Chosen boards are then checked with a targeted search instead.
+     * @param speculativeExecutor the executor predicting the rolls of the next turn in the background, or null
+     */
+    public BoardStatePredictingObgEngine(ColumnSequence columns, boolean lazyPrediction, Executor speculativeExecutor) {
+        super(columns, speculativeExecutor);
+        this.lazyPrediction = lazyPrediction;
+    }
+
+    private BoardStatePredictingObgEngine(BoardStatePredictingObgEngine original) {
+        super(original);
+        possibleBoards = original.possibleBoards;
+        lazyPrediction = original.lazyPrediction;
+        playLength = original.playLength;
     }
 
     @Override
     public void applyDiceRoll(Direction direction, DiceRoll dice) {
+        final var command = operationStarted();
         validateDirection(direction);
 
         currentDirection = direction;
-        possibleBoards.clear();
-        possibleBoards.addAll(boardPredictor.predict(columns, dice, direction));
+        currentRoll = dice;
+        final Set<BoardSnapshot> predicted = takeSpeculativePrediction(direction, dice);
+        if (predicted != null) {
+            possibleBoards = Set.copyOf(predicted);
+        } else if (lazyPrediction) {
+            playLength = predict(new PlayLengthPredictor(), dice, direction);
+            possibleBoards = playLength == 0 ? Set.of() : null;
+        } else {
+            possibleBoards = Set.copyOf(predict(boardPredictor, dice, direction));
+        }
+        if (isCurrentTurnDone()) {
+            // no play: the opponent's rolls can already be predicted
+            boardChanged();
+        }
+        operationCompleted(ObgOperation.APPLY_DICE_ROLL, command, 0);
     }
 
     @Override
     public boolean isCurrentTurnDone() {
-        return possibleBoards.isEmpty();
+        return possibleBoards != null && possibleBoards.isEmpty();
     }
 
     @Override
     public Set<BoardSnapshot> getBoardChoices() {
-        return Set.copyOf(possibleBoards);
+        if (possibleBoards == null) {
+            possibleBoards = Set.copyOf(predict(boardPredictor, currentRoll, currentDirection));
+        }
+        return possibleBoards;
     }
 
     @Override
     public BoardSnapshot chooseBoard(Direction playingDirection, BoardSnapshot board) {
+        final var command = operationStarted();
         checkTransitionPossible(playingDirection);
 
-        if (!possibleBoards.contains(board)) {
+        if (!isReachable(board)) {
             throw new IllegalObgActionException("Invalid board provided");
         }
 
         BoardMapper.loadSnapshot(columns, board);
-        possibleBoards.clear();
+        possibleBoards = Set.of();
+        boardChanged();
+        operationCompleted(ObgOperation.CHOOSE_BOARD, command, 0);
         return board;
     }
 
+    private boolean isReachable(BoardSnapshot board) {
+        if (possibleBoards != null) {
+            return possibleBoards.contains(board);
+        }
+        return predict(new BoardReachabilityPredictor(board, playLength, currentDirection), currentRoll, currentDirection);
+    }
+
+    @Override
+    protected void clearTurnState() {
+        possibleBoards = Set.of();
+    }
+
+    @Override
+    protected void estimateTurnState(MemoryFootprint.Builder footprint) {
+        final var boards = possibleBoards;
+        footprint.withComponent(MemoryFootprint.PREDICTIONS, boards == null ? 0 : Footprints.boards(boards));
+    }
+
+    @Override
+    protected ObgPredictor<Set<BoardSnapshot>> newPredictor() {
+        return new BoardPredictor();
+    }
+
+    @Override
+    public TurnBasedObgEngine fork() {
+        return new BoardStatePredictingObgEngine(this);
+    }
+
     @Override
     public BoardSnapshot getCurrentBoard() {
         return BoardMapper.takeSnapshot(columns);
@@ -0,0 +1,67 @@
+package com.github.afloarea.obge.engines;
+
+import com.github.afloarea.obge.board.BoardSnapshot;
+import com.github.afloarea.obge.common.ObjectSizes;
+import com.github.afloarea.obge.predictors.TransitionNode;
+
+import java.util.Set;
+
+/**
+ * Size estimates of the predictions held by the engines, see {@link ObjectSizes}.
+ */
+final class Footprints {
+    // two longs, the counters and the cached hash
+    static final long BOARD_SNAPSHOT = ObjectSizes.object(2 * Long.BYTES + 2 * Integer.BYTES);
+
+    // transition, parent, children, children view, board and height
+    private static final long TREE_NODE = ObjectSizes.object(5 * ObjectSizes.REFERENCE + Integer.BYTES);
+    private static final long UNMODIFIABLE_LIST = ObjectSizes.object(2 * ObjectSizes.REFERENCE);
+
+    /**
+     * Estimate the size of the whole tree a node belongs to, as the parent links keep it reachable.
+     * The transitions are shared by the engines and are not included.
+     */
+    static long tree(TransitionNode node) {
+        if (node == TransitionNode.EMPTY) {
+            return 0;
+        }
+        var root = node;
+        while (root.getParent() != null) {
+            root = root.getParent();
+        }
+        return subtree(root);
+    }
+
+    private static long subtree(TransitionNode node) {
+        // the children lists are grown one element at a time, so their capacity is close to their size
+        long size = TREE_NODE + ObjectSizes.arrayList(node.getChildren().size()) + UNMODIFIABLE_LIST;
+        if (node.getBoard() != null) {
+            size += BOARD_SNAPSHOT;
+        }
+        for (var child : node.getChildren()) {
+            size += subtree(child);
+        }
+        return size;
+    }
+
+    static long boards(Set<BoardSnapshot> boards) {
+        return ObjectSizes.immutableSet(boards.size()) + boards.size() * BOARD_SNAPSHOT;
+    }
+
+    /**
+     * Estimate the size of any of the predictions made by the engines.
+     */
+    @SuppressWarnings("unchecked")
+    static long prediction(Object prediction) {
+        if (prediction instanceof TransitionNode node) {
+            return tree(node);
+        }
+        if (prediction instanceof Set<?> boards) {
+            return boards((Set<BoardSnapshot>) boards);
+        }
+        return 0;
+    }
+
+    private Footprints() {
+    }
+}
@@ -3,123 +3,292 @@ package com.github.afloarea.obge.engines;
 import com.github.afloarea.obge.Direction;
 import com.github.afloarea.obge.MixedModeObgEngine;
 import com.github.afloarea.obge.board.BoardSnapshot;
+import com.github.afloarea.obge.common.ObjectSizes;
 import com.github.afloarea.obge.dice.DiceRoll;
 import com.github.afloarea.obge.exceptions.IllegalObgActionException;
 import com.github.afloarea.obge.layout.BoardMapper;
 import com.github.afloarea.obge.layout.ColumnSequence;
+import com.github.afloarea.obge.metrics.ObgCache;
+import com.github.afloarea.obge.metrics.MemoryFootprint;
+import com.github.afloarea.obge.metrics.ObgOperation;
 import com.github.afloarea.obge.moves.ObgMove;
 import com.github.afloarea.obge.moves.ObgTransition;
-import com.github.afloarea.obge.predictors.BoardBySequencePredictor;
 import com.github.afloarea.obge.predictors.ObgPredictor;
+import com.github.afloarea.obge.predictors.SequenceOrderings;
+import com.github.afloarea.obge.predictors.TransitionNode;
+import com.github.afloarea.obge.predictors.TransitionTreePredictor;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
-import java.util.function.Consumer;
-import java.util.stream.Collectors;
+import java.util.concurrent.Executor;
 
 public final class HybridObgEngine extends BaseObgEngine implements MixedModeObgEngine {
 
-    private final Map<List<ObgTransition>, BoardSnapshot> predictions = new HashMap<>();
-    private final ObgPredictor<Map<List<ObgTransition>, BoardSnapshot>> predictor = new BoardBySequencePredictor();
+    // immutable, replaced on every change so that it can be shared with forks
+    private Predictions predictions = Predictions.EMPTY;
+    private final ObgPredictor<TransitionNode> predictor = new TransitionTreePredictor(true);
+    private final MoveJournal<Predictions> journal;
+    private PossibleMoves possibleMoves = PossibleMoves.NONE;
+    private final boolean compactPredictions;
 
     public HybridObgEngine(ColumnSequence columns) {
-        super(columns);
+        this(columns, false, null);
+    }
+
+    /**
+     * Create an engine.
+     *
+     * @param columns             the columns
+     * @param compactPredictions  whether to keep a single ordering of the predicted transitions
+     *                            for every resulting board and set of transitions, see {@link SequenceOrderings}
+     * @param speculativeExecutor the executor predicting the rolls of the next turn in the background, or null
+     */
+    public HybridObgEngine(ColumnSequence columns, boolean compactPredictions, Executor speculativeExecutor) {
+        super(columns, speculativeExecutor);
+        journal = new MoveJournal<>();
+        this.compactPredictions = compactPredictions;
+    }
+
+    private HybridObgEngine(HybridObgEngine original) {
+        super(original);
+        predictions = original.predictions;
+        journal = original.journal.copy();
+        possibleMoves = original.possibleMoves;
+        compactPredictions = original.compactPredictions;
     }
 
     @Override
     public void applyDiceRoll(Direction direction, DiceRoll dice) {
+        final var command = operationStarted();
         validateDirection(direction);
 
         currentDirection = direction;
-        predictions.clear();
-        predictions.putAll(predictor.predict(columns, dice, direction));
+        currentRoll = dice;
+        final TransitionNode predicted = takeSpeculativePrediction(direction, dice);
+        predictions = Predictions.of(compact(predicted != null ? predicted : predict(predictor, dice, direction)));
+        journal.clear();
+        if (isCurrentTurnDone()) {
+            // no play: the opponent's rolls can already be predicted
+            boardChanged();
+        }
+        operationCompleted(ObgOperation.APPLY_DICE_ROLL, command, 0);
     }
 
     @Override
     public boolean isCurrentTurnDone() {
-        return predictions.isEmpty();
+        return predictions.node().isLeaf();
     }
 
     @Override
     public List<ObgTransition> execute(Direction direction, String source, String target) {
+        final var command = operationStarted();
         checkTransitionPossible(direction);
 
-        final var viableSequences = predictions.keySet().stream()
-                .filter(sequence -> sequenceHasSourceAndTarget(sequence, source, target))
-                .toList();
-
-        if (viableSequences.isEmpty()) {
+        final var path = chains(predictions.node(), source).findPath(source, target);
+        if (path.isEmpty()) {
             throw new IllegalObgActionException("Invalid move provided");
         }
 
-        final var executionSequence = extractUpToTarget(viableSequences.get(0), target);
-
+        final var executionSequence = path.stream().map(TransitionNode::getTransition).toList();
         executeSequence(executionSequence);
 
-        record Prediction(List<ObgTransition> sequence, BoardSnapshot snapshot) {
-        }
-        final var newPredictions = viableSequences.stream()
-                .mapMulti((List<ObgTransition> sequence, Consumer<Prediction> mapper) -> {
-                    final var newSequence = sequence.stream()
-                            .dropWhile(transition -> !transition.target().equals(target))
-                            .skip(1) // skip the target as well
-                            .toList();
-                    if (!newSequence.isEmpty()) {
-                        mapper.accept(new Prediction(newSequence, predictions.get(sequence)));
-                    }
-                })
-                .collect(Collectors.toMap(Prediction::sequence, Prediction::snapshot));
-
-        predictions.clear();
-        predictions.putAll(newPredictions);
+        final var newPredictions = Predictions.of(compactPredictions
+                // the columns already moved, so only one ordering of what is left is searched
+                ? SequenceOrderings.afterChain(predictions.node(), executionSequence, columns, currentDirection)
+                : path.get(path.size() - 1));
+        journal.record(executionSequence, predictions, newPredictions);
+        predictions = newPredictions;
+        boardChanged();
 
+        operationCompleted(ObgOperation.EXECUTE, command, executionSequence.size());
         return executionSequence;
     }
 
+    @Override
+    public List<ObgTransition> undo(Direction direction) {
+        final var command = operationStarted();
+        checkTransitionPossible(direction);
+
+        final var entry = journal.undo();
+        revertSequence(entry.transitions());
+        predictions = entry.stateBefore();
+        boardChanged();
+        operationCompleted(ObgOperation.UNDO, command, entry.transitions().size());
+        return entry.transitions();
+    }
+
+    @Override
+    public List<ObgTransition> redo(Direction direction) {
+        final var command = operationStarted();
+        checkTransitionPossible(direction);
+
+        final var entry = journal.redo();
+        executeSequence(entry.transitions());
+        predictions = entry.stateAfter();
+        boardChanged();
+        operationCompleted(ObgOperation.REDO, command, entry.transitions().size());
+        return entry.transitions();
+    }
+
     @Override
     public Set<ObgMove> getPossibleMoves() {
-        return predictions.keySet().stream()
-                .mapMulti(this::sequenceToMultipleMoves)
-                .collect(Collectors.toUnmodifiableSet());
+        return possibleMoves().all();
+    }
+
+    @Override
+    public Set<ObgMove> getPossibleMoves(String source) {
+        return possibleMoves().from(source);
+    }
+
+    private PossibleMoves possibleMoves() {
+        final var command = operationStarted();
+        final var currentPredictions = predictions;
+        final boolean cached = possibleMoves.isComputedFor(currentPredictions);
+        cacheAccessed(ObgCache.POSSIBLE_MOVES, cached);
+        if (!cached) {
+            possibleMoves = PossibleMoves.compute(currentPredictions,
+                    consumer -> nodeToMoves(chains(currentPredictions.node(), null), consumer));
+        }
+        operationCompleted(ObgOperation.GET_POSSIBLE_MOVES, command, 0);
+        return possibleMoves;
+    }
+
+    private TransitionNode compact(TransitionNode node) {
+        return compactPredictions ? SequenceOrderings.canonical(node) : node;
+    }
+
+    /**
+     * Get a tree whose chains starting from the root are the moves available from a node.
+     * A full tree already has them; a compact one only keeps one ordering, so the chains are searched on the columns.
+     */
+    private TransitionNode chains(TransitionNode node, String source) {
+        return compactPredictions ? SequenceOrderings.chains(node, columns, currentDirection, source) : node;
     }
 
     @Override
     public Set<BoardSnapshot> getBoardChoices() {
-        return predictions.values().stream().collect(Collectors.toUnmodifiableSet());
+        return predictions.leavesByBoard().keySet();
     }
 
     @Override
     public BoardSnapshot chooseBoard(Direction playingDirection, BoardSnapshot board) {
+        final var command = operationStarted();
         checkTransitionPossible(playingDirection);
 
-        if (!predictions.containsValue(board)) {
+        if (!predictions.leavesByBoard().containsKey(board)) {
             throw new IllegalObgActionException("Invalid board provided");
         }
 
         BoardMapper.loadSnapshot(columns, board);
-        predictions.clear();
+        predictions = Predictions.EMPTY;
+        journal.clear();
+        boardChanged();
+        operationCompleted(ObgOperation.CHOOSE_BOARD, command, 0);
         return board;
     }
 
     @Override
     public List<ObgTransition> transitionTo(Direction playingDirection, BoardSnapshot boardSnapshot) {
+        final var command = operationStarted();
         checkTransitionPossible(playingDirection);
-        final var transition = predictions.entrySet().stream()
-                .filter(entry -> Objects.equals(entry.getValue(), boardSnapshot))
-                .map(Map.Entry::getKey)
-                .findFirst()
-                .orElseThrow(() -> new IllegalObgActionException("Invalid board provided"));
+        final var leaf = predictions.leavesByBoard().get(boardSnapshot);
+        if (leaf == null) {
+            throw new IllegalObgActionException("Invalid board provided");
+        }
+        final var transition = leaf.getTransitionsFrom(predictions.node());
 
         BoardMapper.loadSnapshot(columns, boardSnapshot);
-        predictions.clear();
+        predictions = Predictions.EMPTY;
+        journal.clear();
+        boardChanged();
+        operationCompleted(ObgOperation.TRANSITION_TO, command, transition.size());
         return transition;
     }
 
+    @Override
+    protected void clearTurnState() {
+        predictions = Predictions.EMPTY;
+        journal.clear();
+    }
+
+    @Override
+    protected void estimateTurnState(MemoryFootprint.Builder footprint) {
+        final var currentPredictions = predictions;
+        footprint.withComponent(MemoryFootprint.PREDICTIONS,
+                Footprints.tree(currentPredictions.node()) + currentPredictions.estimateSize());
+        // the journal states are nodes of the same tree, each with its own board index
+        footprint.withComponent(MemoryFootprint.JOURNAL,
+                journal.estimateSize(state -> state == currentPredictions ? 0 : state.estimateSize()));
+        footprint.withComponent(MemoryFootprint.POSSIBLE_MOVES, possibleMoves.estimateSize());
+    }
+
+    @Override
+    protected ObgPredictor<TransitionNode> newPredictor() {
+        return new TransitionTreePredictor(true);
+    }
+
+    @Override
+    public MixedModeObgEngine fork() {
+        return new HybridObgEngine(this);
+    }
+
     @Override
     public BoardSnapshot getCurrentBoard() {
         return BoardMapper.takeSnapshot(columns);
     }
+
+    /**
+     * The node of the transition tree reached so far in the current turn (the tree being immutable),
+     * along with one leaf below it for each resulting board, for constant time board lookups.
+     * The board index is only built on the first lookup, so games played move by move never pay for it.
+     * Predictions are shared with forks, which may run on other threads: the index is published through
+     * a volatile field, and two threads racing to build it build the same one.
+     */
+    private static final class Predictions {
+
+        static final Predictions EMPTY = new Predictions(TransitionNode.EMPTY);
+
+        private final TransitionNode node;
+        private volatile Map<BoardSnapshot, TransitionNode> leavesByBoard;
+
+        private Predictions(TransitionNode node) {
+            this.node = node;
+        }
+
+        static Predictions of(TransitionNode node) {
+            return new Predictions(node);
+        }
+
+        TransitionNode node() {
+            return node;
+        }
+
+        Map<BoardSnapshot, TransitionNode> leavesByBoard() {
+            var index = leavesByBoard;
+            if (index == null) {
+                final var leaves = new HashMap<BoardSnapshot, TransitionNode>();
+                if (!node.isLeaf()) {
+                    node.forEachLeaf(leaf -> leaves.putIfAbsent(leaf.getBoard(), leaf));
+                }
+                index = Collections.unmodifiableMap(leaves);
+                leavesByBoard = index;
+            }
+            return index;
+        }
+
+        /**
+         * Estimate the size of this object and of its board index, if built. The tree is not included.
+         */
+        long estimateSize() {
+            if (this == EMPTY) {
+                return 0;
+            }
+            final var index = leavesByBoard;
+            return ObjectSizes.object(2 * ObjectSizes.REFERENCE) + (index == null ? 0
+                    : ObjectSizes.object(4 * ObjectSizes.REFERENCE) + ObjectSizes.hashMap(index.size()));
+        }
+    }
 }
@@ -5,73 +5,162 @@ import com.github.afloarea.obge.InteractiveObgEngine;
 import com.github.afloarea.obge.dice.DiceRoll;
 import com.github.afloarea.obge.exceptions.IllegalObgActionException;
 import com.github.afloarea.obge.layout.ColumnSequence;
+import com.github.afloarea.obge.metrics.ObgCache;
+import com.github.afloarea.obge.metrics.MemoryFootprint;
+import com.github.afloarea.obge.metrics.ObgOperation;
 import com.github.afloarea.obge.moves.ObgMove;
 import com.github.afloarea.obge.moves.ObgTransition;
 import com.github.afloarea.obge.predictors.ObgPredictor;
-import com.github.afloarea.obge.predictors.SequencePredictor;
+import com.github.afloarea.obge.predictors.TransitionNode;
+import com.github.afloarea.obge.predictors.TransitionTreePredictor;
 
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
-
-import static java.util.function.Predicate.not;
+import java.util.concurrent.Executor;
 
 public final class InteractiveTurnSlicingObgEngine extends BaseObgEngine implements InteractiveObgEngine {
 
-    private final Set<List<ObgTransition>> possibleSequences = new HashSet<>();
-    private final ObgPredictor<Set<List<ObgTransition>>> sequencePredictor = new SequencePredictor();
+    // the node of the transition tree reached so far in the current turn; the tree is immutable
+    private TransitionNode currentNode = TransitionNode.EMPTY;
+    private final ObgPredictor<TransitionNode> treePredictor = new TransitionTreePredictor(false);
+    private final MoveJournal<TransitionNode> journal;
+    private PossibleMoves possibleMoves = PossibleMoves.NONE;
 
     public InteractiveTurnSlicingObgEngine(ColumnSequence columns) {
-        super(columns);
+        this(columns, null);
+    }
+
+    /**
+     * Create an engine.
+     *
+     * @param columns             the columns
+     * @param speculativeExecutor the executor predicting the rolls of the next turn in the background, or null
+     */
+    public InteractiveTurnSlicingObgEngine(ColumnSequence columns, Executor speculativeExecutor) {
+        super(columns, speculativeExecutor);
+        journal = new MoveJournal<>();
+    }
+
+    private InteractiveTurnSlicingObgEngine(InteractiveTurnSlicingObgEngine original) {
+        super(original);
+        currentNode = original.currentNode;
+        journal = original.journal.copy();
+        possibleMoves = original.possibleMoves;
     }
 
     @Override
     public void applyDiceRoll(Direction direction, DiceRoll dice) {
+        final var command = operationStarted();
         validateDirection(direction);
 
         currentDirection = direction;
-        possibleSequences.clear();
-        possibleSequences.addAll(sequencePredictor.predict(columns, dice, direction));
+        currentRoll = dice;
+        final TransitionNode predicted = takeSpeculativePrediction(direction, dice);
+        currentNode = predicted != null ? predicted : predict(treePredictor, dice, direction);
+        journal.clear();
+        if (isCurrentTurnDone()) {
+            // no play: the opponent's rolls can already be predicted
+            boardChanged();
+        }
+        operationCompleted(ObgOperation.APPLY_DICE_ROLL, command, 0);
     }
 
     @Override
     public boolean isCurrentTurnDone() {
-        return possibleSequences.isEmpty();
+        return currentNode.isLeaf();
     }
 
     @Override
     public List<ObgTransition> execute(Direction direction, String source, String target) {
+        final var command = operationStarted();
         checkTransitionPossible(direction);
 
-        final var viableSequences = possibleSequences.stream()
-                .filter(sequence -> sequenceHasSourceAndTarget(sequence, source, target))
-                .toList();
-
-        if (viableSequences.isEmpty()) {
+        final var path = currentNode.findPath(source, target);
+        if (path.isEmpty()) {
             throw new IllegalObgActionException("Invalid move provided");
         }
 
-        final var executionSequence = extractUpToTarget(viableSequences.get(0), target);
-
+        final var executionSequence = path.stream().map(TransitionNode::getTransition).toList();
         executeSequence(executionSequence);
 
-        possibleSequences.clear();
-        viableSequences.stream()
-                .map(sequence -> sequence.stream()
-                        .dropWhile(transition -> !transition.target().equals(target))
-                        .skip(1)    // skip the target as well
-                        .toList())
-                .filter(not(List::isEmpty))
-                .forEach(possibleSequences::add);
+        final var nextNode = path.get(path.size() - 1);
+        journal.record(executionSequence, currentNode, nextNode);
+        currentNode = nextNode;
+        boardChanged();
 
+        operationCompleted(ObgOperation.EXECUTE, command, executionSequence.size());
         return executionSequence;
     }
 
+    @Override
+    public List<ObgTransition> undo(Direction direction) {
+        final var command = operationStarted();
+        checkTransitionPossible(direction);
+
+        final var entry = journal.undo();
+        revertSequence(entry.transitions());
+        currentNode = entry.stateBefore();
+        boardChanged();
+        operationCompleted(ObgOperation.UNDO, command, entry.transitions().size());
+        return entry.transitions();
+    }
+
+    @Override
+    public List<ObgTransition> redo(Direction direction) {
+        final var command = operationStarted();
+        checkTransitionPossible(direction);
+
+        final var entry = journal.redo();
+        executeSequence(entry.transitions());
+        currentNode = entry.stateAfter();
+        boardChanged();
+        operationCompleted(ObgOperation.REDO, command, entry.transitions().size());
+        return entry.transitions();
+    }
+
     @Override
     public Set<ObgMove> getPossibleMoves() {
-        return possibleSequences.stream()
-                .mapMulti(this::sequenceToMultipleMoves)
-                .collect(Collectors.toUnmodifiableSet());
+        return possibleMoves().all();
+    }
+
+    @Override
+    public Set<ObgMove> getPossibleMoves(String source) {
+        return possibleMoves().from(source);
+    }
+
+    private PossibleMoves possibleMoves() {
+        final var command = operationStarted();
+        final var node = currentNode;
+        final boolean cached = possibleMoves.isComputedFor(node);
+        cacheAccessed(ObgCache.POSSIBLE_MOVES, cached);
+        if (!cached) {
+            possibleMoves = PossibleMoves.compute(node, consumer -> nodeToMoves(node, consumer));
+        }
+        operationCompleted(ObgOperation.GET_POSSIBLE_MOVES, command, 0);
+        return possibleMoves;
+    }
+
+    @Override
+    protected void clearTurnState() {
+        currentNode = TransitionNode.EMPTY;
+        journal.clear();
+    }
+
+    @Override
+    protected void estimateTurnState(MemoryFootprint.Builder footprint) {
+        footprint.withComponent(MemoryFootprint.PREDICTIONS, Footprints.tree(currentNode));
+        // the journal states are nodes of the same tree
+        footprint.withComponent(MemoryFootprint.JOURNAL, journal.estimateSize(state -> 0));
+        footprint.withComponent(MemoryFootprint.POSSIBLE_MOVES, possibleMoves.estimateSize());
+    }
+
+    @Override
+    protected ObgPredictor<TransitionNode> newPredictor() {
+        return new TransitionTreePredictor(false);
+    }
+
+    @Override
+    public InteractiveObgEngine fork() {
+        return new InteractiveTurnSlicingObgEngine(this);
     }
 }
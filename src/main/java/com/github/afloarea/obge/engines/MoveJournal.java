@@ -0,0 +1,96 @@
+package com.github.afloarea.obge.engines;
+
+import com.github.afloarea.obge.common.ObjectSizes;
+import com.github.afloarea.obge.exceptions.IllegalObgActionException;
+import com.github.afloarea.obge.moves.ObgTransition;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Journal of the moves executed during the current turn, used for undo and redo.
+ * Along with each move, it keeps the (immutable) turn state from before and after the move,
+ * so that undoing or redoing never requires a new prediction.
+ *
+ * @param <S> the type of the turn state
+ */
+final class MoveJournal<S> {
+
+    record Entry<S>(List<ObgTransition> transitions, S stateBefore, S stateAfter) {
+    }
+
+    private final Deque<Entry<S>> undoEntries;
+    private final Deque<Entry<S>> redoEntries;
+
+    MoveJournal() {
+        undoEntries = new ArrayDeque<>();
+        redoEntries = new ArrayDeque<>();
+    }
+
+    private MoveJournal(MoveJournal<S> original) {
+        undoEntries = new ArrayDeque<>(original.undoEntries);
+        redoEntries = new ArrayDeque<>(original.redoEntries);
+    }
+
+    /**
+     * Record a newly executed move. Any previously undone move can no longer be redone.
+     */
+    void record(List<ObgTransition> transitions, S stateBefore, S stateAfter) {
+        undoEntries.push(new Entry<>(transitions, stateBefore, stateAfter));
+        redoEntries.clear();
+    }
+
+    Entry<S> undo() {
+        if (undoEntries.isEmpty()) {
+            throw new IllegalObgActionException("No move to undo");
+        }
+        final var entry = undoEntries.pop();
+        redoEntries.push(entry);
+        return entry;
+    }
+
+    Entry<S> redo() {
+        if (redoEntries.isEmpty()) {
+            throw new IllegalObgActionException("No move to redo");
+        }
+        final var entry = redoEntries.pop();
+        undoEntries.push(entry);
+        return entry;
+    }
+
+    void clear() {
+        undoEntries.clear();
+        redoEntries.clear();
+    }
+
+    MoveJournal<S> copy() {
+        return new MoveJournal<>(this);
+    }
+
+    /**
+     * Estimate the memory retained by the journal. Each distinct state is only counted once.
+     *
+     * @param stateSize estimates the size of a state, 0 for the ones already counted elsewhere
+     * @return the estimated size in bytes
+     */
+    long estimateSize(ToLongFunction<S> stateSize) {
+        final var states = Collections.newSetFromMap(new IdentityHashMap<S, Boolean>());
+        long size = ObjectSizes.object(2 * ObjectSizes.REFERENCE)
+                + ObjectSizes.arrayDeque(undoEntries.size()) + ObjectSizes.arrayDeque(redoEntries.size());
+        for (var entries : List.of(undoEntries, redoEntries)) {
+            for (var entry : entries) {
+                size += ObjectSizes.object(3 * ObjectSizes.REFERENCE) + ObjectSizes.immutableList(entry.transitions().size());
+                states.add(entry.stateBefore());
+                states.add(entry.stateAfter());
+            }
+        }
+        for (var state : states) {
+            size += stateSize.applyAsLong(state);
+        }
+        return size;
+    }
+}
@@ -0,0 +1,78 @@
+package com.github.afloarea.obge.engines;
+
+import com.github.afloarea.obge.common.ObjectSizes;
+import com.github.afloarea.obge.moves.ObgMove;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * The moves available in a given turn state, computed once and indexed by source column.
+ * The turn states of the engines are immutable and replaced on every change,
+ * so a cached instance is valid for as long as the engine still holds the very same state object.
+ */
+final class PossibleMoves {
+    static final PossibleMoves NONE = new PossibleMoves(null, Set.of(), Map.of());
+
+    private final Object state;
+    private final Set<ObgMove> moves;
+    private final Map<String, Set<ObgMove>> movesBySource;
+
+    private PossibleMoves(Object state, Set<ObgMove> moves, Map<String, Set<ObgMove>> movesBySource) {
+        this.state = state;
+        this.moves = moves;
+        this.movesBySource = movesBySource;
+    }
+
+    /**
+     * Compute the moves for a turn state.
+     *
+     * @param state     the turn state
+     * @param generator emits every available move (duplicates allowed) to the provided consumer
+     * @return the possible moves
+     */
+    static PossibleMoves compute(Object state, Consumer<Consumer<ObgMove>> generator) {
+        final var mutableMovesBySource = new HashMap<String, Set<ObgMove>>();
+        generator.accept(move -> mutableMovesBySource.computeIfAbsent(move.source(), source -> new HashSet<>()).add(move));
+
+        final var allMoves = new HashSet<ObgMove>();
+        final var movesBySource = new HashMap<String, Set<ObgMove>>();
+        mutableMovesBySource.forEach((source, sourceMoves) -> {
+            allMoves.addAll(sourceMoves);
+            movesBySource.put(source, Set.copyOf(sourceMoves));
+        });
+        return new PossibleMoves(state, Set.copyOf(allMoves), Map.copyOf(movesBySource));
+    }
+
+    boolean isComputedFor(Object state) {
+        return this.state == state;
+    }
+
+    Set<ObgMove> all() {
+        return moves;
+    }
+
+    Set<ObgMove> from(String source) {
+        return movesBySource.getOrDefault(source, Set.of());
+    }
+
+    /**
+     * Estimate the memory retained by the cached moves. The moves themselves are shared and are not included.
+     *
+     * @return the estimated size in bytes
+     */
+    long estimateSize() {
+        if (this == NONE) {
+            return 0;
+        }
+        long size = ObjectSizes.object(3 * ObjectSizes.REFERENCE)
+                + ObjectSizes.immutableSet(moves.size()) + ObjectSizes.immutableMap(movesBySource.size());
+        for (var sourceMoves : movesBySource.values()) {
+            size += ObjectSizes.immutableSet(sourceMoves.size());
+        }
+        return size;
+    }
+}
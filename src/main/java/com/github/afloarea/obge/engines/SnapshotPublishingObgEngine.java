@@ -0,0 +1,274 @@
+package com.github.afloarea.obge.engines;
+
+import com.github.afloarea.obge.Direction;
+import com.github.afloarea.obge.MixedModeObgEngine;
+import com.github.afloarea.obge.board.BoardSnapshot;
+import com.github.afloarea.obge.common.ObjectSizes;
+import com.github.afloarea.obge.dice.DiceRoll;
+import com.github.afloarea.obge.metrics.MemoryFootprint;
+import com.github.afloarea.obge.moves.ObgMove;
+import com.github.afloarea.obge.moves.ObgTransition;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Thread-safe engine that can be read from any number of threads while another thread mutates it.
+ * <p>
+ * Mutations are serialized and applied to a wrapped, single-threaded engine. After each mutation an immutable
+ * version of the state is published through a volatile reference. Readers only dereference the latest published
+ * version, so they never see a half-applied move.
+ * <p>
+ * Publishing is kept cheap: a version holds the board and the turn state, along with a fork of the wrapped engine
+ * which shares its immutable predictions. The moves and the board choices are only derived from the fork when a reader
+ * first asks for them, and are then kept by the version; readers of the same version wait for that first derivation.
+ */
+public final class SnapshotPublishingObgEngine implements MixedModeObgEngine {
+
+    private final MixedModeObgEngine delegate;
+    private final Object writeLock = new Object();
+    private volatile State state;
+
+    public SnapshotPublishingObgEngine(MixedModeObgEngine delegate) {
+        this(Objects.requireNonNull(delegate), State.of(delegate));
+    }
+
+    private SnapshotPublishingObgEngine(MixedModeObgEngine delegate, State state) {
+        this.delegate = delegate;
+        this.state = state;
+    }
+
+    // writes
+
+    @Override
+    public void applyDiceRoll(Direction direction, DiceRoll dice) {
+        write(() -> {
+            delegate.applyDiceRoll(direction, dice);
+            return null;
+        });
+    }
+
+    @Override
+    public List<ObgTransition> execute(Direction direction, String source, String target) {
+        return write(() -> delegate.execute(direction, source, target));
+    }
+
+    @Override
+    public List<ObgTransition> undo(Direction direction) {
+        return write(() -> delegate.undo(direction));
+    }
+
+    @Override
+    public List<ObgTransition> redo(Direction direction) {
+        return write(() -> delegate.redo(direction));
+    }
+
+    @Override
+    public BoardSnapshot chooseBoard(Direction playingDirection, BoardSnapshot board) {
+        return write(() -> delegate.chooseBoard(playingDirection, board));
+    }
+
+    @Override
+    public List<ObgTransition> transitionTo(Direction playingDirection, BoardSnapshot boardSnapshot) {
+        return write(() -> delegate.transitionTo(playingDirection, boardSnapshot));
+    }
+
+    @Override
+    public void reset() {
+        write(() -> {
+            delegate.reset();
+            return null;
+        });
+    }
+
+    @Override
+    public MixedModeObgEngine fork() {
+        synchronized (writeLock) {
+            // the published state is immutable, so the fork can start from the same one
+            return new SnapshotPublishingObgEngine(delegate.fork(), state);
+        }
+    }
+
+    /**
+     * Estimate the memory retained by the wrapped engine and by the published state.
+     *
+     * @return the estimated footprint
+     * @throws IllegalArgumentException if the wrapped engine is not one of the built-in engines
+     */
+    public MemoryFootprint estimateFootprint() {
+        if (!(delegate instanceof BaseObgEngine engine)) {
+            throw new IllegalArgumentException("Cannot estimate the footprint of " + delegate.getClass());
+        }
+        synchronized (writeLock) {
+            return MemoryFootprint.builder()
+                    .withFootprint(engine.estimateFootprint())
+                    .withComponent(MemoryFootprint.PUBLISHED_STATE, state.estimateSize())
+                    .build();
+        }
+    }
+
+    private <T> T write(Supplier<T> mutation) {
+        synchronized (writeLock) {
+            try {
+                return mutation.get();
+            } finally {
+                // publish even on failure, in case the delegate changed partially
+                state = State.of(delegate);
+            }
+        }
+    }
+
+    // reads
+
+    @Override
+    public Direction getCurrentTurnDirection() {
+        return state.direction();
+    }
+
+    @Override
+    public Direction getWinningDirection() {
+        return state.winningDirection();
+    }
+
+    @Override
+    public boolean isCurrentTurnDone() {
+        return state.turnDone();
+    }
+
+    @Override
+    public Set<ObgMove> getPossibleMoves() {
+        return state.possibleMoves();
+    }
+
+    @Override
+    public Set<ObgMove> getPossibleMoves(String source) {
+        return state.possibleMovesBySource().getOrDefault(source, Set.of());
+    }
+
+    @Override
+    public Set<BoardSnapshot> getBoardChoices() {
+        return state.boardChoices();
+    }
+
+    @Override
+    public BoardSnapshot getCurrentBoard() {
+        return state.board();
+    }
+
+    /**
+     * A published version of the state. The fork of the wrapped engine is never mutated
+     * and is only read under the lock of this version, to derive the moves and the board choices once.
+     */
+    private static final class State {
+        private final Direction direction;
+        private final Direction winningDirection;
+        private final boolean turnDone;
+        private final BoardSnapshot board;
+        // null once the turn is done: there is nothing left to derive
+        private final MixedModeObgEngine frozenEngine;
+
+        private volatile Set<ObgMove> possibleMoves;
+        private volatile Map<String, Set<ObgMove>> possibleMovesBySource;
+        private volatile Set<BoardSnapshot> boardChoices;
+
+        private State(MixedModeObgEngine engine) {
+            direction = engine.getCurrentTurnDirection();
+            winningDirection = engine.getWinningDirection();
+            turnDone = engine.isCurrentTurnDone();
+            board = engine.getCurrentBoard();
+            frozenEngine = turnDone ? null : engine.fork();
+            if (turnDone) {
+                possibleMoves = Set.of();
+                possibleMovesBySource = Map.of();
+                boardChoices = Set.of();
+            }
+        }
+
+        static State of(MixedModeObgEngine engine) {
+            return new State(engine);
+        }
+
+        Direction direction() {
+            return direction;
+        }
+
+        Direction winningDirection() {
+            return winningDirection;
+        }
+
+        boolean turnDone() {
+            return turnDone;
+        }
+
+        BoardSnapshot board() {
+            return board;
+        }
+
+        Set<ObgMove> possibleMoves() {
+            final var moves = possibleMoves;
+            if (moves != null) {
+                return moves;
+            }
+            synchronized (this) {
+                if (possibleMoves == null) {
+                    possibleMoves = Set.copyOf(frozenEngine.getPossibleMoves());
+                }
+                return possibleMoves;
+            }
+        }
+
+        Map<String, Set<ObgMove>> possibleMovesBySource() {
+            final var movesBySource = possibleMovesBySource;
+            if (movesBySource != null) {
+                return movesBySource;
+            }
+            final var moves = possibleMoves();
+            synchronized (this) {
+                if (possibleMovesBySource == null) {
+                    possibleMovesBySource = moves.stream().collect(Collectors.collectingAndThen(
+                            Collectors.groupingBy(ObgMove::source, Collectors.toUnmodifiableSet()), Map::copyOf));
+                }
+                return possibleMovesBySource;
+            }
+        }
+
+        Set<BoardSnapshot> boardChoices() {
+            final var choices = boardChoices;
+            if (choices != null) {
+                return choices;
+            }
+            synchronized (this) {
+                if (boardChoices == null) {
+                    boardChoices = Set.copyOf(frozenEngine.getBoardChoices());
+                }
+                return boardChoices;
+            }
+        }
+
+        /**
+         * Estimate the size of the state, including the columns of the fork and the moves and board choices
+         * derived so far. The predictions, the moves and the board choices themselves are shared with the engine.
+         */
+        synchronized long estimateSize() {
+            long size = ObjectSizes.object(Integer.BYTES + 8 * ObjectSizes.REFERENCE) + Footprints.BOARD_SNAPSHOT;
+            if (frozenEngine instanceof BaseObgEngine engine) {
+                size += engine.estimateFootprint().bytesOf(MemoryFootprint.COLUMNS);
+            }
+            if (frozenEngine != null) {
+                size += possibleMoves == null ? 0 : ObjectSizes.immutableSet(possibleMoves.size());
+                size += boardChoices == null ? 0 : ObjectSizes.immutableSet(boardChoices.size());
+                if (possibleMovesBySource != null) {
+                    size += ObjectSizes.immutableMap(possibleMovesBySource.size());
+                    for (var sourceMoves : possibleMovesBySource.values()) {
+                        size += ObjectSizes.immutableSet(sourceMoves.size());
+                    }
+                }
+            }
+            return size;
+        }
+    }
+}
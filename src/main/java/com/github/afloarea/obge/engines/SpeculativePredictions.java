@@ -0,0 +1,112 @@
+package com.github.afloarea.obge.engines;
+
+import com.github.afloarea.obge.Direction;
+import com.github.afloarea.obge.common.ObjectSizes;
+import com.github.afloarea.obge.dice.DiceRoll;
+import com.github.afloarea.obge.layout.ColumnSequence;
+import com.github.afloarea.obge.predictors.ObgPredictor;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import static com.github.afloarea.obge.common.Constants.DICE_ROLLS;
+
+/**
+ * Predictions for every possible roll of the next turn, computed in the background while the next player thinks.
+ * Each roll is predicted on its own copy of the columns, so the engine is free to keep changing its own.
+ *
+ * @param <R> the type of the predictions
+ */
+final class SpeculativePredictions<R> {
+
+    // the future, with its result and dependents, and the task computing it
+    private static final long PENDING_PREDICTION = 2 * ObjectSizes.object(3 * ObjectSizes.REFERENCE);
+
+    private final Direction direction;
+    private final Map<DiceRoll, CompletableFuture<R>> predictionsByRoll;
+    private final ColumnSequence source;
+
+    private SpeculativePredictions(Direction direction, Map<DiceRoll, CompletableFuture<R>> predictionsByRoll,
+                                   ColumnSequence source) {
+        this.direction = direction;
+        this.predictionsByRoll = predictionsByRoll;
+        this.source = source;
+    }
+
+    /**
+     * Start predicting all the rolls of a direction.
+     *
+     * @param executor         the executor running the predictions
+     * @param columns          the columns, copied before returning
+     * @param direction        the direction of the next turn
+     * @param predictorFactory creates a new predictor for every roll, as predictors are not thread-safe
+     * @param <R>              the type of the predictions
+     * @return the predictions in progress
+     */
+    static <R> SpeculativePredictions<R> start(Executor executor, ColumnSequence columns, Direction direction,
+                                               Supplier<? extends ObgPredictor<? extends R>> predictorFactory) {
+        // never changed afterwards, so all the predictions can copy it concurrently
+        final var source = columns.copy();
+        final var predictionsByRoll = new HashMap<DiceRoll, CompletableFuture<R>>();
+        for (var roll : DICE_ROLLS) {
+            predictionsByRoll.put(roll, CompletableFuture.supplyAsync(
+                    () -> predictorFactory.get().predict(source.copy(), roll, direction), executor));
+        }
+        return new SpeculativePredictions<>(direction, Map.copyOf(predictionsByRoll), source);
+    }
+
+    /**
+     * Take the prediction of a roll and cancel all the others.
+     * If the prediction of the roll is still in progress, waits for it rather than computing it again.
+     *
+     * @param playingDirection the playing direction
+     * @param roll             the roll
+     * @return the prediction or null if it is not available
+     */
+    R take(Direction playingDirection, DiceRoll roll) {
+        if (playingDirection != direction) {
+            cancel();
+            return null;
+        }
+        final var prediction = predictionsByRoll.get(roll);
+        predictionsByRoll.forEach((otherRoll, otherPrediction) -> {
+            if (otherPrediction != prediction) {
+                otherPrediction.cancel(false);
+            }
+        });
+        try {
+            return prediction.join();
+        } catch (CompletionException | CancellationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Cancel the predictions not started yet. The ones already running finish, but their results are discarded.
+     */
+    void cancel() {
+        predictionsByRoll.values().forEach(prediction -> prediction.cancel(false));
+    }
+
+    /**
+     * Estimate the memory retained by the predictions, including the ones already computed.
+     *
+     * @return the estimated size in bytes
+     */
+    long estimateSize() {
+        long size = ObjectSizes.object(3 * ObjectSizes.REFERENCE) + source.estimateSize()
+                + ObjectSizes.immutableMap(predictionsByRoll.size());
+        for (var prediction : predictionsByRoll.values()) {
+            size += PENDING_PREDICTION;
+            if (prediction.isDone() && !prediction.isCompletedExceptionally() && !prediction.isCancelled()) {
+                size += Footprints.prediction(prediction.join());
+            }
+        }
+        return size;
+    }
+}
@@ -0,0 +1,193 @@
+package com.github.afloarea.obge.evaluation;
+
+import com.github.afloarea.obge.Direction;
+import com.github.afloarea.obge.board.BoardSnapshot;
+import com.github.afloarea.obge.layout.ColumnSequence;
+import com.github.afloarea.obge.layout.PositionFeatures;
+
+/**
+ * A fast, hand-tuned evaluator meant for ranking plays and reducing the variance of rollouts,
+ * not for estimating equities accurately.
+ * <p>
+ * While the pieces can still meet, the position is scored by a weighted sum of the differences between the players in
+ * pip count, exposed blots, made points in the home, longest prime, anchors in the opponent's home
+ * and suspended pieces, plus a bonus for being on roll. Once they cannot, only the pip counts matter.
+ * The score is squashed to an equity between -1 and 1; gammons are not estimated.
+ * <p>
+ * Every term is read from {@link PositionFeatures}, so evaluating the columns of a sequence takes constant time.
+ */
+public final class HeuristicEvaluator implements PositionEvaluator {
+    private static final HeuristicEvaluator DEFAULT = builder().build();
+
+    // about half the average roll, in pips
+    private static final double ON_ROLL_PIPS = 4;
+    private static final double ON_ROLL_BONUS = 0.05;
+
+    private final double pipWeight;
+    private final double blotWeight;
+    private final double madePointWeight;
+    private final double primeWeight;
+    private final double anchorWeight;
+    private final double suspendedWeight;
+
+    private HeuristicEvaluator(Builder builder) {
+        pipWeight = builder.pipWeight;
+        blotWeight = builder.blotWeight;
+        madePointWeight = builder.madePointWeight;
+        primeWeight = builder.primeWeight;
+        anchorWeight = builder.anchorWeight;
+        suspendedWeight = builder.suspendedWeight;
+    }
+
+    /**
+     * Get the evaluator with the default weights.
+     *
+     * @return the evaluator
+     */
+    public static HeuristicEvaluator getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Build a new evaluator.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public double evaluate(BoardSnapshot board, Direction direction) {
+        return evaluate(PositionFeatures.of(board), direction);
+    }
+
+    @Override
+    public double evaluate(ColumnSequence columns, Direction direction) {
+        return evaluate(columns.getFeatures(), direction);
+    }
+
+    /**
+     * Evaluate a position from its features.
+     *
+     * @param features  the features of the position
+     * @param direction the direction of the player about to roll
+     * @return the equity of that player
+     */
+    public double evaluate(PositionFeatures features, Direction direction) {
+        final var opponent = direction.reverse();
+        final int pips = features.getPipCount(direction);
+        final int opponentPips = features.getPipCount(opponent);
+        if (!features.isContact()) {
+            // the spread of a race grows with the square root of its length
+            return Math.tanh((opponentPips - pips + ON_ROLL_PIPS) / (2 + 0.6 * Math.sqrt(pips + opponentPips)));
+        }
+
+        final int madePoints = features.getMadePoints(direction);
+        final int opponentMadePoints = features.getMadePoints(opponent);
+        final double score = ON_ROLL_BONUS
+                + pipWeight * (opponentPips - pips)
+                + blotWeight * (Integer.bitCount(features.getExposedBlots(opponent))
+                - Integer.bitCount(features.getExposedBlots(direction)))
+                + madePointWeight * (Integer.bitCount(madePoints & PositionFeatures.HOME_MASK)
+                - Integer.bitCount(opponentMadePoints & PositionFeatures.HOME_MASK))
+                + primeWeight * (longestPrime(madePoints) - longestPrime(opponentMadePoints))
+                + anchorWeight * (Integer.bitCount(madePoints & PositionFeatures.OPPONENT_HOME_MASK)
+                - Integer.bitCount(opponentMadePoints & PositionFeatures.OPPONENT_HOME_MASK))
+                + suspendedWeight * (features.getSuspended(opponent) - features.getSuspended(direction));
+        return Math.tanh(score);
+    }
+
+    /**
+     * Count the longest run of consecutive made points, by repeatedly keeping the points followed by a made point.
+     */
+    static int longestPrime(int madePoints) {
+        int length = 0;
+        for (int runs = madePoints; runs != 0; runs &= runs >>> 1) {
+            length++;
+        }
+        return length;
+    }
+
+    public static final class Builder {
+        private double pipWeight = 0.015;
+        private double blotWeight = 0.08;
+        private double madePointWeight = 0.07;
+        private double primeWeight = 0.05;
+        private double anchorWeight = 0.06;
+        private double suspendedWeight = 0.12;
+
+        private Builder() {
+        }
+
+        /**
+         * Set the weight of every pip of lead. Defaults to 0.015.
+         *
+         * @param pipWeight the weight
+         * @return the builder
+         */
+        public Builder withPipWeight(double pipWeight) {
+            this.pipWeight = pipWeight;
+            return this;
+        }
+
+        /**
+         * Set the weight of every blot the opponent can still hit. Defaults to 0.08.
+         *
+         * @param blotWeight the weight
+         * @return the builder
+         */
+        public Builder withBlotWeight(double blotWeight) {
+            this.blotWeight = blotWeight;
+            return this;
+        }
+
+        /**
+         * Set the weight of every made point in the home. Defaults to 0.07.
+         *
+         * @param madePointWeight the weight
+         * @return the builder
+         */
+        public Builder withMadePointWeight(double madePointWeight) {
+            this.madePointWeight = madePointWeight;
+            return this;
+        }
+
+        /**
+         * Set the weight of every point of the longest run of made points. Defaults to 0.05.
+         *
+         * @param primeWeight the weight
+         * @return the builder
+         */
+        public Builder withPrimeWeight(double primeWeight) {
+            this.primeWeight = primeWeight;
+            return this;
+        }
+
+        /**
+         * Set the weight of every made point in the opponent's home. Defaults to 0.06.
+         *
+         * @param anchorWeight the weight
+         * @return the builder
+         */
+        public Builder withAnchorWeight(double anchorWeight) {
+            this.anchorWeight = anchorWeight;
+            return this;
+        }
+
+        /**
+         * Set the weight of every suspended piece of the opponent. Defaults to 0.12.
+         *
+         * @param suspendedWeight the weight
+         * @return the builder
+         */
+        public Builder withSuspendedWeight(double suspendedWeight) {
+            this.suspendedWeight = suspendedWeight;
+            return this;
+        }
+
+        public HeuristicEvaluator build() {
+            return new HeuristicEvaluator(this);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.github.afloarea.obge.evaluation;
+
+import com.github.afloarea.obge.Direction;
+import com.github.afloarea.obge.board.BoardSnapshot;
+import com.github.afloarea.obge.layout.BoardMapper;
+import com.github.afloarea.obge.layout.ColumnSequence;
+import com.github.afloarea.obge.layout.PositionFeatures;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.github.afloarea.obge.common.Constants.PIECES_PER_PLAYER;
+
+/**
+ * Estimates the cubeless equity of a position: the points the player about to roll is expected to win,
+ * from -3 (a certain backgammon loss) to 3 (a certain backgammon win).
+ * Evaluators are shared by all the threads of a rollout, so they must be thread-safe.
+ * <p>
+ * Only {@link #evaluate(BoardSnapshot, Direction)} needs to be implemented. Evaluators that can read
+ * the incrementally maintained {@link PositionFeatures} should also override {@link #evaluate(ColumnSequence, Direction)},
+ * which the predictors call on every play they find.
+ */
+@FunctionalInterface
+public interface PositionEvaluator {
+
+    /**
+     * Evaluate a position.
+     *
+     * @param board     the board
+     * @param direction the direction of the player about to roll
+     * @return the equity of that player
+     */
+    double evaluate(BoardSnapshot board, Direction direction);
+
+    /**
+     * Evaluate the position of a column sequence. By default, evaluates a snapshot of the columns.
+     *
+     * @param columns   the columns
+     * @param direction the direction of the player about to roll
+     * @return the equity of that player
+     */
+    default double evaluate(ColumnSequence columns, Direction direction) {
+        return evaluate(BoardMapper.takeSnapshot(columns), direction);
+    }
+
+    /**
+     * Evaluate the board a player ends its turn with, from that player's point of view.
+     * A board ending the game is worth the points it wins.
+     *
+     * @param board the board after the play
+     * @param mover the direction of the player who played
+     * @return the equity of the player who played
+     */
+    default double evaluatePlay(BoardSnapshot board, Direction mover) {
+        if (board.getCollected(mover) == PIECES_PER_PLAYER) {
+            return PositionFeatures.of(board).getWinPoints(mover);
+        }
+        return -evaluate(board, mover.reverse());
+    }
+
+    /**
+     * Evaluate the position of a column sequence after a play, from the point of view of the player who played.
+     *
+     * @param columns the columns after the play
+     * @param mover   the direction of the player who played
+     * @return the equity of the player who played
+     */
+    default double evaluatePlay(ColumnSequence columns, Direction mover) {
+        final var features = columns.getFeatures();
+        if (features.getCollected(mover) == PIECES_PER_PLAYER) {
+            return features.getWinPoints(mover);
+        }
+        return -evaluate(columns, mover.reverse());
+    }
+
+    /**
+     * Rank the boards a player can end its turn with, such as the board choices of an engine.
+     * Every board is evaluated once; boards of equal value keep their order.
+     *
+     * @param choices the boards
+     * @param mover   the direction of the player
+     * @return the boards, best first
+     */
+    default List<BoardSnapshot> rank(Collection<BoardSnapshot> choices, Direction mover) {
+        final var scored = new ArrayList<ScoredBoard>(choices.size());
+        for (var choice : choices) {
+            scored.add(new ScoredBoard(choice, evaluatePlay(choice, mover)));
+        }
+        scored.sort(Comparator.comparingDouble(ScoredBoard::score).reversed());
+
+        final var ranked = new ArrayList<BoardSnapshot>(scored.size());
+        for (var entry : scored) {
+            ranked.add(entry.board());
+        }
+        return ranked;
+    }
+}
@@ -0,0 +1,6 @@
+package com.github.afloarea.obge.evaluation;
+
+import com.github.afloarea.obge.board.BoardSnapshot;
+
+record ScoredBoard(BoardSnapshot board, double score) {
+}
@@ -5,11 +5,17 @@ import com.github.afloarea.obge.board.BoardSnapshot;
 import com.github.afloarea.obge.layout.BoardMapper;
 import com.github.afloarea.obge.layout.ColumnSequence;
 import com.github.afloarea.obge.layout.ColumnsFactory;
+import com.github.afloarea.obge.metrics.AllocationCounter;
+import com.github.afloarea.obge.metrics.ExpandEvent;
+import com.github.afloarea.obge.metrics.ObgMetricsListener;
+import com.github.afloarea.obge.metrics.ObgOperation;
+import com.github.afloarea.obge.metrics.RollType;
 import com.github.afloarea.obge.predictors.BoardPredictor;
 import com.github.afloarea.obge.predictors.ObgPredictor;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -21,15 +27,22 @@ public final class StateExpander<V> {
 
     private final Consumer<StateNode<V>> leafConsumer;
     private final Consumer<StateNode<V>> parentConsumer;
+    private final ObgMetricsListener metricsListener;
 
     private final ColumnSequence columns;
 
     //TODO: caching maybe?
     private final ObgPredictor<Set<BoardSnapshot>> predictor = new BoardPredictor();
 
+    // reported by the flight recorder event of the current expansion
+    private long nodeCount;
+    private long leafCount;
+
     private StateExpander(Builder<V> builder) {
         leafConsumer = builder.leafConsumer;
         parentConsumer = builder.parentConsumer;
+        metricsListener = builder.metricsListener;
+        predictor.setMetricsListener(metricsListener);
         columns = ColumnsFactory.buildStartingSequence();
     }
 
@@ -40,17 +53,54 @@ public final class StateExpander<V> {
     public V expand(BoardSnapshot root, Direction playingDirection, int layers) {
         if (layers < 0) throw new IllegalArgumentException("Negative number of layers");
 
-        return computeNode(root, playingDirection, 0, layers).getValue();
+        final var event = ExpandEvent.isRecorded() ? new ExpandEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        nodeCount = 0;
+        leafCount = 0;
+        final boolean measuringAllocations = metricsListener.isMeasuringAllocations();
+        final long startAllocation = measuringAllocations ? AllocationCounter.currentThreadAllocatedBytes() : 0;
+        final long startTime = metricsListener != ObgMetricsListener.NOOP ? System.nanoTime() : 0;
+
+        final var value = computeNode(root, playingDirection, 0, layers).getValue();
+
+        if (metricsListener != ObgMetricsListener.NOOP) {
+            final long elapsed = System.nanoTime() - startTime;
+            if (measuringAllocations) {
+                metricsListener.allocationMeasured(ObgOperation.EXPAND, RollType.NONE,
+                        AllocationCounter.currentThreadAllocatedBytes() - startAllocation);
+            }
+            metricsListener.operationCompleted(ObgOperation.EXPAND, RollType.NONE, elapsed);
+        }
+        if (event != null) {
+            commit(event, root, playingDirection, layers);
+        }
+        return value;
+    }
+
+    private void commit(ExpandEvent event, BoardSnapshot root, Direction playingDirection, int layers) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.setPosition(root.toString());
+            event.setDirection(playingDirection.name());
+            event.setLayers(layers);
+            event.setNodeCount(nodeCount);
+            event.setLeafCount(leafCount);
+            event.commit();
+        }
     }
 
     private StateNode<V> computeNode(BoardSnapshot board, Direction playingDirection, int currentLayer, int maxLayer) {
         final var node = new StateNode<V>(currentLayer, board);
+        nodeCount++;
         if (currentLayer == maxLayer // max layer reached
                 // or game is over
                 || board.getClockwiseCollected() == PIECES_PER_PLAYER
                 || board.getAnticlockwiseCollected() == PIECES_PER_PLAYER) {
 
             node.setChildren(Collections.emptyList());
+            leafCount++;
             if (leafConsumer != null) leafConsumer.accept(node);
             return node;
         }
@@ -62,6 +112,7 @@ public final class StateExpander<V> {
 
         if (possibleStates.isEmpty()) {
             node.setChildren(Collections.emptyList());
+            leafCount++;
             if (leafConsumer != null) leafConsumer.accept(node);
             return node;
         }
@@ -79,6 +130,7 @@ public final class StateExpander<V> {
     public static final class Builder<V> {
         private Consumer<StateNode<V>> leafConsumer = null;
         private Consumer<StateNode<V>> parentConsumer = null;
+        private ObgMetricsListener metricsListener = ObgMetricsListener.NOOP;
 
         private Builder() {
         }
@@ -93,6 +145,11 @@ public final class StateExpander<V> {
             return this;
         }
 
+        public Builder<V> withMetricsListener(ObgMetricsListener metricsListener) {
+            this.metricsListener = Objects.requireNonNull(metricsListener);
+            return this;
+        }
+
         public StateExpander<V> build() {
             return new StateExpander<>(this);
         }
@@ -0,0 +1,117 @@
+package com.github.afloarea.obge.factory;
+
+import com.github.afloarea.obge.metrics.ObgMetricsListener;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+/**
+ * Tuning options for the engines created by {@link ObgEngines}.
+ * None of them changes the observable behaviour of an engine, only its memory and time trade-offs
+ * and what it reports.
+ */
+public final class EngineOptions {
+    private final boolean compactPredictions;
+    private final boolean lazyPrediction;
+    private final Executor speculativeExecutor;
+    private final ObgMetricsListener metricsListener;
+
+    private EngineOptions(Builder builder) {
+        compactPredictions = builder.compactPredictions;
+        lazyPrediction = builder.lazyPrediction;
+        speculativeExecutor = builder.speculativeExecutor;
+        metricsListener = builder.metricsListener;
+    }
+
+    /**
+     * Build new engine options.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Get the default options.
+     *
+     * @return the default options
+     */
+    public static EngineOptions getDefault() {
+        return Holder.DEFAULT;
+    }
+
+    /**
+     * Whether a mixed mode engine keeps a single ordering of the predicted transitions for every resulting board
+     * and set of transitions, deriving the other orderings only when needed.
+     *
+     * @return true if compact predictions are used
+     */
+    public boolean isCompactPredictions() {
+        return compactPredictions;
+    }
+
+    /**
+     * Whether a turn based engine predicts the possible boards only when they are requested.
+     * Chosen boards are then checked with a search targeting the chosen board.
+     *
+     * @return true if predictions are lazy
+     */
+    public boolean isLazyPrediction() {
+        return lazyPrediction;
+    }
+
+    /**
+     * The executor used to predict every roll of the next turn in the background, as soon as a turn is over.
+     * Applying the dice roll then only picks up the prediction, if already done.
+     *
+     * @return the executor or null if the predictions are only made for the rolled dice
+     */
+    public Executor getSpeculativeExecutor() {
+        return speculativeExecutor;
+    }
+
+    /**
+     * The listener notified of the operations, predictions and cache accesses of an engine.
+     *
+     * @return the listener, {@link ObgMetricsListener#NOOP} by default
+     */
+    public ObgMetricsListener getMetricsListener() {
+        return metricsListener;
+    }
+
+    private static final class Holder {
+        private static final EngineOptions DEFAULT = new Builder().build();
+    }
+
+    public static final class Builder {
+        private boolean compactPredictions = false;
+        private boolean lazyPrediction = false;
+        private Executor speculativeExecutor = null;
+        private ObgMetricsListener metricsListener = ObgMetricsListener.NOOP;
+
+        public Builder withCompactPredictions(boolean compactPredictions) {
+            this.compactPredictions = compactPredictions;
+            return this;
+        }
+
+        public Builder withLazyPrediction(boolean lazyPrediction) {
+            this.lazyPrediction = lazyPrediction;
+            return this;
+        }
+
+        public Builder withSpeculativeExecutor(Executor speculativeExecutor) {
+            this.speculativeExecutor = speculativeExecutor;
+            return this;
+        }
+
+        public Builder withMetricsListener(ObgMetricsListener metricsListener) {
+            this.metricsListener = Objects.requireNonNull(metricsListener);
+            return this;
+        }
+
+        public EngineOptions build() {
+            return new EngineOptions(this);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.github.afloarea.obge.factory;
+
+import com.github.afloarea.obge.ObgEngine;
+import com.github.afloarea.obge.engines.BaseObgEngine;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded pool of engines of the same type, all built from the same board template.
+ * Engines are reset when they are returned, so an acquired engine is always in the starting state.
+ * <p>
+ * Both {@link #acquire()} and {@link #release(ObgEngine)} are lock-free and can be called from any thread.
+ * The engines themselves are not thread-safe; an engine must not be used after it was released.
+ * An engine must only be released to the pool it was acquired from. Each engine carries a flag telling
+ * whether it is idle in a pool, so releasing the same engine twice is rejected without the pool tracking its engines.
+ *
+ * @param <E> the engine type
+ */
+public final class ObgEnginePool<E extends ObgEngine> {
+
+    private final Class<E> engineType;
+    private final BoardTemplate template;
+    private final AtomicReferenceArray<E> idleEngines;
+
+    ObgEnginePool(Class<E> engineType, BoardTemplate template, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Pool capacity must be positive");
+        }
+        this.engineType = Objects.requireNonNull(engineType);
+        this.template = Objects.requireNonNull(template);
+        this.idleEngines = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Take an engine out of the pool. If the pool is empty, a new engine is created.
+     *
+     * @return an engine in the starting state
+     */
+    public E acquire() {
+        final int capacity = idleEngines.length();
+        final int start = ThreadLocalRandom.current().nextInt(capacity);
+        for (int offset = 0; offset < capacity; offset++) {
+            final int index = (start + offset) % capacity;
+            if (idleEngines.get(index) != null) {
+                final E engine = idleEngines.getAndSet(index, null);
+                if (engine != null) {
+                    ((BaseObgEngine) engine).markIdle(false);
+                    return engine;
+                }
+            }
+        }
+        return ObgEngines.create(engineType, template);
+    }
+
+    /**
+     * Reset an engine and give it back to the pool.
+     * If the pool is full, the engine is discarded.
+     *
+     * @param engine an engine previously acquired from this pool
+     * @return true if the engine was kept by the pool
+     * @throws IllegalArgumentException if the engine was not created by the engine factory,
+     *                                  is not of the pooled type or was already released
+     */
+    public boolean release(E engine) {
+        if (!(engine instanceof BaseObgEngine baseEngine) || !engineType.isInstance(engine)) {
+            throw new IllegalArgumentException("Engine is not a pooled engine of type " + engineType);
+        }
+        if (!baseEngine.markIdle(true)) {
+            throw new IllegalArgumentException("Engine was already released");
+        }
+        engine.reset();
+
+        final int capacity = idleEngines.length();
+        final int start = ThreadLocalRandom.current().nextInt(capacity);
+        for (int offset = 0; offset < capacity; offset++) {
+            final int index = (start + offset) % capacity;
+            if (idleEngines.get(index) == null && idleEngines.compareAndSet(index, null, engine)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fill the pool with new engines, so that the first games do not pay the creation cost.
+     *
+     * @return this pool
+     */
+    public ObgEnginePool<E> prefill() {
+        for (int index = 0; index < idleEngines.length(); index++) {
+            if (idleEngines.get(index) == null) {
+                final E engine = ObgEngines.create(engineType, template);
+                ((BaseObgEngine) engine).markIdle(true);
+                idleEngines.compareAndSet(index, null, engine);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Count the engines currently waiting in the pool.
+     *
+     * @return the number of idle engines
+     */
+    public int idleCount() {
+        int count = 0;
+        for (int index = 0; index < idleEngines.length(); index++) {
+            if (idleEngines.get(index) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int getCapacity() {
+        return idleEngines.length();
+    }
+
+    public Class<E> getEngineType() {
+        return engineType;
+    }
+
+    public BoardTemplate getTemplate() {
+        return template;
+    }
+}
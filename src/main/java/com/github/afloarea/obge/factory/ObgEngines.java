@@ -6,6 +6,7 @@ import com.github.afloarea.obge.ObgEngine;
 import com.github.afloarea.obge.TurnBasedObgEngine;
 import com.github.afloarea.obge.engines.*;
 import com.github.afloarea.obge.layout.ColumnsFactory;
+import com.github.afloarea.obge.metrics.MemoryFootprint;
 
 /**
  * Factory for creating ObgEngines.
@@ -23,20 +24,118 @@ public final class ObgEngines {
      * @throws IllegalArgumentException if an invalid engine type is provided
      */
     public static <E extends ObgEngine> E create(Class<E> engineType, BoardTemplate template) {
-        return engineType.cast(createEngineOfType(engineType, template));
+        return create(engineType, template, EngineOptions.getDefault());
     }
 
-    private static <E> Object createEngineOfType(Class<E> type, BoardTemplate template) {
-        if (type == InteractiveObgEngine.class) {
-            return new InteractiveTurnSlicingObgEngine(ColumnsFactory.buildStartingSequence(template));
+    /**
+     * Create a new engine using the provided options.
+     *
+     * @param engineType the engine type,
+     *                   one of {@link InteractiveObgEngine}, {@link TurnBasedObgEngine}, {@link MixedModeObgEngine}
+     * @param template   the template of the board
+     * @param options    the engine options
+     * @param <E>        the type
+     * @return the engine
+     * @throws IllegalArgumentException if an invalid engine type is provided
+     */
+    public static <E extends ObgEngine> E create(Class<E> engineType, BoardTemplate template, EngineOptions options) {
+        return engineType.cast(createEngineOfType(engineType, template, options));
+    }
+
+    /**
+     * Create a new thread-safe engine.
+     * Any number of threads can query the engine while another one is executing moves;
+     * readers never see a half-applied action.
+     *
+     * @param engineType the engine type,
+     *                   one of {@link InteractiveObgEngine}, {@link TurnBasedObgEngine}, {@link MixedModeObgEngine}
+     * @param template   the template of the board
+     * @param <E>        the type
+     * @return the engine
+     * @throws IllegalArgumentException if an invalid engine type is provided
+     */
+    public static <E extends ObgEngine> E createConcurrent(Class<E> engineType, BoardTemplate template) {
+        return createConcurrent(engineType, template, EngineOptions.getDefault());
+    }
+
+    /**
+     * Create a new thread-safe engine using the provided options.
+     * The published state supports every kind of action, so the engine always wraps a mixed mode engine
+     * built with the provided options, whatever the requested type.
+     *
+     * @param engineType the engine type,
+     *                   one of {@link InteractiveObgEngine}, {@link TurnBasedObgEngine}, {@link MixedModeObgEngine}
+     * @param template   the template of the board
+     * @param options    the options of the wrapped engine
+     * @param <E>        the type
+     * @return the engine
+     * @throws IllegalArgumentException if an invalid engine type is provided
+     */
+    public static <E extends ObgEngine> E createConcurrent(Class<E> engineType, BoardTemplate template,
+                                                           EngineOptions options) {
+        checkEngineType(engineType);
+        final var delegate = (MixedModeObgEngine) createEngineOfType(MixedModeObgEngine.class, template, options);
+        return engineType.cast(new SnapshotPublishingObgEngine(delegate));
+    }
+
+    /**
+     * Create a bounded pool of engines, all sharing the same type and template.
+     *
+     * @param engineType the engine type,
+     *                   one of {@link InteractiveObgEngine}, {@link TurnBasedObgEngine}, {@link MixedModeObgEngine}
+     * @param template   the template of the board
+     * @param capacity   the maximum number of idle engines kept by the pool
+     * @param <E>        the type
+     * @return the pool
+     * @throws IllegalArgumentException if an invalid engine type or capacity is provided
+     */
+    public static <E extends ObgEngine> ObgEnginePool<E> createPool(Class<E> engineType, BoardTemplate template,
+                                                                   int capacity) {
+        checkEngineType(engineType);
+        return new ObgEnginePool<>(engineType, template, capacity);
+    }
+
+    /**
+     * Estimate the memory retained by an engine created by this factory, broken down by component.
+     * The estimate is computed from the state of the engine, without a heap dump,
+     * so it is cheap enough to be sampled regularly.
+     *
+     * @param engine the engine
+     * @return the estimated footprint
+     * @throws IllegalArgumentException if the engine was not created by this factory
+     */
+    public static MemoryFootprint estimateFootprint(ObgEngine engine) {
+        if (engine instanceof BaseObgEngine baseEngine) {
+            return baseEngine.estimateFootprint();
         }
-        if (type == TurnBasedObgEngine.class) {
-            return new BoardStatePredictingObgEngine(ColumnsFactory.buildStartingSequence(template));
+        if (engine instanceof SnapshotPublishingObgEngine publishingEngine) {
+            return publishingEngine.estimateFootprint();
         }
-        if (type == MixedModeObgEngine.class) {
-            return new HybridObgEngine(ColumnsFactory.buildStartingSequence(template));
+        throw new IllegalArgumentException("Cannot estimate the footprint of " + engine.getClass());
+    }
+
+    private static void checkEngineType(Class<?> type) {
+        if (type != InteractiveObgEngine.class && type != TurnBasedObgEngine.class && type != MixedModeObgEngine.class) {
+            throw new IllegalArgumentException("No engine for type " + type);
+        }
+    }
+
+    private static <E> Object createEngineOfType(Class<E> type, BoardTemplate template, EngineOptions options) {
+        final BaseObgEngine engine;
+        if (type == InteractiveObgEngine.class) {
+            engine = new InteractiveTurnSlicingObgEngine(ColumnsFactory.buildStartingSequence(template),
+                    options.getSpeculativeExecutor());
+        } else if (type == TurnBasedObgEngine.class) {
+            engine = new BoardStatePredictingObgEngine(ColumnsFactory.buildStartingSequence(template),
+                    options.isLazyPrediction(), options.getSpeculativeExecutor());
+        } else if (type == MixedModeObgEngine.class) {
+            engine = new HybridObgEngine(ColumnsFactory.buildStartingSequence(template),
+                    options.isCompactPredictions(), options.getSpeculativeExecutor());
+        } else {
+            throw new IllegalArgumentException("No engine for type " + type);
         }
-        throw new IllegalArgumentException("No engine for type " + type);
+        engine.setMetricsListener(options.getMetricsListener());
+        return engine;
     }
 
     private ObgEngines() {
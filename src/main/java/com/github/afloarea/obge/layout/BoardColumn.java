@@ -11,6 +11,8 @@ public final class BoardColumn {
     private int pieceCount;
     private Direction elementsDirection;
     private final String id;
+    private PositionFeatures features;
+    private int slot;
 
     public BoardColumn(int pieceCount, Direction elementDirection, String id) {
         this.pieceCount = pieceCount;
@@ -34,25 +36,41 @@ public final class BoardColumn {
         return elementsDirection;
     }
 
+    /**
+     * Keep features up to date with the pieces of this column, starting with the current ones.
+     *
+     * @param features the features
+     * @param slot     the slot of this column in the features
+     */
+    void observe(PositionFeatures features, int slot) {
+        this.features = features;
+        this.slot = slot;
+        features.changed(slot, Direction.NONE, 0, elementsDirection, pieceCount);
+    }
+
     public void addElement(Direction elementDirection) {
         if (pieceCount == 0) {
             this.elementsDirection = elementDirection;
-            pieceCount++;
-            return;
-        }
-        if (this.elementsDirection != elementDirection || elementDirection == Direction.NONE) {
+        } else if (this.elementsDirection != elementDirection || elementDirection == Direction.NONE) {
             throw new IllegalObgActionException("Cannot add element of direction " + elementDirection);
         }
         pieceCount++;
+        if (features != null) {
+            features.added(slot, elementDirection, pieceCount);
+        }
     }
 
     public void removeElement() {
         if (pieceCount == 0) {
             throw new IllegalObgActionException("Cannot remove non-existing pieces from column " + id);
         }
+        final var previousDirection = elementsDirection;
         if (--pieceCount == 0) {
             elementsDirection = Direction.NONE;
         }
+        if (features != null) {
+            features.removed(slot, previousDirection, pieceCount);
+        }
     }
 
     public boolean isClearForDirection(Direction direction) {
@@ -60,13 +78,30 @@ public final class BoardColumn {
     }
 
     public void clear() {
-        elementsDirection = Direction.NONE;
-        pieceCount = 0;
+        set(Direction.NONE, 0);
     }
 
     public void set(Direction direction, int pieceCount) {
+        final var previousDirection = elementsDirection;
+        final int previousCount = this.pieceCount;
         this.elementsDirection = direction;
         this.pieceCount = pieceCount;
+        notifyChanged(previousDirection, previousCount);
+    }
+
+    private void notifyChanged(Direction previousDirection, int previousCount) {
+        if (features != null) {
+            features.changed(slot, previousDirection, previousCount, elementsDirection, pieceCount);
+        }
+    }
+
+    /**
+     * Copy this column, without the features it keeps up to date.
+     *
+     * @return the copy
+     */
+    public BoardColumn copy() {
+        return new BoardColumn(pieceCount, elementsDirection, id);
     }
 
     @Override
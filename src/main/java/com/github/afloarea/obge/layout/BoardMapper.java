@@ -1,5 +1,6 @@
 package com.github.afloarea.obge.layout;
 
+import com.github.afloarea.obge.Direction;
 import com.github.afloarea.obge.board.BoardSnapshot;
 import com.github.afloarea.obge.board.ColumnSnapshot;
 import com.github.afloarea.obge.common.Constants;
@@ -11,7 +12,7 @@ public final class BoardMapper {
 
     public static BoardSnapshot takeSnapshot(ColumnSequence columnSequence) {
         final ColumnSnapshot[] columnEntries = columnSequence.stream(CLOCKWISE).skip(1)
-                .map(column -> new ColumnSnapshot(column.getPieceCount(), column.getMovingDirectionOfElements()))
+                .map(column -> ColumnSnapshot.of(column.getPieceCount(), column.getMovingDirectionOfElements()))
                 .toArray(ColumnSnapshot[]::new);
 
         return BoardSnapshot.builder()
@@ -31,12 +32,9 @@ public final class BoardMapper {
         sequence.getCollectColumn(ANTICLOCKWISE).set(ANTICLOCKWISE, snapshot.getAnticlockwiseCollected());
         sequence.getSuspendedColumn(ANTICLOCKWISE).set(ANTICLOCKWISE, snapshot.getAnticlockwiseSuspended());
 
-        final var columns = sequence.stream(CLOCKWISE).skip(1).toArray(BoardColumn[]::new);
-        final var snapshotColumns = snapshot.stream(CLOCKWISE).toArray(ColumnSnapshot[]::new);
-
         for (int index = 0; index < Constants.BOARD_COLUMNS; index++) {
-            final var snapshotColumn = snapshotColumns[index];
-            columns[index].set(snapshotColumn.elementsDirection(), snapshotColumn.pieceCount());
+            final int signedPieceCount = snapshot.getSignedPieceCount(index);
+            sequence.getColumn(index + 1, CLOCKWISE).set(Direction.ofSign(signedPieceCount), Math.abs(signedPieceCount));
         }
     }
 
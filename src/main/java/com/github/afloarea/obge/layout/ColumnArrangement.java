@@ -1,6 +1,7 @@
 package com.github.afloarea.obge.layout;
 
 import com.github.afloarea.obge.Direction;
+import com.github.afloarea.obge.common.ObjectSizes;
 
 import java.util.*;
 import java.util.function.Function;
@@ -25,7 +26,9 @@ public final class ColumnArrangement implements ColumnSequence {
 
     private final Map<String, BoardColumn> columnsById;
     private final Map<Direction, BoardColumn[]> columnsByDirection;
-    private final Map<Direction, Map<String, Integer>> columnPositionByIdByDirection = new EnumMap<>(Direction.class);
+    private final Map<Direction, Map<String, Integer>> columnPositionByIdByDirection;
+    private final TransitionTable transitionTable;
+    private final PositionFeatures features = new PositionFeatures();
 
     @Override
     public BoardColumn getColumn(int index, Direction direction) {
@@ -64,10 +67,13 @@ public final class ColumnArrangement implements ColumnSequence {
      * @param anticlockwiseSuspended the anticlockwise direction
      * @param clockwiseCollected     the clockwise direction
      * @param anticlockwiseCollected the anticlockwise direction
+     * @param transitionTable        the transitions of the template the columns were built from
      */
     public ColumnArrangement(List<BoardColumn> columnLayout,
                              BoardColumn clockwiseSuspended, BoardColumn anticlockwiseSuspended,
-                             BoardColumn clockwiseCollected, BoardColumn anticlockwiseCollected) {
+                             BoardColumn clockwiseCollected, BoardColumn anticlockwiseCollected,
+                             TransitionTable transitionTable) {
+        this.transitionTable = transitionTable;
         final var base = new ArrayList<>(columnLayout);
 
         final var clockwise = new ArrayDeque<>(base);
@@ -83,6 +89,7 @@ public final class ColumnArrangement implements ColumnSequence {
                 Direction.CLOCKWISE, clockwise.toArray(BoardColumn[]::new),
                 Direction.ANTICLOCKWISE, anticlockwise.toArray(BoardColumn[]::new));
 
+        columnPositionByIdByDirection = new EnumMap<>(Direction.class);
         Stream.of(Direction.CLOCKWISE, Direction.ANTICLOCKWISE).forEach(direction -> {
             final Map<String, Integer> columnIdByIndex = new HashMap<>();
 
@@ -95,7 +102,77 @@ public final class ColumnArrangement implements ColumnSequence {
         columnsById = Stream.concat(
                 clockwise.stream(), Stream.of(anticlockwiseSuspended, anticlockwiseCollected))
                 .collect(Collectors.toMap(BoardColumn::getId, Function.identity()));
+        observeColumns();
+    }
+
+    /**
+     * Copy constructor. The column positions and transitions never change, so they are shared with the original.
+     */
+    private ColumnArrangement(ColumnArrangement original) {
+        columnPositionByIdByDirection = original.columnPositionByIdByDirection;
+        transitionTable = original.transitionTable;
+        columnsById = new HashMap<>();
+        original.columnsById.forEach((id, column) -> columnsById.put(id, column.copy()));
+
+        final var clockwise = original.columnsByDirection.get(Direction.CLOCKWISE);
+        final var anticlockwise = original.columnsByDirection.get(Direction.ANTICLOCKWISE);
+        columnsByDirection = Map.of(
+                Direction.CLOCKWISE, copyColumns(clockwise),
+                Direction.ANTICLOCKWISE, copyColumns(anticlockwise));
+        observeColumns();
+    }
+
+    private void observeColumns() {
+        final var clockwise = columnsByDirection.get(Direction.CLOCKWISE);
+        final var anticlockwise = columnsByDirection.get(Direction.ANTICLOCKWISE);
+        // the clockwise suspend and collect columns sit at the matching slots, 0 and 25
+        for (int index = 0; index <= COLLECT_INDEX; index++) {
+            clockwise[index].observe(features, index);
+        }
+        anticlockwise[0].observe(features, PositionFeatures.ANTICLOCKWISE_SUSPEND_SLOT);
+        anticlockwise[COLLECT_INDEX].observe(features, PositionFeatures.ANTICLOCKWISE_COLLECT_SLOT);
+    }
+
+    private BoardColumn[] copyColumns(BoardColumn[] originalColumns) {
+        final var copies = new BoardColumn[originalColumns.length];
+        for (int index = 0; index < originalColumns.length; index++) {
+            copies[index] = columnsById.get(originalColumns[index].getId());
+        }
+        return copies;
+    }
 
+    @Override
+    public TransitionTable getTransitionTable() {
+        return transitionTable;
+    }
+
+    @Override
+    public PositionFeatures getFeatures() {
+        return features;
+    }
+
+    @Override
+    public ColumnSequence copy() {
+        return new ColumnArrangement(this);
+    }
+
+    @Override
+    public long estimateSize() {
+        final int columnCount = columnsById.size();
+        final int sequenceLength = COLLECT_INDEX + 1;
+
+        long size = ObjectSizes.object(5 * ObjectSizes.REFERENCE);
+        size += columnCount * ObjectSizes.object(3 * Integer.BYTES + 2 * ObjectSizes.REFERENCE);
+        size += ObjectSizes.object(6 * ObjectSizes.REFERENCE) + 6 * ObjectSizes.object(2 * Integer.BYTES);
+        size += ObjectSizes.hashMap(columnCount);
+        size += ObjectSizes.immutableMap(columnsByDirection.size())
+                + columnsByDirection.size() * ObjectSizes.referenceArray(sequenceLength);
+        // shared with the copies, but retained by each of them; the Integer positions are cached by the JVM
+        size += ObjectSizes.object(4 * ObjectSizes.REFERENCE + Integer.BYTES)
+                + ObjectSizes.referenceArray(Direction.values().length)
+                + columnPositionByIdByDirection.size()
+                * (ObjectSizes.object(4 * ObjectSizes.REFERENCE) + ObjectSizes.hashMap(sequenceLength));
+        return size;
     }
 
     @Override
@@ -87,8 +87,37 @@ public interface ColumnSequence {
         return getColumn(Constants.COLLECT_INDEX, direction);
     }
 
+    /**
+     * Retrieve the shared transitions and moves of the template used by this sequence.
+     *
+     * @return the transition table
+     */
+    TransitionTable getTransitionTable();
+
+    /**
+     * Retrieve the features of the position, kept up to date as the pieces move.
+     *
+     * @return the features
+     */
+    PositionFeatures getFeatures();
+
     /**
      * Reset the column sequence to the starting position.
      */
     void reset();
+
+    /**
+     * Create an independent copy of this sequence, with the same pieces on each column.
+     *
+     * @return the copy
+     */
+    ColumnSequence copy();
+
+    /**
+     * Estimate the memory retained by this sequence, see {@link com.github.afloarea.obge.common.ObjectSizes}.
+     * The transition table and the column ids are shared by all the sequences of a template and are not included.
+     *
+     * @return the estimated size in bytes
+     */
+    long estimateSize();
 }
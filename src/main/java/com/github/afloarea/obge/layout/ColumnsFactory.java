@@ -50,7 +50,8 @@ public final class ColumnsFactory {
                 new BoardColumn(collectedBackwards, ANTICLOCKWISE, template.getCollectId(ANTICLOCKWISE));
 
         return new ColumnArrangement(translateToColumns(template, values),
-                forwardSuspend, backwardsSuspend, collectedForwardColumn, collectedBackwardsColumn);
+                forwardSuspend, backwardsSuspend, collectedForwardColumn, collectedBackwardsColumn,
+                TransitionTable.of(template));
     }
 
     private static List<BoardColumn> translateToColumns(BoardTemplate template, int[][] values) {
@@ -83,7 +84,7 @@ public final class ColumnsFactory {
         final var columns = IntStream.concat(Arrays.stream(composition[0]),
                         IntStream.iterate(composition[1].length - 1, index -> index >= 0, index -> index - 1)
                                 .map(index -> composition[1][index]))
-                .mapToObj(columnValue -> new ColumnSnapshot(Math.abs(columnValue), Direction.ofSign(columnValue)))
+                .mapToObj(ColumnSnapshot::ofSigned)
                 .toArray(ColumnSnapshot[]::new);
 
         return BoardSnapshot.builder()
@@ -0,0 +1,320 @@
+package com.github.afloarea.obge.layout;
+
+import com.github.afloarea.obge.Direction;
+import com.github.afloarea.obge.board.BoardSnapshot;
+
+import java.util.Arrays;
+
+import static com.github.afloarea.obge.common.Constants.BOARD_COLUMNS;
+import static com.github.afloarea.obge.common.Constants.COLLECT_INDEX;
+import static com.github.afloarea.obge.common.Constants.HOME_START;
+
+/**
+ * Counts and masks describing a position, kept up to date by the columns of a {@link ColumnSequence}
+ * as pieces move, so that evaluating a position does not need to traverse its columns.
+ * <p>
+ * The masks of a player are in the order in which its pieces traverse the regular columns:
+ * bit {@code k - 1} stands for the column with index {@code k} in the player's direction,
+ * so bits 0 to 5 are the opponent's home and bits 18 to 23 the player's own home.
+ */
+public final class PositionFeatures {
+    // the columns observed by the features: the regular columns use their clockwise index, from 1 to 24
+    static final int CLOCKWISE_SUSPEND_SLOT = 0;
+    static final int CLOCKWISE_COLLECT_SLOT = COLLECT_INDEX;
+    static final int ANTICLOCKWISE_SUSPEND_SLOT = COLLECT_INDEX + 1;
+    static final int ANTICLOCKWISE_COLLECT_SLOT = COLLECT_INDEX + 2;
+
+    /**
+     * The columns of a player's home, in the player's order.
+     */
+    public static final int HOME_MASK = ((1 << (COLLECT_INDEX - HOME_START)) - 1) << (HOME_START - 1);
+    /**
+     * The columns of the opponent's home, in the player's order.
+     */
+    public static final int OPPONENT_HOME_MASK = (1 << (COLLECT_INDEX - HOME_START)) - 1;
+
+    // indexed by player: clockwise, then anticlockwise
+    private final int[] pipCounts = new int[2];
+    private final int[] suspended = new int[2];
+    private final int[] collected = new int[2];
+    private final int[] occupied = new int[2];
+    private final int[] madePoints = new int[2];
+    private final int[] blots = new int[2];
+
+    PositionFeatures() {
+    }
+
+    /**
+     * Compute the features of a board, without columns to keep them up to date.
+     *
+     * @param board the board
+     * @return the features
+     */
+    public static PositionFeatures of(BoardSnapshot board) {
+        final var features = new PositionFeatures();
+        features.suspended[0] = board.getClockwiseSuspended();
+        features.suspended[1] = board.getAnticlockwiseSuspended();
+        features.collected[0] = board.getClockwiseCollected();
+        features.collected[1] = board.getAnticlockwiseCollected();
+        features.pipCounts[0] = COLLECT_INDEX * features.suspended[0];
+        features.pipCounts[1] = COLLECT_INDEX * features.suspended[1];
+        for (int index = 0; index < BOARD_COLUMNS; index++) {
+            final int signedPieceCount = board.getSignedPieceCount(index);
+            features.add(index + 1, Direction.ofSign(signedPieceCount), Math.abs(signedPieceCount));
+        }
+        return features;
+    }
+
+    /**
+     * Record a change of an observed column.
+     *
+     * @param slot              the slot of the column
+     * @param previousDirection the direction of the pieces before the change
+     * @param previousCount     the number of pieces before the change
+     * @param direction         the direction of the pieces after the change
+     * @param count             the number of pieces after the change
+     */
+    void changed(int slot, Direction previousDirection, int previousCount, Direction direction, int count) {
+        switch (slot) {
+            case CLOCKWISE_SUSPEND_SLOT -> {
+                pipCounts[0] += COLLECT_INDEX * (count - suspended[0]);
+                suspended[0] = count;
+            }
+            case ANTICLOCKWISE_SUSPEND_SLOT -> {
+                pipCounts[1] += COLLECT_INDEX * (count - suspended[1]);
+                suspended[1] = count;
+            }
+            case CLOCKWISE_COLLECT_SLOT -> collected[0] = count;
+            case ANTICLOCKWISE_COLLECT_SLOT -> collected[1] = count;
+            default -> {
+                remove(slot, previousDirection, previousCount);
+                add(slot, direction, count);
+            }
+        }
+    }
+
+    /**
+     * Record a piece added to an observed column, which is cheaper than a general change.
+     *
+     * @param slot      the slot of the column
+     * @param direction the direction of the pieces
+     * @param count     the number of pieces after the addition
+     */
+    void added(int slot, Direction direction, int count) {
+        if (slot < 1 || slot > BOARD_COLUMNS) {
+            changed(slot, direction, count - 1, direction, count);
+            return;
+        }
+        final int player = playerOf(direction);
+        final int index = indexIn(direction, slot);
+        final int bit = 1 << (index - 1);
+        pipCounts[player] += COLLECT_INDEX - index;
+        if (count == 1) {
+            occupied[player] |= bit;
+            blots[player] |= bit;
+        } else if (count == 2) {
+            blots[player] &= ~bit;
+            madePoints[player] |= bit;
+        }
+    }
+
+    /**
+     * Record a piece removed from an observed column, which is cheaper than a general change.
+     *
+     * @param slot      the slot of the column
+     * @param direction the direction of the pieces
+     * @param count     the number of pieces after the removal
+     */
+    void removed(int slot, Direction direction, int count) {
+        if (slot < 1 || slot > BOARD_COLUMNS) {
+            changed(slot, direction, count + 1, direction, count);
+            return;
+        }
+        final int player = playerOf(direction);
+        final int index = indexIn(direction, slot);
+        final int bit = 1 << (index - 1);
+        pipCounts[player] -= COLLECT_INDEX - index;
+        if (count == 0) {
+            occupied[player] &= ~bit;
+            blots[player] &= ~bit;
+        } else if (count == 1) {
+            madePoints[player] &= ~bit;
+            blots[player] |= bit;
+        }
+    }
+
+    private void add(int clockwiseIndex, Direction direction, int count) {
+        if (count == 0 || direction == Direction.NONE) {
+            return;
+        }
+        final int player = playerOf(direction);
+        final int index = indexIn(direction, clockwiseIndex);
+        final int bit = 1 << (index - 1);
+        pipCounts[player] += count * (COLLECT_INDEX - index);
+        occupied[player] |= bit;
+        if (count == 1) {
+            blots[player] |= bit;
+        } else {
+            madePoints[player] |= bit;
+        }
+    }
+
+    private void remove(int clockwiseIndex, Direction direction, int count) {
+        if (count == 0 || direction == Direction.NONE) {
+            return;
+        }
+        final int player = playerOf(direction);
+        final int index = indexIn(direction, clockwiseIndex);
+        final int bit = ~(1 << (index - 1));
+        pipCounts[player] -= count * (COLLECT_INDEX - index);
+        occupied[player] &= bit;
+        blots[player] &= bit;
+        madePoints[player] &= bit;
+    }
+
+    /**
+     * Get the number of pips a player needs to collect all its pieces, counting 25 for each suspended piece.
+     *
+     * @param direction the direction of the player
+     * @return the pip count
+     */
+    public int getPipCount(Direction direction) {
+        return pipCounts[playerOf(direction)];
+    }
+
+    public int getSuspended(Direction direction) {
+        return suspended[playerOf(direction)];
+    }
+
+    public int getCollected(Direction direction) {
+        return collected[playerOf(direction)];
+    }
+
+    /**
+     * Get the regular columns holding pieces of a player.
+     *
+     * @param direction the direction of the player
+     * @return the mask of the columns, in the player's order
+     */
+    public int getOccupied(Direction direction) {
+        return occupied[playerOf(direction)];
+    }
+
+    /**
+     * Get the regular columns holding at least two pieces of a player.
+     *
+     * @param direction the direction of the player
+     * @return the mask of the columns, in the player's order
+     */
+    public int getMadePoints(Direction direction) {
+        return madePoints[playerOf(direction)];
+    }
+
+    /**
+     * Get the regular columns holding a single piece of a player.
+     *
+     * @param direction the direction of the player
+     * @return the mask of the columns, in the player's order
+     */
+    public int getBlots(Direction direction) {
+        return blots[playerOf(direction)];
+    }
+
+    /**
+     * Get the index of the rearmost piece of a player, in the player's direction.
+     *
+     * @param direction the direction of the player
+     * @return 0 if a piece is suspended, 25 if all the pieces are collected,
+     * the index of the first occupied column otherwise
+     */
+    public int getRearmostIndex(Direction direction) {
+        final int player = playerOf(direction);
+        if (suspended[player] > 0) {
+            return 0;
+        }
+        return occupied[player] == 0 ? COLLECT_INDEX : Integer.numberOfTrailingZeros(occupied[player]) + 1;
+    }
+
+    /**
+     * Get the blots of a player that opponent pieces still have to pass, so that they may be hit.
+     *
+     * @param direction the direction of the player
+     * @return the mask of the columns, in the player's order
+     */
+    public int getExposedBlots(Direction direction) {
+        // the opponent's rearmost piece, in the player's order
+        final int opponentRearmost = COLLECT_INDEX - getRearmostIndex(direction.reverse());
+        if (opponentRearmost <= 1) {
+            return 0;
+        }
+        return blots[playerOf(direction)] & ((1 << (opponentRearmost - 1)) - 1);
+    }
+
+    /**
+     * Can the pieces of the players still meet?
+     *
+     * @return false if every piece has passed all the opponent's pieces, true otherwise
+     */
+    public boolean isContact() {
+        return getRearmostIndex(Direction.CLOCKWISE) + getRearmostIndex(Direction.ANTICLOCKWISE) < COLLECT_INDEX;
+    }
+
+    /**
+     * Get the points won by a player who collected all its pieces: 1, 2 for a gammon or 3 for a backgammon.
+     *
+     * @param winner the direction of the winner
+     * @return the points
+     */
+    public int getWinPoints(Direction winner) {
+        final var loser = winner.reverse();
+        if (getCollected(loser) > 0) {
+            return 1;
+        }
+        // the winner's home is the opponent's home in the loser's order
+        final boolean backgammon = getSuspended(loser) > 0
+                || (getOccupied(loser) & OPPONENT_HOME_MASK) != 0;
+        return backgammon ? 3 : 2;
+    }
+
+    private static int playerOf(Direction direction) {
+        return switch (direction) {
+            case CLOCKWISE -> 0;
+            case ANTICLOCKWISE -> 1;
+            case NONE -> throw new IllegalArgumentException("Invalid direction");
+        };
+    }
+
+    private static int indexIn(Direction direction, int clockwiseIndex) {
+        return direction == Direction.CLOCKWISE ? clockwiseIndex : COLLECT_INDEX - clockwiseIndex;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PositionFeatures)) return false;
+        PositionFeatures that = (PositionFeatures) o;
+        return Arrays.equals(pipCounts, that.pipCounts)
+                && Arrays.equals(suspended, that.suspended)
+                && Arrays.equals(collected, that.collected)
+                && Arrays.equals(occupied, that.occupied)
+                && Arrays.equals(madePoints, that.madePoints)
+                && Arrays.equals(blots, that.blots);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(pipCounts);
+        result = 31 * result + Arrays.hashCode(occupied);
+        result = 31 * result + Arrays.hashCode(madePoints);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "PositionFeatures{" +
+                "pipCounts=" + Arrays.toString(pipCounts) +
+                ", suspended=" + Arrays.toString(suspended) +
+                ", collected=" + Arrays.toString(collected) +
+                '}';
+    }
+}
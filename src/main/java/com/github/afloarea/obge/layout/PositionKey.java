@@ -0,0 +1,45 @@
+package com.github.afloarea.obge.layout;
+
+import com.github.afloarea.obge.Direction;
+
+import static com.github.afloarea.obge.common.Constants.BOARD_COLUMNS;
+import static com.github.afloarea.obge.common.Constants.PIECES_PER_PLAYER;
+
+/**
+ * A packed key identifying the position of the pieces on a column sequence, using the same layout as
+ * {@link com.github.afloarea.obge.board.BoardSnapshot}. Cheap to build and compare, for when positions only need
+ * to be told apart.
+ *
+ * @param lowerColumns the first 12 columns in clockwise order, 5 bits each
+ * @param upperColumns the last 12 columns in clockwise order, 5 bits each
+ * @param counters     the suspended and collected pieces, 8 bits each
+ */
+public record PositionKey(long lowerColumns, long upperColumns, int counters) {
+    private static final int COLUMNS_PER_WORD = BOARD_COLUMNS / 2;
+    private static final int BITS_PER_COLUMN = 5;
+
+    /**
+     * Get the key of the current position of a column sequence.
+     *
+     * @param columns the columns
+     * @return the key
+     */
+    public static PositionKey of(ColumnSequence columns) {
+        return new PositionKey(packColumns(columns, 1), packColumns(columns, 1 + COLUMNS_PER_WORD),
+                columns.getCollectColumn(Direction.CLOCKWISE).getPieceCount()
+                        | columns.getCollectColumn(Direction.ANTICLOCKWISE).getPieceCount() << 8
+                        | columns.getSuspendedColumn(Direction.CLOCKWISE).getPieceCount() << 16
+                        | columns.getSuspendedColumn(Direction.ANTICLOCKWISE).getPieceCount() << 24);
+    }
+
+    private static long packColumns(ColumnSequence columns, int start) {
+        long packed = 0;
+        for (int index = 0; index < COLUMNS_PER_WORD; index++) {
+            final var column = columns.getColumn(start + index, Direction.CLOCKWISE);
+            final int signedCount = column.getMovingDirectionOfElements() == Direction.ANTICLOCKWISE
+                    ? -column.getPieceCount() : column.getPieceCount();
+            packed |= (long) (signedCount + PIECES_PER_PLAYER) << (index * BITS_PER_COLUMN);
+        }
+        return packed;
+    }
+}
@@ -0,0 +1,179 @@
+package com.github.afloarea.obge.layout;
+
+import com.github.afloarea.obge.Direction;
+import com.github.afloarea.obge.dice.DiceValues;
+import com.github.afloarea.obge.factory.BoardTemplate;
+import com.github.afloarea.obge.moves.ObgMove;
+import com.github.afloarea.obge.moves.ObgTransition;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import static com.github.afloarea.obge.common.Constants.COLLECT_INDEX;
+import static com.github.afloarea.obge.common.Constants.MAX_DICE;
+import static com.github.afloarea.obge.common.Constants.MIN_DICE;
+
+/**
+ * Precomputed, shared instances of every {@link ObgTransition} and {@link ObgMove} possible on a board template.
+ * <p>
+ * A transition is fully determined by the direction, the index of the source column, the die and whether
+ * it suspends a piece, while a move is determined by the direction, the source index and the dice values.
+ * Serving them from a table means equal transitions (and moves) are the same instance,
+ * so nothing is allocated while predicting and comparisons can short-circuit on reference equality.
+ */
+public final class TransitionTable {
+    private static final Map<BoardTemplate, TransitionTable> TABLES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final int FACES = MAX_DICE - MIN_DICE + 1;
+    private static final int MAX_MOVE_DICE = 4;
+
+    // [direction][source index][die][suspending]
+    private final ObgTransition[][][][] transitions = new ObgTransition[2][COLLECT_INDEX][FACES][2];
+    // [direction][source index][dice combination]
+    private final ObgMove[][][] moves = new ObgMove[2][COLLECT_INDEX][];
+
+    private TransitionTable(BoardTemplate template) {
+        for (var direction : List.of(Direction.CLOCKWISE, Direction.ANTICLOCKWISE)) {
+            final var ids = columnIds(template, direction);
+            final var opponentSuspendId = template.getSuspendId(direction.reverse());
+            final int directionIndex = directionIndex(direction);
+
+            for (int source = 0; source < COLLECT_INDEX; source++) {
+                for (int die = MIN_DICE; die <= MAX_DICE; die++) {
+                    final var target = ids.get(Math.min(source + die, COLLECT_INDEX));
+                    transitions[directionIndex][source][die - MIN_DICE][0] =
+                            new ObgTransition(ids.get(source), target, die, null);
+                    transitions[directionIndex][source][die - MIN_DICE][1] =
+                            new ObgTransition(ids.get(source), target, die, opponentSuspendId);
+                }
+
+                moves[directionIndex][source] = buildMoves(ids, source);
+            }
+        }
+    }
+
+    /**
+     * Get the table for a template. Tables are built once and shared by all engines using the template.
+     *
+     * @param template the board template
+     * @return the table
+     */
+    public static TransitionTable of(BoardTemplate template) {
+        return TABLES.computeIfAbsent(template, TransitionTable::new);
+    }
+
+    /**
+     * Get a transition.
+     *
+     * @param direction   the direction of the moving piece
+     * @param sourceIndex the index of the source column in the given direction
+     * @param die         the die used
+     * @param suspending  whether an opponent's piece gets suspended
+     * @return the transition
+     */
+    public ObgTransition getTransition(Direction direction, int sourceIndex, int die, boolean suspending) {
+        return transitions[directionIndex(direction)][sourceIndex][die - MIN_DICE][suspending ? 1 : 0];
+    }
+
+    /**
+     * Get the move of a single piece using the first {@code diceCount} dice values.
+     *
+     * @param direction   the direction of the moving piece
+     * @param sourceIndex the index of the source column in the given direction
+     * @param dice        the dice used, in order
+     * @param diceCount   the number of dice used
+     * @return the move
+     */
+    public ObgMove getMove(Direction direction, int sourceIndex, int[] dice, int diceCount) {
+        final var move = moves[directionIndex(direction)][sourceIndex][combinationIndex(dice, diceCount)];
+        if (move == null) {
+            throw new IllegalArgumentException("Invalid dice combination");
+        }
+        return move;
+    }
+
+    private static ObgMove[] buildMoves(List<String> ids, int source) {
+        final var sourceMoves = new ObgMove[combinationCount()];
+        final var dice = new int[MAX_MOVE_DICE];
+        for (int first = MIN_DICE; first <= MAX_DICE; first++) {
+            dice[0] = first;
+            addMove(sourceMoves, ids, source, dice, 1);
+            for (int second = MIN_DICE; second <= MAX_DICE; second++) {
+                dice[1] = second;
+                addMove(sourceMoves, ids, source, dice, 2);
+            }
+            dice[1] = first;
+            dice[2] = first;
+            dice[3] = first;
+            addMove(sourceMoves, ids, source, dice, 3);
+            addMove(sourceMoves, ids, source, dice, 4);
+        }
+        return sourceMoves;
+    }
+
+    private static void addMove(ObgMove[] sourceMoves, List<String> ids, int source, int[] dice, int diceCount) {
+        int distance = 0;
+        for (int index = 0; index < diceCount; index++) {
+            distance += dice[index];
+        }
+        final var target = ids.get(Math.min(source + distance, COLLECT_INDEX));
+        sourceMoves[combinationIndex(dice, diceCount)] =
+                ObgMove.of(ids.get(source), target, DiceValues.of(dice, diceCount));
+    }
+
+    /*
+     * Combinations: 6 single values, then 36 ordered pairs, then 6 triples and 6 quadruples of equal values.
+     * Triples and quadruples of different values are not possible and map to an empty slot.
+     */
+    private static int combinationIndex(int[] dice, int diceCount) {
+        return switch (diceCount) {
+            case 1 -> dice[0] - MIN_DICE;
+            case 2 -> FACES + (dice[0] - MIN_DICE) * FACES + (dice[1] - MIN_DICE);
+            case 3, 4 -> {
+                for (int index = 1; index < diceCount; index++) {
+                    if (dice[index] != dice[0]) {
+                        yield combinationCount() - 1;
+                    }
+                }
+                yield FACES + FACES * FACES + (diceCount - 3) * FACES + (dice[0] - MIN_DICE);
+            }
+            default -> throw new IllegalArgumentException("Invalid number of dice " + diceCount);
+        };
+    }
+
+    private static int combinationCount() {
+        // the extra last slot is always empty
+        return FACES + FACES * FACES + 2 * FACES + 1;
+    }
+
+    private static int directionIndex(Direction direction) {
+        return switch (direction) {
+            case CLOCKWISE -> 0;
+            case ANTICLOCKWISE -> 1;
+            case NONE -> throw new IllegalArgumentException("Invalid direction");
+        };
+    }
+
+    /**
+     * The column ids in the order in which pieces moving in the given direction traverse them,
+     * from the suspend column to the collect column. Must match the order of {@link ColumnArrangement}.
+     */
+    private static List<String> columnIds(BoardTemplate template, Direction direction) {
+        final var regular = new ArrayList<>(template.getUpperRow());
+        final var lower = new ArrayList<>(template.getLowerRow());
+        Collections.reverse(lower);
+        regular.addAll(lower);
+        if (direction == Direction.ANTICLOCKWISE) {
+            Collections.reverse(regular);
+        }
+
+        final var ids = new ArrayList<String>(COLLECT_INDEX + 1);
+        ids.add(template.getSuspendId(direction));
+        ids.addAll(regular);
+        ids.add(template.getCollectId(direction));
+        return ids;
+    }
+}
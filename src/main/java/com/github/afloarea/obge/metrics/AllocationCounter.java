@@ -0,0 +1,44 @@
+package com.github.afloarea.obge.metrics;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Reads the number of bytes allocated so far by the current thread, as counted by the JVM
+ * for its thread-local allocation buffers. The difference between two readings on the same thread
+ * is the memory allocated in between, whether it is still reachable or not.
+ */
+public final class AllocationCounter {
+    private static final com.sun.management.ThreadMXBean THREADS = findThreadBean();
+
+    private static com.sun.management.ThreadMXBean findThreadBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported()) {
+            if (!threads.isThreadAllocatedMemoryEnabled()) {
+                threads.setThreadAllocatedMemoryEnabled(true);
+            }
+            return threads;
+        }
+        return null;
+    }
+
+    /**
+     * Whether the JVM counts the allocations of every thread.
+     *
+     * @return false if the counters are not available, in which case nothing is ever counted
+     */
+    public static boolean isSupported() {
+        return THREADS != null;
+    }
+
+    /**
+     * Get the bytes allocated by the current thread since it started.
+     *
+     * @return the allocated bytes or 0 if not supported
+     */
+    public static long currentThreadAllocatedBytes() {
+        return THREADS == null ? 0 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    private AllocationCounter() {
+    }
+}
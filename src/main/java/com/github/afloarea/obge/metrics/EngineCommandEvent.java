@@ -0,0 +1,77 @@
+package com.github.afloarea.obge.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for a successful engine operation. Disabled by default.
+ * The predictions done by the operation are recorded as nested {@link PredictionEvent}s.
+ */
+@Name("com.github.afloarea.obge.EngineCommand")
+@Label("Engine Command")
+@Category({"Backgammon", "Engine"})
+@Description("Operation done by an engine")
+@Enabled(false)
+@StackTrace(false)
+public final class EngineCommandEvent extends jdk.jfr.Event {
+    private static final EventType TYPE = EventType.getEventType(EngineCommandEvent.class);
+
+    @Label("Engine")
+    String engine;
+
+    @Label("Command")
+    String command;
+
+    @Label("Position")
+    @Description("The board after the command")
+    String position;
+
+    @Label("Direction")
+    String direction;
+
+    @Label("Roll")
+    String roll;
+
+    @Label("Result Count")
+    @Description("The number of transitions performed or reverted")
+    long resultCount;
+
+    /**
+     * Is this event enabled in a running recording? Checked before every operation,
+     * so that no event is allocated while none is recorded.
+     *
+     * @return true if the event is recorded
+     */
+    public static boolean isRecorded() {
+        return TYPE.isEnabled();
+    }
+
+    public void setEngine(String engine) {
+        this.engine = engine;
+    }
+
+    public void setCommand(String command) {
+        this.command = command;
+    }
+
+    public void setPosition(String position) {
+        this.position = position;
+    }
+
+    public void setDirection(String direction) {
+        this.direction = direction;
+    }
+
+    public void setRoll(String roll) {
+        this.roll = roll;
+    }
+
+    public void setResultCount(long resultCount) {
+        this.resultCount = resultCount;
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.afloarea.obge.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for the expansion of a game tree by a state expander. Disabled by default.
+ */
+@Name("com.github.afloarea.obge.Expand")
+@Label("Expand")
+@Category({"Backgammon", "Expander"})
+@Description("Expansion of the game tree below a position")
+@Enabled(false)
+@StackTrace(false)
+public final class ExpandEvent extends jdk.jfr.Event {
+    private static final EventType TYPE = EventType.getEventType(ExpandEvent.class);
+
+    @Label("Position")
+    @Description("The root of the expanded tree")
+    String position;
+
+    @Label("Direction")
+    String direction;
+
+    @Label("Layers")
+    int layers;
+
+    @Label("Node Count")
+    long nodeCount;
+
+    @Label("Leaf Count")
+    long leafCount;
+
+    /**
+     * Is this event enabled in a running recording? Checked before every expansion,
+     * so that no event is allocated while none is recorded.
+     *
+     * @return true if the event is recorded
+     */
+    public static boolean isRecorded() {
+        return TYPE.isEnabled();
+    }
+
+    public void setPosition(String position) {
+        this.position = position;
+    }
+
+    public void setDirection(String direction) {
+        this.direction = direction;
+    }
+
+    public void setLayers(int layers) {
+        this.layers = layers;
+    }
+
+    public void setNodeCount(long nodeCount) {
+        this.nodeCount = nodeCount;
+    }
+
+    public void setLeafCount(long leafCount) {
+        this.leafCount = leafCount;
+    }
+}
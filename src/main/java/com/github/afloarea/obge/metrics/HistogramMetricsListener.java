@@ -0,0 +1,123 @@
+package com.github.afloarea.obge.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps a {@link LogLinearHistogram} of the latencies for every operation and roll type,
+ * histograms of the prediction sizes for every roll type and hit/miss counters for every cache.
+ * Optionally, it also keeps a histogram of the bytes allocated by every operation and roll type.
+ * All the histograms and counters are created upfront, so recording is lock-free and never allocates.
+ * A single listener can be shared by any number of engines.
+ */
+public final class HistogramMetricsListener implements ObgMetricsListener {
+
+    private final Map<ObgOperation, Map<RollType, LogLinearHistogram>> latencies = new EnumMap<>(ObgOperation.class);
+    private final Map<ObgOperation, Map<RollType, LogLinearHistogram>> allocations = new EnumMap<>(ObgOperation.class);
+    private final Map<RollType, LogLinearHistogram> visitedNodes = histogramsByRollType();
+    private final Map<RollType, LogLinearHistogram> savedLeaves = histogramsByRollType();
+    private final Map<RollType, LogLinearHistogram> keptResults = histogramsByRollType();
+    private final Map<ObgCache, LongAdder> cacheHits = new EnumMap<>(ObgCache.class);
+    private final Map<ObgCache, LongAdder> cacheMisses = new EnumMap<>(ObgCache.class);
+    private final boolean measuringAllocations;
+
+    public HistogramMetricsListener() {
+        this(false);
+    }
+
+    /**
+     * Create a listener.
+     *
+     * @param measuringAllocations whether to also measure the bytes allocated by every operation.
+     *                             Ignored if the JVM does not support it, see {@link AllocationCounter#isSupported()}
+     */
+    public HistogramMetricsListener(boolean measuringAllocations) {
+        this.measuringAllocations = measuringAllocations && AllocationCounter.isSupported();
+        for (var operation : ObgOperation.values()) {
+            latencies.put(operation, histogramsByRollType());
+            allocations.put(operation, histogramsByRollType());
+        }
+        for (var cache : ObgCache.values()) {
+            cacheHits.put(cache, new LongAdder());
+            cacheMisses.put(cache, new LongAdder());
+        }
+    }
+
+    private static Map<RollType, LogLinearHistogram> histogramsByRollType() {
+        final var histograms = new EnumMap<RollType, LogLinearHistogram>(RollType.class);
+        for (var rollType : RollType.values()) {
+            histograms.put(rollType, new LogLinearHistogram());
+        }
+        return histograms;
+    }
+
+    @Override
+    public void operationCompleted(ObgOperation operation, RollType rollType, long elapsedNanos) {
+        latencies.get(operation).get(rollType).record(elapsedNanos);
+    }
+
+    @Override
+    public boolean isMeasuringAllocations() {
+        return measuringAllocations;
+    }
+
+    @Override
+    public void allocationMeasured(ObgOperation operation, RollType rollType, long allocatedBytes) {
+        allocations.get(operation).get(rollType).record(allocatedBytes);
+    }
+
+    @Override
+    public void predictionCompleted(RollType rollType, long visitedNodes, long savedLeaves, long kept) {
+        this.visitedNodes.get(rollType).record(visitedNodes);
+        this.savedLeaves.get(rollType).record(savedLeaves);
+        this.keptResults.get(rollType).record(kept);
+    }
+
+    @Override
+    public void cacheAccessed(ObgCache cache, boolean hit) {
+        (hit ? cacheHits : cacheMisses).get(cache).increment();
+    }
+
+    /**
+     * Get the latencies of an operation, in nanoseconds.
+     *
+     * @param operation the operation
+     * @param rollType  the roll type
+     * @return the histogram
+     */
+    public LogLinearHistogram getLatencies(ObgOperation operation, RollType rollType) {
+        return latencies.get(operation).get(rollType);
+    }
+
+    /**
+     * Get the bytes allocated by an operation. Empty unless allocations are measured.
+     *
+     * @param operation the operation
+     * @param rollType  the roll type
+     * @return the histogram
+     */
+    public LogLinearHistogram getAllocatedBytes(ObgOperation operation, RollType rollType) {
+        return allocations.get(operation).get(rollType);
+    }
+
+    public LogLinearHistogram getVisitedNodes(RollType rollType) {
+        return visitedNodes.get(rollType);
+    }
+
+    public LogLinearHistogram getSavedLeaves(RollType rollType) {
+        return savedLeaves.get(rollType);
+    }
+
+    public LogLinearHistogram getKeptResults(RollType rollType) {
+        return keptResults.get(rollType);
+    }
+
+    public long getCacheHits(ObgCache cache) {
+        return cacheHits.get(cache).sum();
+    }
+
+    public long getCacheMisses(ObgCache cache) {
+        return cacheMisses.get(cache).sum();
+    }
+}
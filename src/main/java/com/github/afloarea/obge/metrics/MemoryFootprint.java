@@ -0,0 +1,90 @@
+package com.github.afloarea.obge.metrics;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An estimate of the memory retained by an engine, broken down by component.
+ * The estimates are computed from the sizes of the objects held by the engine, assuming a 64-bit JVM
+ * with compressed references, without walking the heap. Objects shared by all the engines of a template
+ * (transitions, moves, interned columns) are not included.
+ *
+ * @param bytesByComponent the estimated bytes of each component, in the order they were added
+ */
+public record MemoryFootprint(Map<String, Long> bytesByComponent) {
+    /**
+     * The columns holding the pieces.
+     */
+    public static final String COLUMNS = "columns";
+    /**
+     * The sequences or boards predicted for the current turn.
+     */
+    public static final String PREDICTIONS = "predictions";
+    /**
+     * The moves kept for undo and redo.
+     */
+    public static final String JOURNAL = "journal";
+    /**
+     * The cached possible moves.
+     */
+    public static final String POSSIBLE_MOVES = "possibleMoves";
+    /**
+     * The predictions computed in the background for the next turn.
+     */
+    public static final String SPECULATIVE_PREDICTIONS = "speculativePredictions";
+    /**
+     * The state published by a thread-safe engine for its readers.
+     */
+    public static final String PUBLISHED_STATE = "publishedState";
+
+    public MemoryFootprint {
+        bytesByComponent = Collections.unmodifiableMap(new LinkedHashMap<>(bytesByComponent));
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Get the estimated bytes of a component.
+     *
+     * @param component the component
+     * @return the bytes or 0 if the engine has no such component
+     */
+    public long bytesOf(String component) {
+        return bytesByComponent.getOrDefault(component, 0L);
+    }
+
+    public long totalBytes() {
+        return bytesByComponent.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public static final class Builder {
+        private final Map<String, Long> bytesByComponent = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Add the bytes of a component, summing them with the ones already added for it.
+         *
+         * @param component the component
+         * @param bytes     the estimated bytes
+         * @return this builder
+         */
+        public Builder withComponent(String component, long bytes) {
+            bytesByComponent.merge(component, bytes, Long::sum);
+            return this;
+        }
+
+        public Builder withFootprint(MemoryFootprint footprint) {
+            footprint.bytesByComponent().forEach(this::withComponent);
+            return this;
+        }
+
+        public MemoryFootprint build() {
+            return new MemoryFootprint(bytesByComponent);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.github.afloarea.obge.metrics;
+
+/**
+ * The caches whose hits and misses are reported to a {@link ObgMetricsListener}.
+ */
+public enum ObgCache {
+    /**
+     * The possible moves of the current turn state.
+     */
+    POSSIBLE_MOVES,
+    /**
+     * The predictions made in the background for the next turn.
+     */
+    SPECULATIVE_PREDICTIONS
+}
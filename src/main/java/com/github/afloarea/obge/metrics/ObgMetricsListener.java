@@ -0,0 +1,64 @@
+package com.github.afloarea.obge.metrics;
+
+/**
+ * Receives the costs of the work done by an engine. Called synchronously from the engine's thread
+ * (or from the executor running speculative predictions), so implementations must be fast and thread-safe.
+ */
+public interface ObgMetricsListener {
+
+    /**
+     * A listener ignoring everything, used by default.
+     */
+    ObgMetricsListener NOOP = new ObgMetricsListener() {
+    };
+
+    /**
+     * Called after an engine operation completed successfully.
+     *
+     * @param operation    the operation
+     * @param rollType     the type of the dice roll of the turn
+     * @param elapsedNanos the time taken by the operation
+     */
+    default void operationCompleted(ObgOperation operation, RollType rollType, long elapsedNanos) {
+    }
+
+    /**
+     * Whether the bytes allocated by every operation should be measured, see {@link AllocationCounter}.
+     * Queried once, when the listener is set.
+     *
+     * @return true to get {@link #allocationMeasured(ObgOperation, RollType, long)} called
+     */
+    default boolean isMeasuringAllocations() {
+        return false;
+    }
+
+    /**
+     * Called after an engine operation completed successfully, if allocations are measured.
+     *
+     * @param operation      the operation
+     * @param rollType       the type of the dice roll of the turn
+     * @param allocatedBytes the bytes allocated by the calling thread during the operation
+     */
+    default void allocationMeasured(ObgOperation operation, RollType rollType, long allocatedBytes) {
+    }
+
+    /**
+     * Called after a prediction for a dice roll completed.
+     *
+     * @param rollType     the type of the dice roll
+     * @param visitedNodes the number of partial sequences explored
+     * @param savedLeaves  the number of sequences that could not be continued
+     * @param kept         the number of results kept, after dropping the sequences not using as many dice as possible
+     */
+    default void predictionCompleted(RollType rollType, long visitedNodes, long savedLeaves, long kept) {
+    }
+
+    /**
+     * Called whenever a cached result is looked up.
+     *
+     * @param cache the cache
+     * @param hit   whether the result was cached
+     */
+    default void cacheAccessed(ObgCache cache, boolean hit) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.github.afloarea.obge.metrics;
+
+/**
+ * The engine operations reported to a {@link ObgMetricsListener}.
+ */
+public enum ObgOperation {
+    APPLY_DICE_ROLL,
+    EXECUTE,
+    UNDO,
+    REDO,
+    CHOOSE_BOARD,
+    TRANSITION_TO,
+    GET_POSSIBLE_MOVES,
+    /**
+     * The expansion of a game tree, which is not tied to a roll.
+     */
+    EXPAND
+}
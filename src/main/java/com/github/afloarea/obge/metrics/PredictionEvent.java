@@ -0,0 +1,84 @@
+package com.github.afloarea.obge.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for a prediction of the sequences playable with a dice roll.
+ * Disabled by default, so that it costs nothing unless enabled in the settings of a recording, see {@link #isRecorded()}.
+ */
+@Name("com.github.afloarea.obge.Prediction")
+@Label("Prediction")
+@Category({"Backgammon", "Engine"})
+@Description("Prediction of the sequences playable with a dice roll")
+@Enabled(false)
+@StackTrace(false)
+public final class PredictionEvent extends jdk.jfr.Event {
+    private static final EventType TYPE = EventType.getEventType(PredictionEvent.class);
+
+    @Label("Predictor")
+    String predictor;
+
+    @Label("Position")
+    @Description("The board the prediction started from")
+    String position;
+
+    @Label("Direction")
+    String direction;
+
+    @Label("Roll")
+    String roll;
+
+    @Label("Visited Nodes")
+    long visitedNodes;
+
+    @Label("Saved Leaves")
+    long savedLeaves;
+
+    @Label("Result Count")
+    @Description("The number of results kept, 0 if the predictor does not collect sequences or boards")
+    long resultCount;
+
+    /**
+     * Is this event enabled in a running recording? Checked before every prediction,
+     * so that no event is allocated while none is recorded.
+     *
+     * @return true if the event is recorded
+     */
+    public static boolean isRecorded() {
+        return TYPE.isEnabled();
+    }
+
+    public void setPredictor(String predictor) {
+        this.predictor = predictor;
+    }
+
+    public void setPosition(String position) {
+        this.position = position;
+    }
+
+    public void setDirection(String direction) {
+        this.direction = direction;
+    }
+
+    public void setRoll(String roll) {
+        this.roll = roll;
+    }
+
+    public void setVisitedNodes(long visitedNodes) {
+        this.visitedNodes = visitedNodes;
+    }
+
+    public void setSavedLeaves(long savedLeaves) {
+        this.savedLeaves = savedLeaves;
+    }
+
+    public void setResultCount(long resultCount) {
+        this.resultCount = resultCount;
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.afloarea.obge.metrics;
+
+import com.github.afloarea.obge.dice.DiceRoll;
+
+/**
+ * The type of the dice roll an operation was done for.
+ */
+public enum RollType {
+    SIMPLE,
+    DOUBLE,
+    /**
+     * No dice were rolled yet.
+     */
+    NONE;
+
+    public static RollType of(DiceRoll dice) {
+        if (dice == null) {
+            return NONE;
+        }
+        return dice.isDouble() ? DOUBLE : SIMPLE;
+    }
+}
@@ -20,6 +20,18 @@ public record ObgMove(String source, String target, DiceValues diceValues) {
         return new ObgMove(source, target, diceValues);
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true; // moves are usually shared instances
+        if (!(o instanceof ObgMove that)) return false;
+        return source.equals(that.source) && target.equals(that.target) && diceValues.equals(that.diceValues);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(source, target, diceValues);
+    }
+
     @Override
     public String toString() {
         return new StringJoiner(",", "M{", "}")
@@ -1,5 +1,7 @@
 package com.github.afloarea.obge.moves;
 
+import java.util.Objects;
+
 /**
  * Represents a single move of a piece either from the board
  * from one column to another using a single value of the die (1/2 for simple dice rolls or 1/4 for doubles).
@@ -18,4 +20,19 @@ public record ObgTransition(String source, String target, int usedDie, String su
         return suspended != null;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true; // transitions are usually shared instances
+        if (!(o instanceof ObgTransition that)) return false;
+        return usedDie == that.usedDie
+                && source.equals(that.source)
+                && target.equals(that.target)
+                && Objects.equals(suspended, that.suspended);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(source, target, usedDie, suspended);
+    }
+
 }
@@ -0,0 +1,145 @@
+package com.github.afloarea.obge.perft;
+
+import com.github.afloarea.obge.Direction;
+import com.github.afloarea.obge.board.BoardSnapshot;
+import com.github.afloarea.obge.factory.BoardTemplate;
+import com.github.afloarea.obge.layout.BoardMapper;
+import com.github.afloarea.obge.layout.ColumnsFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.github.afloarea.obge.common.Constants.DICE_ROLLS;
+import static com.github.afloarea.obge.common.Constants.PIECES_PER_PLAYER;
+
+/**
+ * Counts the legal plays and the positions they lead to, ply by ply, over all the dice rolls.
+ * As with perft for chess engines, known counts check the move generation, while the time taken measures it.
+ * <p>
+ * Positions are told apart by packed keys and expanded as soon as they are reached,
+ * so no {@link BoardSnapshot} is created while counting.
+ * With a parallelism above 1, the rolls of the first ply are counted concurrently, each on its own columns.
+ */
+public final class Perft {
+
+    private final BoardTemplate template;
+    private final int parallelism;
+
+    private Perft(Builder builder) {
+        template = builder.template;
+        parallelism = builder.parallelism;
+    }
+
+    /**
+     * Build a new perft runner.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Count the plays and positions from a root position.
+     *
+     * @param root      the root position
+     * @param direction the direction playing first
+     * @param depth     the number of plies
+     * @return the counts of each ply, all 0 if the root position ends the game
+     */
+    public PerftResult run(BoardSnapshot root, Direction direction, int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Depth must be at least 1");
+        }
+        if (direction == null || direction == Direction.NONE) {
+            throw new IllegalArgumentException("Invalid direction provided");
+        }
+
+        final var rootColumns = ColumnsFactory.buildStartingSequence(template);
+        BoardMapper.loadSnapshot(rootColumns, root);
+
+        final var workers = new ArrayList<PerftWorker>();
+        final boolean gameComplete = root.getClockwiseCollected() == PIECES_PER_PLAYER
+                || root.getAnticlockwiseCollected() == PIECES_PER_PLAYER;
+        if (parallelism == 1 || gameComplete) {
+            // the worker does not expand a finished game
+            final var worker = new PerftWorker(rootColumns, depth);
+            worker.expand(direction, 1);
+            workers.add(worker);
+        } else {
+            final var tasks = new ArrayList<Callable<PerftWorker>>();
+            for (var roll : DICE_ROLLS) {
+                tasks.add(() -> {
+                    final var worker = new PerftWorker(rootColumns.copy(), depth);
+                    worker.expand(direction, roll, 1);
+                    return worker;
+                });
+            }
+            workers.addAll(runAll(tasks));
+        }
+
+        final var plies = new ArrayList<PerftResult.PlyCount>(depth);
+        for (int ply = 1; ply <= depth; ply++) {
+            long positions = 0;
+            long plays = 0;
+            for (var worker : workers) {
+                positions += worker.getPositions(ply);
+                plays += worker.getPlays(ply);
+            }
+            plies.add(new PerftResult.PlyCount(ply, positions, plays));
+        }
+        return new PerftResult(plies);
+    }
+
+    private List<PerftWorker> runAll(List<Callable<PerftWorker>> tasks) {
+        final var pool = new ForkJoinPool(parallelism);
+        try {
+            final var workers = new ArrayList<PerftWorker>(tasks.size());
+            for (var future : pool.invokeAll(tasks)) {
+                workers.add(future.get());
+            }
+            return workers;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while counting", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Counting failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public static final class Builder {
+        private BoardTemplate template = BoardTemplate.getDefault();
+        private int parallelism = 1;
+
+        private Builder() {
+        }
+
+        public Builder withTemplate(BoardTemplate template) {
+            this.template = template;
+            return this;
+        }
+
+        /**
+         * Set the number of threads counting concurrently. Defaults to 1.
+         *
+         * @param parallelism the number of threads
+         * @return the builder
+         */
+        public Builder withParallelism(int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("Parallelism must be at least 1");
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        public Perft build() {
+            return new Perft(this);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.github.afloarea.obge.perft;
+
+import com.github.afloarea.obge.Direction;
+import com.github.afloarea.obge.board.BoardSnapshot;
+import com.github.afloarea.obge.board.ColumnSnapshot;
+import com.github.afloarea.obge.layout.BoardMapper;
+import com.github.afloarea.obge.layout.ColumnsFactory;
+
+import static com.github.afloarea.obge.common.Constants.BOARD_COLUMNS;
+import static com.github.afloarea.obge.common.Constants.PIECES_PER_PLAYER;
+
+/**
+ * Command line entry point running perft, clockwise playing first.
+ * <pre>
+ *     java -cp open-backgammon-engine.jar com.github.afloarea.obge.perft.PerftCommand depth [parallelism [position]]
+ * </pre>
+ * The position defaults to the starting one. It is given as the 24 signed piece counts of the regular columns
+ * in the clockwise order, positive for clockwise pieces and negative for anticlockwise ones, separated by commas,
+ * optionally followed by the suspended clockwise, suspended anticlockwise, collected clockwise
+ * and collected anticlockwise pieces.
+ */
+public final class PerftCommand {
+    private static final String USAGE = "Usage: PerftCommand depth [parallelism [position]]";
+    private static final int COUNTERS = 4;
+
+    public static void main(String[] args) {
+        final int depth;
+        final Perft perft;
+        final BoardSnapshot root;
+        try {
+            if (args.length < 1 || args.length > 3) {
+                throw new IllegalArgumentException("Wrong number of arguments");
+            }
+            depth = parsePositive(args[0], "depth");
+            perft = Perft.builder().withParallelism(args.length > 1 ? parsePositive(args[1], "parallelism") : 1).build();
+            root = args.length > 2
+                    ? parsePosition(args[2])
+                    : BoardMapper.takeSnapshot(ColumnsFactory.buildStartingSequence());
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(1);
+            return;
+        }
+
+        final long start = System.nanoTime();
+        final var result = perft.run(root, Direction.CLOCKWISE, depth);
+        final long elapsedNanos = System.nanoTime() - start;
+
+        long totalPlays = 0;
+        System.out.printf("%-5s %20s %20s%n", "ply", "positions", "plays");
+        for (var ply : result.plies()) {
+            System.out.printf("%-5d %20d %20d%n", ply.ply(), ply.positions(), ply.plays());
+            totalPlays += ply.plays();
+        }
+        final double seconds = elapsedNanos / 1e9;
+        System.out.printf("%.3f s, %.0f plays/s%n", seconds, totalPlays / seconds);
+    }
+
+    private static int parsePositive(String argument, String name) {
+        final int value;
+        try {
+            value = Integer.parseInt(argument);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + argument, e);
+        }
+        if (value < 1) {
+            throw new IllegalArgumentException("The " + name + " must be at least 1");
+        }
+        return value;
+    }
+
+    /**
+     * Parse a position in the format of the command line.
+     *
+     * @param position the position
+     * @return the board
+     * @throws IllegalArgumentException if the position is malformed or does not hold all the pieces of each player
+     */
+    static BoardSnapshot parsePosition(String position) {
+        final String[] values = position.split(",");
+        if (values.length != BOARD_COLUMNS && values.length != BOARD_COLUMNS + COUNTERS) {
+            throw new IllegalArgumentException("A position needs " + BOARD_COLUMNS + " or "
+                    + (BOARD_COLUMNS + COUNTERS) + " values, not " + values.length);
+        }
+        final int[] counts = new int[BOARD_COLUMNS + COUNTERS];
+        for (int index = 0; index < values.length; index++) {
+            try {
+                counts[index] = Integer.parseInt(values[index].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid piece count: " + values[index], e);
+            }
+            if (Math.abs(counts[index]) > PIECES_PER_PLAYER || (index >= BOARD_COLUMNS && counts[index] < 0)) {
+                throw new IllegalArgumentException("Invalid piece count: " + values[index]);
+            }
+        }
+
+        final var columns = new ColumnSnapshot[BOARD_COLUMNS];
+        int clockwisePieces = counts[BOARD_COLUMNS] + counts[BOARD_COLUMNS + 2];
+        int anticlockwisePieces = counts[BOARD_COLUMNS + 1] + counts[BOARD_COLUMNS + 3];
+        for (int index = 0; index < BOARD_COLUMNS; index++) {
+            columns[index] = ColumnSnapshot.ofSigned(counts[index]);
+            clockwisePieces += Math.max(counts[index], 0);
+            anticlockwisePieces += Math.max(-counts[index], 0);
+        }
+        if (clockwisePieces != PIECES_PER_PLAYER || anticlockwisePieces != PIECES_PER_PLAYER) {
+            throw new IllegalArgumentException("Each player needs " + PIECES_PER_PLAYER + " pieces, not "
+                    + clockwisePieces + " clockwise and " + anticlockwisePieces + " anticlockwise");
+        }
+        return BoardSnapshot.builder()
+                .withColumns(columns)
+                .withClockwiseSuspended(counts[BOARD_COLUMNS])
+                .withAnticlockwiseSuspended(counts[BOARD_COLUMNS + 1])
+                .withClockwiseCollected(counts[BOARD_COLUMNS + 2])
+                .withAnticlockwiseCollected(counts[BOARD_COLUMNS + 3])
+                .build();
+    }
+
+    private PerftCommand() {
+    }
+}
@@ -0,0 +1,36 @@
+package com.github.afloarea.obge.perft;
+
+import java.util.List;
+
+/**
+ * The counts of a perft run, one entry per ply.
+ *
+ * @param plies the counts of each ply, starting with the first one
+ */
+public record PerftResult(List<PlyCount> plies) {
+
+    /**
+     * The counts of a single ply, summed over all the positions of the previous ply and all the 21 distinct rolls.
+     *
+     * @param ply       the ply, starting at 1
+     * @param positions the number of distinct positions reached per position and roll of the previous ply.
+     *                  A roll that cannot be played counts as a single position, the unchanged one
+     * @param plays     the number of legal transition sequences, with every ordering counted separately
+     */
+    public record PlyCount(int ply, long positions, long plays) {
+    }
+
+    public PerftResult {
+        plies = List.copyOf(plies);
+    }
+
+    /**
+     * Get the counts of a ply.
+     *
+     * @param ply the ply, starting at 1
+     * @return the counts
+     */
+    public PlyCount get(int ply) {
+        return plies.get(ply - 1);
+    }
+}
@@ -0,0 +1,77 @@
+package com.github.afloarea.obge.perft;
+
+import com.github.afloarea.obge.Direction;
+import com.github.afloarea.obge.dice.DiceRoll;
+import com.github.afloarea.obge.layout.ColumnSequence;
+import com.github.afloarea.obge.predictors.PlayLengthPredictor;
+
+import static com.github.afloarea.obge.common.Constants.DICE_ROLLS;
+import static com.github.afloarea.obge.common.Constants.PIECES_PER_PLAYER;
+
+/**
+ * Walks the tree of plays depth first on a single column sequence, holding one predictor per ply.
+ */
+final class PerftWorker {
+
+    private final ColumnSequence columns;
+    private final int depth;
+    private final long[] positions;
+    private final long[] plays;
+    private final PlayLengthPredictor[] lengthPredictors;
+    private final PlayCounter[] playCounters;
+
+    PerftWorker(ColumnSequence columns, int depth) {
+        this.columns = columns;
+        this.depth = depth;
+        positions = new long[depth];
+        plays = new long[depth];
+        lengthPredictors = new PlayLengthPredictor[depth];
+        playCounters = new PlayCounter[depth];
+        for (int index = 0; index < depth; index++) {
+            lengthPredictors[index] = new PlayLengthPredictor();
+            playCounters[index] = new PlayCounter(this, index + 1);
+        }
+    }
+
+    void expand(Direction direction, int ply) {
+        if (ply > depth || isGameComplete()) {
+            return;
+        }
+        for (var roll : DICE_ROLLS) {
+            expand(direction, roll, ply);
+        }
+    }
+
+    void expand(Direction direction, DiceRoll roll, int ply) {
+        final int length = lengthPredictors[ply - 1].predict(columns, roll, direction);
+        if (length == 0) {
+            countPosition(ply);
+            expand(direction.reverse(), ply + 1);
+            return;
+        }
+        final var counter = playCounters[ply - 1];
+        counter.setLength(length);
+        counter.predict(columns, roll, direction);
+    }
+
+    void countPosition(int ply) {
+        positions[ply - 1]++;
+    }
+
+    void countPlay(int ply) {
+        plays[ply - 1]++;
+    }
+
+    long getPositions(int ply) {
+        return positions[ply - 1];
+    }
+
+    long getPlays(int ply) {
+        return plays[ply - 1];
+    }
+
+    private boolean isGameComplete() {
+        return columns.getCollectColumn(Direction.CLOCKWISE).getPieceCount() == PIECES_PER_PLAYER
+                || columns.getCollectColumn(Direction.ANTICLOCKWISE).getPieceCount() == PIECES_PER_PLAYER;
+    }
+}
@@ -0,0 +1,52 @@
+package com.github.afloarea.obge.perft;
+
+import com.github.afloarea.obge.layout.PositionKey;
+import com.github.afloarea.obge.predictors.AbstractObgPredictor;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Counts the plays of a given length and the distinct positions they lead to.
+ * Every new position is expanded further right away, while the columns are in that position,
+ * so that positions never need to be copied.
+ */
+final class PlayCounter extends AbstractObgPredictor<Void, Set<PositionKey>> {
+
+    private final PerftWorker worker;
+    private final int ply;
+    private int length;
+
+    PlayCounter(PerftWorker worker, int ply) {
+        super(new HashSet<>());
+        this.worker = worker;
+        this.ply = ply;
+    }
+
+    void setLength(int length) {
+        this.length = length;
+    }
+
+    @Override
+    protected void clearAggregator() {
+        aggregator.clear();
+    }
+
+    @Override
+    protected Void mapAggregatorToResult() {
+        aggregator.clear();
+        return null;
+    }
+
+    @Override
+    protected void save() {
+        if (performedMoves.size() != length) {
+            return;
+        }
+        worker.countPlay(ply);
+        if (aggregator.add(PositionKey.of(columns))) {
+            worker.countPosition(ply);
+            worker.expand(currentDirection().reverse(), ply + 1);
+        }
+    }
+}
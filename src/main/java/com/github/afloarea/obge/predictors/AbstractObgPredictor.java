@@ -4,7 +4,11 @@ import com.github.afloarea.obge.Direction;
 import com.github.afloarea.obge.common.Constants;
 import com.github.afloarea.obge.dice.DiceRoll;
 import com.github.afloarea.obge.layout.BoardColumn;
+import com.github.afloarea.obge.layout.BoardMapper;
 import com.github.afloarea.obge.layout.ColumnSequence;
+import com.github.afloarea.obge.metrics.ObgMetricsListener;
+import com.github.afloarea.obge.metrics.PredictionEvent;
+import com.github.afloarea.obge.metrics.RollType;
 import com.github.afloarea.obge.moves.ObgTransition;
 
 import java.util.ArrayDeque;
@@ -21,15 +25,30 @@ public abstract class AbstractObgPredictor<R, A> implements ObgPredictor<R> {
     private final Deque<Integer> availableDice = new ArrayDeque<>();
     protected final Deque<ObgTransition> performedMoves = new ArrayDeque<>();
 
+    private ObgMetricsListener metricsListener = ObgMetricsListener.NOOP;
+    private long visitedNodes;
+    private long savedLeaves;
+
     protected AbstractObgPredictor(A aggregator) {
         this.aggregator = aggregator;
     }
 
+    @Override
+    public void setMetricsListener(ObgMetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+    }
+
     @Override
     public R predict(ColumnSequence columns, DiceRoll diceRoll, Direction direction) {
+        final var event = PredictionEvent.isRecorded() ? new PredictionEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
         this.columns = columns;
         this.currentDirection = direction;
         clearAggregator();
+        visitedNodes = 0;
+        savedLeaves = 0;
 
         if (diceRoll.isSimple()) {
             predict(List.of(diceRoll.dice1(), diceRoll.dice2()));
@@ -38,7 +57,28 @@ public abstract class AbstractObgPredictor<R, A> implements ObgPredictor<R> {
             predict(diceRoll.stream().boxed().toList());
         }
 
-        return mapAggregatorToResult();
+        final var result = mapAggregatorToResult();
+        if (metricsListener != ObgMetricsListener.NOOP) {
+            metricsListener.predictionCompleted(RollType.of(diceRoll), visitedNodes, savedLeaves, countKept(result));
+        }
+        if (event != null) {
+            commit(event, diceRoll, direction, result);
+        }
+        return result;
+    }
+
+    private void commit(PredictionEvent event, DiceRoll diceRoll, Direction direction, R result) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.setPredictor(getClass().getSimpleName());
+            event.setPosition(BoardMapper.takeSnapshot(columns).toString());
+            event.setDirection(direction.name());
+            event.setRoll(diceRoll.toString());
+            event.setVisitedNodes(visitedNodes);
+            event.setSavedLeaves(savedLeaves);
+            event.setResultCount(countKept(result));
+            event.commit();
+        }
     }
 
     protected abstract void clearAggregator();
@@ -47,6 +87,66 @@ public abstract class AbstractObgPredictor<R, A> implements ObgPredictor<R> {
 
     protected abstract void save();
 
+    /**
+     * Count the results kept after the shorter sequences were dropped. Only called when metrics are collected.
+     *
+     * @param result the result of the prediction
+     * @return the number of kept results, or 0 if the result is not a collection of sequences or boards
+     */
+    protected long countKept(R result) {
+        return 0;
+    }
+
+    /**
+     * Called after a transition is added at the end of the performed moves.
+     *
+     * @param transition the performed transition
+     */
+    protected void moved(ObgTransition transition) {
+    }
+
+    /**
+     * Called after the last transition is removed from the performed moves.
+     *
+     * @param transition the reverted transition
+     */
+    protected void reverted(ObgTransition transition) {
+    }
+
+    /**
+     * Called after every performed move, to skip exploring sequences continuing with it.
+     *
+     * @return true if the current sequence should not be continued
+     */
+    protected boolean isPruned() {
+        return false;
+    }
+
+    /**
+     * Checked before every move, to stop the prediction early.
+     *
+     * @return true if no further sequences need to be explored
+     */
+    protected boolean isComplete() {
+        return false;
+    }
+
+    protected final int remainingDiceCount() {
+        return availableDice.size();
+    }
+
+    protected final int remainingDiceSum() {
+        int sum = 0;
+        for (int die : availableDice) {
+            sum += die;
+        }
+        return sum;
+    }
+
+    protected final Direction currentDirection() {
+        return currentDirection;
+    }
+
     private void predict(List<Integer> availableDiceValues) {
         performedMoves.clear();
         availableDice.clear();
@@ -55,8 +155,12 @@ public abstract class AbstractObgPredictor<R, A> implements ObgPredictor<R> {
     }
 
     private void computeSequences() {
+        if (isComplete()) {
+            return;
+        }
+        visitedNodes++;
         if (availableDice.isEmpty()) {
-            save();
+            saveLeaf();
             return;
         }
 
@@ -65,11 +169,13 @@ public abstract class AbstractObgPredictor<R, A> implements ObgPredictor<R> {
         final var suspendColumn = columns.getSuspendedColumn(currentDirection);
         if (!suspendColumn.isEmpty()) {
             if (!canMove(suspendColumn, dieValue)) {
-                save();
+                saveLeaf();
                 return;
             }
             final var executedMove = doMove(suspendColumn, dieValue);
-            computeSequences();
+            if (!isPruned()) {
+                computeSequences();
+            }
             undoMove(executedMove);
             return;
         }
@@ -80,49 +186,29 @@ public abstract class AbstractObgPredictor<R, A> implements ObgPredictor<R> {
         for (var column : normalColumns) {
             if (canMove(column, dieValue)) {
                 final var executedMove = doMove(column, dieValue);
-                computeSequences();
+                if (!isPruned()) {
+                    computeSequences();
+                }
                 undoMove(executedMove);
                 moved = true;
+                if (isComplete()) {
+                    return;
+                }
             }
         }
 
         if (!moved) {
-            save();
+            saveLeaf();
         }
     }
 
-    private boolean canMove(BoardColumn source, int distance) {
-        final var sourceIndex = columns.getColumnIndex(source, currentDirection);
-        if (source.getMovingDirectionOfElements() != currentDirection) {
-            return false;
-        }
-
-        final var targetIndex = sourceIndex + distance;
-
-        if (sourceIndex < Constants.HOME_START) {
-            final var target = columns.getColumn(targetIndex, currentDirection);
-            return target.isClearForDirection(currentDirection);
-        }
-
-        var nonHomePieces = columns.countPiecesUpToIndex(Constants.HOME_START, currentDirection);
-        if (nonHomePieces > 0) {
-            if (targetIndex >= Constants.COLLECT_INDEX) {
-                return false;
-            }
-            return columns.getColumn(targetIndex, currentDirection).isClearForDirection(currentDirection);
-        }
-
-        var piecesBehind = columns.countPiecesUpToIndex(sourceIndex, currentDirection);
-        if (piecesBehind == 0) {
-            return targetIndex >= Constants.COLLECT_INDEX
-                    || columns.getColumn(targetIndex, currentDirection).isClearForDirection(currentDirection);
-        }
-
-        if (targetIndex > Constants.COLLECT_INDEX) {
-            return false;
-        }
+    private void saveLeaf() {
+        savedLeaves++;
+        save();
+    }
 
-        return columns.getColumn(targetIndex, currentDirection).isClearForDirection(currentDirection);
+    private boolean canMove(BoardColumn source, int distance) {
+        return MoveRules.canMove(columns, currentDirection, source, distance);
     }
 
     private ObgTransition doMove(BoardColumn source, int distance) {
@@ -133,18 +219,18 @@ public abstract class AbstractObgPredictor<R, A> implements ObgPredictor<R> {
         final var target = columns.getColumn(targetIndex, currentDirection);
 
         final var opponentDirection = currentDirection.reverse();
-        String suspended = null;
+        boolean suspending = false;
         if (target.getMovingDirectionOfElements() == opponentDirection) {
-            final var suspendedColumn = columns.getSuspendedColumn(opponentDirection);
-            suspendedColumn.addElement(opponentDirection);
+            columns.getSuspendedColumn(opponentDirection).addElement(opponentDirection);
             target.removeElement();
-            suspended = suspendedColumn.getId();
+            suspending = true;
         }
         target.addElement(currentDirection);
         source.removeElement();
 
-        final var move = new ObgTransition(source.getId(), target.getId(), distance, suspended);
+        final var move = columns.getTransitionTable().getTransition(currentDirection, sourceIndex, distance, suspending);
         performedMoves.addLast(move);
+        moved(move);
         return move;
     }
 
@@ -164,6 +250,7 @@ public abstract class AbstractObgPredictor<R, A> implements ObgPredictor<R> {
         }
 
         performedMoves.removeLast();
+        reverted(move);
     }
 
 }
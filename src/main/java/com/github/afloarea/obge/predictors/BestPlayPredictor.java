@@ -0,0 +1,46 @@
+package com.github.afloarea.obge.predictors;
+
+import com.github.afloarea.obge.evaluation.PositionEvaluator;
+
+/**
+ * Predicts the value of the best play, as scored by an evaluator from the point of view of the player who plays.
+ * Every play is evaluated on the columns as soon as it is found, so no board is created.
+ * The result is {@link Double#NaN} if no piece can be moved.
+ */
+public final class BestPlayPredictor extends AbstractObgPredictor<Double, double[]> {
+
+    private final PositionEvaluator evaluator;
+
+    public BestPlayPredictor(PositionEvaluator evaluator) {
+        // the aggregator holds the length of the longest sequences found so far and the value of their best play
+        super(new double[2]);
+        this.evaluator = evaluator;
+    }
+
+    @Override
+    protected void clearAggregator() {
+        aggregator[0] = 0;
+        aggregator[1] = Double.NaN;
+    }
+
+    @Override
+    protected Double mapAggregatorToResult() {
+        return aggregator[1];
+    }
+
+    @Override
+    protected void save() {
+        final int length = performedMoves.size();
+        if (length == 0 || length < aggregator[0]) {
+            return;
+        }
+        final double value = evaluator.evaluatePlay(columns, currentDirection());
+        if (length > aggregator[0]) {
+            // the plays of shorter sequences are not legal once a longer one is found
+            aggregator[0] = length;
+            aggregator[1] = value;
+        } else {
+            aggregator[1] = Math.max(aggregator[1], value);
+        }
+    }
+}
@@ -2,15 +2,13 @@ package com.github.afloarea.obge.predictors;
 
 import com.github.afloarea.obge.board.BoardSnapshot;
 import com.github.afloarea.obge.layout.BoardMapper;
-import com.github.afloarea.obge.moves.ObgTransition;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-public final class BoardPredictor extends AbstractObgPredictor<Set<BoardSnapshot>, Map<BoardSnapshot, List<ObgTransition>>> {
+public final class BoardPredictor extends AbstractObgPredictor<Set<BoardSnapshot>, Map<BoardSnapshot, Integer>> {
 
     public BoardPredictor() {
         super(new HashMap<>());
@@ -24,14 +22,22 @@ public final class BoardPredictor extends AbstractObgPredictor<Set<BoardSnapshot
     @Override
     protected Set<BoardSnapshot> mapAggregatorToResult() {
         final var maxMoves = aggregator.values().stream()
-                .mapToInt(List::size)
+                .mapToInt(Integer::intValue)
                 .max()
                 .orElse(0);
 
-        return aggregator.entrySet().stream()
-                .filter(entry -> entry.getValue().size() == maxMoves)
+        final var boards = aggregator.entrySet().stream()
+                .filter(entry -> entry.getValue() == maxMoves)
                 .map(Map.Entry::getKey)
                 .collect(Collectors.toUnmodifiableSet());
+        // do not retain the shorter sequences' boards until the next prediction
+        aggregator.clear();
+        return boards;
+    }
+
+    @Override
+    protected long countKept(Set<BoardSnapshot> result) {
+        return result.size();
     }
 
     @Override
@@ -39,6 +45,7 @@ public final class BoardPredictor extends AbstractObgPredictor<Set<BoardSnapshot
         if (performedMoves.isEmpty()) {
             return;
         }
-        aggregator.put(BoardMapper.takeSnapshot(columns), List.copyOf(performedMoves));
+        // only the length of the sequence matters, see mapAggregatorToResult
+        aggregator.merge(BoardMapper.takeSnapshot(columns), performedMoves.size(), Math::max);
     }
 }
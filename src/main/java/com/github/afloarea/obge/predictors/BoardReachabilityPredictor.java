@@ -0,0 +1,130 @@
+package com.github.afloarea.obge.predictors;
+
+import com.github.afloarea.obge.Direction;
+import com.github.afloarea.obge.board.BoardSnapshot;
+import com.github.afloarea.obge.layout.BoardMapper;
+
+import static com.github.afloarea.obge.common.Constants.BOARD_COLUMNS;
+import static com.github.afloarea.obge.common.Constants.COLLECT_INDEX;
+import static com.github.afloarea.obge.common.Constants.SUSPEND_INDEX;
+
+/**
+ * Predicts whether a given board can be reached with a sequence of a given length,
+ * without enumerating every possible board.
+ * <p>
+ * Sequences that can no longer lead to the board are dropped as soon as they are performed:
+ * <ul>
+ *     <li>the playing pieces only move forward, so for every column there can never be fewer of them
+ *     on or behind it than on the target board</li>
+ *     <li>the opponent's pieces only leave the regular columns, for the suspended column</li>
+ *     <li>every remaining die moves a piece by at most its value</li>
+ * </ul>
+ */
+public final class BoardReachabilityPredictor extends AbstractObgPredictor<Boolean, boolean[]> {
+
+    private final BoardSnapshot target;
+    private final int length;
+    private final Direction direction;
+
+    // indexed in the playing direction, from the suspended column to the collected one
+    private final int[] targetPieces = new int[COLLECT_INDEX + 1];
+    private final int[] targetOpponentPieces = new int[COLLECT_INDEX + 1];
+    private final int targetPips;
+
+    /**
+     * Create a predictor for a board.
+     *
+     * @param target    the board to reach
+     * @param length    the number of moves the sequence must have
+     * @param direction the playing direction
+     */
+    public BoardReachabilityPredictor(BoardSnapshot target, int length, Direction direction) {
+        // the aggregator holds whether the board was reached
+        super(new boolean[1]);
+        this.target = target;
+        this.length = length;
+        this.direction = direction;
+
+        targetPieces[SUSPEND_INDEX] = target.getSuspended(direction);
+        targetPieces[COLLECT_INDEX] = target.getCollected(direction);
+        targetOpponentPieces[SUSPEND_INDEX] = target.getSuspended(direction.reverse());
+        final var columns = target.stream(direction).toList();
+        for (int index = 1; index <= BOARD_COLUMNS; index++) {
+            final var column = columns.get(index - 1);
+            if (column.elementsDirection() == direction) {
+                targetPieces[index] = column.pieceCount();
+            } else {
+                targetOpponentPieces[index] = column.pieceCount();
+            }
+        }
+        targetPips = pips(targetPieces);
+    }
+
+    @Override
+    protected void clearAggregator() {
+        if (currentDirection() != direction) {
+            throw new IllegalArgumentException("Invalid direction provided");
+        }
+        aggregator[0] = false;
+    }
+
+    @Override
+    protected Boolean mapAggregatorToResult() {
+        return aggregator[0];
+    }
+
+    @Override
+    protected void save() {
+        if (performedMoves.size() == length && BoardMapper.takeSnapshot(columns).equals(target)) {
+            aggregator[0] = true;
+        }
+    }
+
+    @Override
+    protected boolean isComplete() {
+        return aggregator[0];
+    }
+
+    @Override
+    protected boolean isPruned() {
+        final var opponentDirection = direction.reverse();
+        if (columns.getSuspendedColumn(opponentDirection).getPieceCount() > targetOpponentPieces[SUSPEND_INDEX]) {
+            return true;
+        }
+
+        final var pieces = new int[COLLECT_INDEX + 1];
+        int piecesBehind = 0;
+        int targetPiecesBehind = 0;
+        for (int index = SUSPEND_INDEX; index < COLLECT_INDEX; index++) {
+            final var column = columns.getColumn(index, direction);
+            if (column.getMovingDirectionOfElements() == direction) {
+                pieces[index] = column.getPieceCount();
+            } else if (index != SUSPEND_INDEX) {
+                final int opponentPieces = column.getMovingDirectionOfElements() == opponentDirection
+                        ? column.getPieceCount() : 0;
+                if (opponentPieces < targetOpponentPieces[index]) {
+                    return true;
+                }
+            }
+
+            piecesBehind += pieces[index];
+            targetPiecesBehind += targetPieces[index];
+            if (targetPiecesBehind > piecesBehind) {
+                return true;
+            }
+        }
+
+        return pips(pieces) - targetPips > remainingDiceSum();
+    }
+
+    /*
+     * The distance left to the collected column, for all the pieces
+     */
+    private static int pips(int[] pieces) {
+        int pips = 0;
+        for (int index = SUSPEND_INDEX; index < COLLECT_INDEX; index++) {
+            pips += pieces[index] * (COLLECT_INDEX - index);
+        }
+        return pips;
+    }
+}
@@ -0,0 +1,121 @@
+package com.github.afloarea.obge.predictors;
+
+import com.github.afloarea.obge.Direction;
+import com.github.afloarea.obge.common.Constants;
+import com.github.afloarea.obge.layout.BoardColumn;
+import com.github.afloarea.obge.layout.ColumnSequence;
+import com.github.afloarea.obge.moves.ObgTransition;
+
+/**
+ * The rules for moving a single piece with a single die.
+ */
+public final class MoveRules {
+
+    /**
+     * Check if a piece can be moved from a column using a die, ignoring any suspended pieces.
+     *
+     * @param columns   the columns
+     * @param direction the playing direction
+     * @param source    the source column
+     * @param distance  the die value
+     * @return true if the piece can be moved
+     */
+    public static boolean canMove(ColumnSequence columns, Direction direction, BoardColumn source, int distance) {
+        final var sourceIndex = columns.getColumnIndex(source, direction);
+        if (source.getMovingDirectionOfElements() != direction) {
+            return false;
+        }
+
+        final var targetIndex = sourceIndex + distance;
+
+        if (sourceIndex < Constants.HOME_START) {
+            final var target = columns.getColumn(targetIndex, direction);
+            return target.isClearForDirection(direction);
+        }
+
+        var nonHomePieces = columns.countPiecesUpToIndex(Constants.HOME_START, direction);
+        if (nonHomePieces > 0) {
+            if (targetIndex >= Constants.COLLECT_INDEX) {
+                return false;
+            }
+            return columns.getColumn(targetIndex, direction).isClearForDirection(direction);
+        }
+
+        var piecesBehind = columns.countPiecesUpToIndex(sourceIndex, direction);
+        if (piecesBehind == 0) {
+            return targetIndex >= Constants.COLLECT_INDEX
+                    || columns.getColumn(targetIndex, direction).isClearForDirection(direction);
+        }
+
+        if (targetIndex > Constants.COLLECT_INDEX) {
+            return false;
+        }
+
+        return columns.getColumn(targetIndex, direction).isClearForDirection(direction);
+    }
+
+    /**
+     * Check if a transition can be executed on the columns as they are.
+     * Suspended pieces must be moved first and the transition must suspend a piece exactly when it lands on one.
+     *
+     * @param columns    the columns
+     * @param direction  the playing direction
+     * @param transition the transition
+     * @return true if the transition is legal
+     */
+    public static boolean isLegal(ColumnSequence columns, Direction direction, ObgTransition transition) {
+        final var source = columns.getColumnById(transition.source());
+        if (source == null) {
+            return false;
+        }
+
+        final var suspendColumn = columns.getSuspendedColumn(direction);
+        if (!suspendColumn.isEmpty() && source != suspendColumn) {
+            return false;
+        }
+        if (!canMove(columns, direction, source, transition.usedDie())) {
+            return false;
+        }
+
+        final var sourceIndex = columns.getColumnIndex(source, direction);
+        final var target = columns.getColumn(Math.min(sourceIndex + transition.usedDie(), Constants.COLLECT_INDEX), direction);
+        final boolean suspending = target.getMovingDirectionOfElements() == direction.reverse();
+        return transition.equals(columns.getTransitionTable()
+                .getTransition(direction, sourceIndex, transition.usedDie(), suspending));
+    }
+
+    /**
+     * Execute a transition on the columns, without checking it.
+     *
+     * @param columns    the columns
+     * @param direction  the playing direction
+     * @param transition the transition
+     */
+    public static void apply(ColumnSequence columns, Direction direction, ObgTransition transition) {
+        if (transition.isSuspending()) {
+            columns.getColumnById(transition.target()).removeElement();
+            columns.getColumnById(transition.suspended()).addElement(direction.reverse());
+        }
+        columns.getColumnById(transition.source()).removeElement();
+        columns.getColumnById(transition.target()).addElement(direction);
+    }
+
+    /**
+     * Revert a transition previously executed on the columns.
+     *
+     * @param columns    the columns
+     * @param direction  the playing direction
+     * @param transition the transition
+     */
+    public static void revert(ColumnSequence columns, Direction direction, ObgTransition transition) {
+        columns.getColumnById(transition.target()).removeElement();
+        columns.getColumnById(transition.source()).addElement(direction);
+        if (transition.isSuspending()) {
+            columns.getColumnById(transition.suspended()).removeElement();
+            columns.getColumnById(transition.target()).addElement(direction.reverse());
+        }
+    }
+
+    private MoveRules() {
+    }
+}
@@ -3,9 +3,18 @@ package com.github.afloarea.obge.predictors;
 import com.github.afloarea.obge.Direction;
 import com.github.afloarea.obge.dice.DiceRoll;
 import com.github.afloarea.obge.layout.ColumnSequence;
+import com.github.afloarea.obge.metrics.ObgMetricsListener;
 
 public interface ObgPredictor<R> {
 
     R predict(ColumnSequence columns, DiceRoll diceRoll, Direction direction);
 
+    /**
+     * Set the listener notified after every prediction. Predictors not reporting metrics ignore it.
+     *
+     * @param metricsListener the listener
+     */
+    default void setMetricsListener(ObgMetricsListener metricsListener) {
+    }
+
 }
@@ -0,0 +1,37 @@
+package com.github.afloarea.obge.predictors;
+
+/**
+ * Predicts the number of dice that can be played, which is the length of the longest possible sequence.
+ * Stops as soon as a sequence using all the dice is found.
+ */
+public final class PlayLengthPredictor extends AbstractObgPredictor<Integer, int[]> {
+
+    public PlayLengthPredictor() {
+        // the aggregator holds the longest length found so far and whether all the dice were used
+        super(new int[2]);
+    }
+
+    @Override
+    protected void clearAggregator() {
+        aggregator[0] = 0;
+        aggregator[1] = 0;
+    }
+
+    @Override
+    protected Integer mapAggregatorToResult() {
+        return aggregator[0];
+    }
+
+    @Override
+    protected void save() {
+        aggregator[0] = Math.max(aggregator[0], performedMoves.size());
+        if (remainingDiceCount() == 0) {
+            aggregator[1] = 1;
+        }
+    }
+
+    @Override
+    protected boolean isComplete() {
+        return aggregator[1] == 1;
+    }
+}
@@ -0,0 +1,244 @@
+package com.github.afloarea.obge.predictors;
+
+import com.github.afloarea.obge.Direction;
+import com.github.afloarea.obge.board.BoardSnapshot;
+import com.github.afloarea.obge.layout.ColumnSequence;
+import com.github.afloarea.obge.moves.ObgTransition;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts between a tree holding every ordering of the predicted transitions
+ * and a compact tree holding a single (canonical) ordering per resulting board and set of transitions.
+ * <p>
+ * Playing the same transitions in a different order leads to the same board,
+ * so on doubles a compact tree can be up to 24 times smaller. The other orderings are never built in full:
+ * listing the moves and executing one only need the chains of transitions moving a single piece
+ * at the start of an ordering, which are checked for legality on the current board.
+ * <p>
+ * Sequences are at most four transitions long, so the transitions left to play are tracked with bit masks.
+ */
+public final class SequenceOrderings {
+    private static final int MAX_LENGTH = 4;
+
+    // any order works, as long as equal sets of transitions are sorted the same way
+    private static final Comparator<ObgTransition> CANONICAL_ORDER = Comparator
+            .comparingInt(ObgTransition::usedDie).reversed()
+            .thenComparing(ObgTransition::source)
+            .thenComparing(ObgTransition::target)
+            .thenComparing(ObgTransition::isSuspending);
+
+    private record Key(BoardSnapshot board, Map<ObgTransition, Integer> transitions) {
+    }
+
+    /**
+     * Build a tree keeping, for every resulting board and set of transitions, only the first sequence below a node.
+     * The tree must hold the resulting boards.
+     *
+     * @param node the node
+     * @return the root of the compact tree
+     */
+    public static TransitionNode canonical(TransitionNode node) {
+        if (node.isLeaf()) {
+            return TransitionNode.EMPTY;
+        }
+
+        final var root = TransitionNode.root();
+        final var seen = new HashSet<Key>();
+        node.forEachLeaf(leaf -> {
+            final var sequence = leaf.getTransitionsFrom(node);
+            final var transitions = new HashMap<ObgTransition, Integer>();
+            sequence.forEach(transition -> transitions.merge(transition, 1, Integer::sum));
+            if (seen.add(new Key(leaf.getBoard(), transitions))) {
+                var current = root;
+                for (var transition : sequence) {
+                    current = current.childFor(transition);
+                }
+                current.setBoard(leaf.getBoard());
+            }
+        });
+        root.seal();
+        return root;
+    }
+
+    /**
+     * Build the tree of the chains starting the legal orderings of the sequences below a node.
+     * The children of the root are the transitions an ordering can start with, and the children of any other node
+     * are the transitions continuing to move the same piece. A chain is only kept if the rest of its sequence
+     * can still be played after it, so the tree holds exactly the moves available from the node.
+     * The columns must be in the state matching the node; they are left unchanged.
+     *
+     * @param node      the node
+     * @param columns   the columns
+     * @param direction the playing direction
+     * @param source    the column id the chains must start from, or null for every column
+     * @return the root of the tree of chains
+     */
+    public static TransitionNode chains(TransitionNode node, ColumnSequence columns, Direction direction,
+                                        String source) {
+        if (node.isLeaf()) {
+            return TransitionNode.EMPTY;
+        }
+
+        final var root = TransitionNode.root();
+        final var sequence = new ObgTransition[MAX_LENGTH];
+        node.forEachLeaf(leaf -> addChains(root, sequence, fill(sequence, leaf, node), 0, source, columns, direction));
+        root.sortChildren();
+        return root;
+    }
+
+    /**
+     * Build the compact tree of what is left to play once a chain of transitions was played from a node:
+     * one legal ordering of the remaining transitions for every sequence that can start with the chain.
+     * The columns must be in the state after the chain; they are left unchanged.
+     *
+     * @param node      the node the chain was played from
+     * @param chain     the transitions played
+     * @param columns   the columns
+     * @param direction the playing direction
+     * @return the root of the compact tree
+     */
+    public static TransitionNode afterChain(TransitionNode node, List<ObgTransition> chain, ColumnSequence columns,
+                                            Direction direction) {
+        final var root = TransitionNode.root();
+        final var sequence = new ObgTransition[MAX_LENGTH];
+        final var remaining = new ObgTransition[MAX_LENGTH];
+        final var ordering = new ObgTransition[MAX_LENGTH];
+        node.forEachLeaf(leaf -> {
+            final int length = fill(sequence, leaf, node);
+            int played = 0;
+            for (var transition : chain) {
+                final int index = indexOfUnused(sequence, length, played, transition);
+                if (index < 0) {
+                    return;
+                }
+                played |= 1 << index;
+            }
+
+            int remainingLength = 0;
+            for (int index = 0; index < length; index++) {
+                if ((played & (1 << index)) == 0) {
+                    insertSorted(remaining, remainingLength++, sequence[index]);
+                }
+            }
+            // sorted, the same remaining transitions always give the same ordering, so they share a branch
+            if (findOrdering(remaining, remainingLength, 0, ordering, 0, columns, direction)) {
+                var current = root;
+                for (int index = 0; index < remainingLength; index++) {
+                    current = current.childFor(ordering[index]);
+                }
+                current.setBoard(leaf.getBoard());
+            }
+        });
+        if (root.isLeaf()) {
+            return TransitionNode.EMPTY;
+        }
+        root.seal();
+        return root;
+    }
+
+    private static void addChains(TransitionNode current, ObgTransition[] sequence, int length, int played,
+                                  String from, ColumnSequence columns, Direction direction) {
+        for (int index = 0; index < length; index++) {
+            final var transition = sequence[index];
+            if ((played & (1 << index)) != 0
+                    || (from != null && !transition.source().equals(from))
+                    || isRepeated(sequence, played, index)
+                    || !MoveRules.isLegal(columns, direction, transition)) {
+                continue;
+            }
+            final int nowPlayed = played | (1 << index);
+            MoveRules.apply(columns, direction, transition);
+            if (findOrdering(sequence, length, nowPlayed, null, 0, columns, direction)) {
+                addChains(current.childFor(transition), sequence, length, nowPlayed, transition.target(),
+                        columns, direction);
+            }
+            MoveRules.revert(columns, direction, transition);
+        }
+    }
+
+    /**
+     * Find a legal ordering of the transitions not played yet, depth first.
+     *
+     * @param ordering receives the ordering from the given position, or null if only its existence matters
+     * @return true if there is one
+     */
+    private static boolean findOrdering(ObgTransition[] sequence, int length, int played, ObgTransition[] ordering,
+                                        int position, ColumnSequence columns, Direction direction) {
+        if (played == (1 << length) - 1) {
+            return true;
+        }
+        for (int index = 0; index < length; index++) {
+            final var transition = sequence[index];
+            if ((played & (1 << index)) != 0 || isRepeated(sequence, played, index)
+                    || !MoveRules.isLegal(columns, direction, transition)) {
+                continue;
+            }
+            MoveRules.apply(columns, direction, transition);
+            final boolean found = findOrdering(sequence, length, played | (1 << index), ordering, position + 1,
+                    columns, direction);
+            MoveRules.revert(columns, direction, transition);
+            if (found) {
+                if (ordering != null) {
+                    ordering[position] = transition;
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Was the same transition already tried at this position of the ordering?
+     */
+    private static boolean isRepeated(ObgTransition[] sequence, int played, int index) {
+        for (int other = 0; other < index; other++) {
+            if ((played & (1 << other)) == 0 && sequence[other].equals(sequence[index])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int indexOfUnused(ObgTransition[] sequence, int length, int played, ObgTransition transition) {
+        for (int index = 0; index < length; index++) {
+            if ((played & (1 << index)) == 0 && sequence[index].equals(transition)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private static void insertSorted(ObgTransition[] transitions, int length, ObgTransition transition) {
+        int index = length;
+        while (index > 0 && CANONICAL_ORDER.compare(transitions[index - 1], transition) > 0) {
+            transitions[index] = transitions[index - 1];
+            index--;
+        }
+        transitions[index] = transition;
+    }
+
+    /**
+     * Copy the transitions leading from an ancestor to a leaf, without building a list.
+     *
+     * @return the number of transitions
+     */
+    private static int fill(ObgTransition[] sequence, TransitionNode leaf, TransitionNode ancestor) {
+        int length = 0;
+        for (var current = leaf; current != ancestor; current = current.getParent()) {
+            length++;
+        }
+        int index = length;
+        for (var current = leaf; current != ancestor; current = current.getParent()) {
+            sequence[--index] = current.getTransition();
+        }
+        return length;
+    }
+
+    private SequenceOrderings() {
+    }
+}
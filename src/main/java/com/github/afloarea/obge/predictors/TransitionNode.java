@@ -0,0 +1,229 @@
+package com.github.afloarea.obge.predictors;
+
+import com.github.afloarea.obge.board.BoardSnapshot;
+import com.github.afloarea.obge.moves.ObgTransition;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A node in a prefix tree of transition sequences.
+ * The root has no transition; every path from the root to a leaf is one of the sequences the tree holds,
+ * so sequences sharing a prefix share the nodes of that prefix. Every node links back to its parent,
+ * which makes a sequence recoverable from its last node alone.
+ * <p>
+ * Leaves may hold the board resulting from their sequence.
+ * Children are ordered by the used die, higher first, so that searches honour the dice roll order.
+ * <p>
+ * Trees are built by the predictors and never change once handed out.
+ */
+public final class TransitionNode {
+    public static final TransitionNode EMPTY = new TransitionNode(null, null);
+
+    private static final Comparator<TransitionNode> BY_DIE_DESCENDING =
+            Comparator.comparingInt((TransitionNode node) -> node.transition.usedDie()).reversed();
+
+    private final ObgTransition transition;
+    private final TransitionNode parent;
+    private final List<TransitionNode> children = new ArrayList<>(0);
+    private final List<TransitionNode> childrenView = Collections.unmodifiableList(children);
+    private BoardSnapshot board;
+    private int height; // the length of the longest sequence below this node, only used while building
+
+    private TransitionNode(ObgTransition transition, TransitionNode parent) {
+        this.transition = transition;
+        this.parent = parent;
+    }
+
+    /**
+     * Build a tree containing the given sequences.
+     *
+     * @param sequences the transition sequences
+     * @return the root of the tree
+     */
+    public static TransitionNode of(Collection<List<ObgTransition>> sequences) {
+        final var root = root();
+        for (var sequence : sequences) {
+            var node = root;
+            for (var transition : sequence) {
+                node = node.childFor(transition);
+            }
+        }
+        root.seal();
+        return root;
+    }
+
+    static TransitionNode root() {
+        return new TransitionNode(null, null);
+    }
+
+    // building, only used before the tree is handed out
+
+    TransitionNode addChild(ObgTransition childTransition) {
+        final var child = new TransitionNode(childTransition, this);
+        children.add(child);
+        return child;
+    }
+
+    void setBoard(BoardSnapshot board) {
+        this.board = board;
+    }
+
+    TransitionNode childFor(ObgTransition childTransition) {
+        for (var child : children) {
+            if (child.transition.equals(childTransition)) {
+                return child;
+            }
+        }
+        return addChild(childTransition);
+    }
+
+    /**
+     * Drop the branches shorter than the longest one and order the children of every node.
+     */
+    void seal() {
+        pruneTo(computeHeight());
+    }
+
+    /**
+     * Order the children of every node, keeping all the branches.
+     */
+    void sortChildren() {
+        children.sort(BY_DIE_DESCENDING);
+        children.forEach(TransitionNode::sortChildren);
+    }
+
+    private int computeHeight() {
+        height = 0;
+        for (var child : children) {
+            height = Math.max(height, child.computeHeight() + 1);
+        }
+        return height;
+    }
+
+    private void pruneTo(int remaining) {
+        if (remaining == 0) {
+            return;
+        }
+        children.removeIf(child -> child.height != remaining - 1);
+        children.sort(BY_DIE_DESCENDING);
+        children.forEach(child -> child.pruneTo(remaining - 1));
+    }
+
+    // querying
+
+    /**
+     * Get the transition leading to this node.
+     *
+     * @return the transition or null for the root
+     */
+    public ObgTransition getTransition() {
+        return transition;
+    }
+
+    /**
+     * Get the parent of this node.
+     *
+     * @return the parent or null for the root
+     */
+    public TransitionNode getParent() {
+        return parent;
+    }
+
+    public List<TransitionNode> getChildren() {
+        return childrenView;
+    }
+
+    public boolean isLeaf() {
+        return children.isEmpty();
+    }
+
+    /**
+     * Get the board resulting from the sequence ending in this node.
+     *
+     * @return the board or null if the node is not a leaf or the tree was built without boards
+     */
+    public BoardSnapshot getBoard() {
+        return board;
+    }
+
+    /**
+     * Get the transitions leading from an ancestor of this node to this node.
+     *
+     * @param ancestor the ancestor (or this node itself)
+     * @return the transitions in order
+     */
+    public List<ObgTransition> getTransitionsFrom(TransitionNode ancestor) {
+        final var transitions = new ArrayDeque<ObgTransition>();
+        for (var node = this; node != ancestor; node = node.parent) {
+            if (node == null) {
+                throw new IllegalArgumentException("Node is not an ancestor");
+            }
+            transitions.addFirst(node.transition);
+        }
+        return List.copyOf(transitions);
+    }
+
+    /**
+     * Visit every leaf of the subtree starting at this node.
+     *
+     * @param leafConsumer the consumer of the leaves
+     */
+    public void forEachLeaf(Consumer<TransitionNode> leafConsumer) {
+        if (children.isEmpty()) {
+            leafConsumer.accept(this);
+            return;
+        }
+        for (var child : children) {
+            child.forEachLeaf(leafConsumer);
+        }
+    }
+
+    /**
+     * Find the shortest chain of transitions that moves a single piece from source to target,
+     * starting from this node. Among chains of equal length, the one using the higher die first is chosen.
+     *
+     * @param source the source column id
+     * @param target the target column id
+     * @return the nodes along the chain (excluding this one) or an empty list if there is no such chain
+     */
+    public List<TransitionNode> findPath(String source, String target) {
+        final var pending = new ArrayDeque<TransitionNode>();
+        for (var child : children) {
+            if (child.transition.source().equals(source)) {
+                pending.add(child);
+            }
+        }
+
+        while (!pending.isEmpty()) {
+            final var node = pending.poll();
+            final var reached = node.transition.target();
+            if (reached.equals(target)) {
+                final var path = new ArrayDeque<TransitionNode>();
+                for (var current = node; current != this; current = current.parent) {
+                    path.addFirst(current);
+                }
+                return List.copyOf(path);
+            }
+            for (var child : node.children) {
+                if (child.transition.source().equals(reached)) {
+                    pending.add(child);
+                }
+            }
+        }
+        return List.of();
+    }
+
+    @Override
+    public String toString() {
+        return "TransitionNode{" +
+                "transition=" + transition +
+                ", children=" + children.size() +
+                '}';
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.afloarea.obge.predictors;
+
+import com.github.afloarea.obge.layout.BoardMapper;
+import com.github.afloarea.obge.moves.ObgTransition;
+
+/**
+ * Predicts the possible transition sequences as a prefix tree, built while the sequences are explored,
+ * so sequences sharing a prefix never get copied. Only the longest sequences are kept.
+ */
+public final class TransitionTreePredictor extends AbstractObgPredictor<TransitionNode, TransitionNode[]> {
+
+    private final boolean withBoards;
+
+    /**
+     * Create a predictor.
+     *
+     * @param withBoards whether the leaves should hold the boards resulting from their sequences
+     */
+    public TransitionTreePredictor(boolean withBoards) {
+        // the aggregator holds the root and the node reached by the performed moves
+        super(new TransitionNode[2]);
+        this.withBoards = withBoards;
+    }
+
+    @Override
+    protected void clearAggregator() {
+        aggregator[0] = TransitionNode.root();
+        aggregator[1] = aggregator[0];
+    }
+
+    @Override
+    protected TransitionNode mapAggregatorToResult() {
+        final var root = aggregator[0];
+        aggregator[0] = null;
+        aggregator[1] = null;
+        root.seal();
+        return root;
+    }
+
+    @Override
+    protected long countKept(TransitionNode result) {
+        if (result.isLeaf()) {
+            return 0;
+        }
+        final long[] leaves = {0};
+        result.forEachLeaf(leaf -> leaves[0]++);
+        return leaves[0];
+    }
+
+    @Override
+    protected void moved(ObgTransition transition) {
+        aggregator[1] = aggregator[1].addChild(transition);
+    }
+
+    @Override
+    protected void reverted(ObgTransition transition) {
+        aggregator[1] = aggregator[1].getParent();
+    }
+
+    @Override
+    protected void save() {
+        if (withBoards && !performedMoves.isEmpty()) {
+            aggregator[1].setBoard(BoardMapper.takeSnapshot(columns));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.github.afloarea.obge.session;
+
+import com.github.afloarea.obge.ObgEngine;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A single game with its own mailbox.
+ * Commands are executed one at a time, in submission order, on the provided executor.
+ * At most one drain task per session is scheduled at any time, so the engine is never accessed concurrently.
+ */
+final class GameSession<E extends ObgEngine> {
+    private static final int MAX_BATCH = 64;
+
+    private final E engine;
+    private final Executor executor;
+    private final Queue<Task> mailbox = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCommands = new AtomicInteger();
+
+    private boolean closed = false; // only accessed from within the mailbox
+
+    GameSession(E engine, Executor executor) {
+        this.engine = engine;
+        this.executor = executor;
+    }
+
+    E engine() {
+        return engine;
+    }
+
+    <R> CompletableFuture<R> submit(Function<? super E, ? extends R> command) {
+        final var result = new CompletableFuture<R>();
+        enqueue(new Task(() -> {
+            if (closed) {
+                result.completeExceptionally(new IllegalStateException("Game session is closed"));
+                return;
+            }
+            try {
+                result.complete(command.apply(engine));
+            } catch (RuntimeException | Error e) {
+                result.completeExceptionally(e);
+            }
+        }, result, false));
+        return result;
+    }
+
+    CompletableFuture<Void> close(Consumer<? super E> engineReleaser) {
+        final var result = new CompletableFuture<Void>();
+        enqueue(new Task(() -> {
+            if (!closed) {
+                closed = true;
+                try {
+                    engineReleaser.accept(engine);
+                } catch (RuntimeException | Error e) {
+                    result.completeExceptionally(e);
+                    return;
+                }
+            }
+            result.complete(null);
+        }, result, true));
+        return result;
+    }
+
+    private void enqueue(Task task) {
+        mailbox.add(task);
+        if (pendingCommands.getAndIncrement() == 0) {
+            schedule();
+        }
+    }
+
+    private void schedule() {
+        try {
+            executor.execute(this::drain);
+        } catch (RuntimeException e) {
+            // nothing will drain the mailbox: fail the queued commands so that the next one schedules again.
+            // Until the count drops to 0 no drain can start, so the closing tasks can safely run here
+            do {
+                final var task = mailbox.poll();
+                if (task.runWhenRejected()) {
+                    task.command().run();
+                } else {
+                    task.result().completeExceptionally(e);
+                }
+            } while (pendingCommands.decrementAndGet() != 0);
+        }
+    }
+
+    private void drain() {
+        int processed = 0;
+        while (true) {
+            mailbox.poll().command().run();
+            if (pendingCommands.decrementAndGet() == 0) {
+                return;
+            }
+            if (++processed == MAX_BATCH) {
+                // give other games a chance to run
+                schedule();
+                return;
+            }
+        }
+    }
+
+    /**
+     * A queued command and the future it completes.
+     * Commands that must not be lost, such as closing the session and releasing its engine,
+     * run on the scheduling thread when the executor rejects the mailbox.
+     */
+    private record Task(Runnable command, CompletableFuture<?> result, boolean runWhenRejected) {
+    }
+}
@@ -0,0 +1,164 @@
+package com.github.afloarea.obge.session;
+
+import com.github.afloarea.obge.ObgEngine;
+import com.github.afloarea.obge.factory.BoardTemplate;
+import com.github.afloarea.obge.factory.ObgEnginePool;
+import com.github.afloarea.obge.factory.ObgEngines;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Owns the engines of many concurrent games.
+ * <p>
+ * Each game has its own mailbox: commands submitted for the same game are executed one at a time,
+ * in submission order, while commands for different games run in parallel on the configured executor.
+ * There is no global lock; the engines themselves never need to be synchronized by the caller.
+ * <p>
+ * Engines are taken from and returned to an {@link ObgEnginePool}.
+ *
+ * @param <K> the type of the game id
+ * @param <E> the engine type
+ */
+public final class ObgSessionManager<K, E extends ObgEngine> {
+
+    private final ConcurrentMap<K, GameSession<E>> sessions = new ConcurrentHashMap<>();
+    private final ObgEnginePool<E> pool;
+    private final Executor executor;
+
+    private ObgSessionManager(Builder<K, E> builder) {
+        pool = ObgEngines.createPool(builder.engineType, builder.template, builder.poolCapacity);
+        executor = builder.executor;
+    }
+
+    /**
+     * Create a builder for a session manager.
+     *
+     * @param engineType the engine type,
+     *                   one of {@link com.github.afloarea.obge.InteractiveObgEngine},
+     *                   {@link com.github.afloarea.obge.TurnBasedObgEngine},
+     *                   {@link com.github.afloarea.obge.MixedModeObgEngine}
+     * @param <K>        the type of the game id
+     * @param <E>        the engine type
+     * @return a new builder
+     */
+    public static <K, E extends ObgEngine> Builder<K, E> builder(Class<E> engineType) {
+        return new Builder<>(engineType);
+    }
+
+    /**
+     * Start a new game.
+     *
+     * @param gameId the id of the game
+     * @throws IllegalArgumentException if a game with the same id is already open
+     */
+    public void open(K gameId) {
+        Objects.requireNonNull(gameId);
+        final var session = new GameSession<>(pool.acquire(), executor);
+        if (sessions.putIfAbsent(gameId, session) != null) {
+            pool.release(session.engine());
+            throw new IllegalArgumentException("Game " + gameId + " is already open");
+        }
+    }
+
+    /**
+     * Submit a command for a game. The command is executed after all the commands previously submitted
+     * for the same game and has exclusive access to the engine while it runs.
+     * The engine must not be used outside the command.
+     *
+     * @param gameId  the id of the game
+     * @param command the command to run against the engine of the game
+     * @param <R>     the type of the result
+     * @return a future completed with the result of the command, or with the exception it threw
+     */
+    public <R> CompletableFuture<R> submit(K gameId, Function<? super E, ? extends R> command) {
+        Objects.requireNonNull(command);
+        final var session = sessions.get(gameId);
+        if (session == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("No open game with id " + gameId));
+        }
+        return session.submit(command);
+    }
+
+    /**
+     * Submit a command with no result for a game.
+     *
+     * @param gameId  the id of the game
+     * @param command the command to run against the engine of the game
+     * @return a future completed once the command is executed
+     * @see #submit(Object, Function)
+     */
+    public CompletableFuture<Void> run(K gameId, Consumer<? super E> command) {
+        Objects.requireNonNull(command);
+        return submit(gameId, engine -> {
+            command.accept(engine);
+            return null;
+        });
+    }
+
+    /**
+     * End a game. Commands already submitted are still executed; commands submitted afterwards fail.
+     * The engine is returned to the pool once the pending commands are done.
+     *
+     * @param gameId the id of the game
+     * @return a future completed once the game is closed
+     */
+    public CompletableFuture<Void> close(K gameId) {
+        final var session = sessions.remove(gameId);
+        if (session == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("No open game with id " + gameId));
+        }
+        return session.close(pool::release);
+    }
+
+    public boolean isOpen(K gameId) {
+        return sessions.containsKey(gameId);
+    }
+
+    public int getOpenGameCount() {
+        return sessions.size();
+    }
+
+    public static final class Builder<K, E extends ObgEngine> {
+        private final Class<E> engineType;
+        private BoardTemplate template = BoardTemplate.getDefault();
+        private Executor executor = ForkJoinPool.commonPool();
+        private int poolCapacity = 1024;
+
+        private Builder(Class<E> engineType) {
+            this.engineType = Objects.requireNonNull(engineType);
+        }
+
+        public Builder<K, E> withTemplate(BoardTemplate template) {
+            this.template = Objects.requireNonNull(template);
+            return this;
+        }
+
+        /**
+         * Set the executor running the game commands.
+         * On runtimes that support it, a virtual thread per task executor is a good fit.
+         *
+         * @param executor the executor
+         * @return this builder
+         */
+        public Builder<K, E> withExecutor(Executor executor) {
+            this.executor = Objects.requireNonNull(executor);
+            return this;
+        }
+
+        public Builder<K, E> withPoolCapacity(int poolCapacity) {
+            this.poolCapacity = poolCapacity;
+            return this;
+        }
+
+        public ObgSessionManager<K, E> build() {
+            return new ObgSessionManager<>(this);
+        }
+    }
+}
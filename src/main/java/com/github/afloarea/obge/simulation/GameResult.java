@@ -0,0 +1,15 @@
+package com.github.afloarea.obge.simulation;
+
+import com.github.afloarea.obge.Direction;
+
+/**
+ * The outcome of a self-play game.
+ *
+ * @param game    the index of the game in its run, starting at 0
+ * @param seed    the seed of the game's dice and policies; the same seed always replays the same game
+ * @param winner  the winning direction or {@link Direction#NONE} if the game is unfinished
+ * @param winType how the game was won
+ * @param turns   the number of turns played, including the ones that could not be played
+ */
+public record GameResult(long game, long seed, Direction winner, WinType winType, int turns) {
+}
@@ -0,0 +1,60 @@
+package com.github.afloarea.obge.simulation;
+
+import com.github.afloarea.obge.Direction;
+import com.github.afloarea.obge.board.BoardSnapshot;
+import com.github.afloarea.obge.dice.DiceRoll;
+import com.github.afloarea.obge.evaluation.PositionEvaluator;
+
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Chooses the board a player ends its turn with. Policies are shared by all the games of a run,
+ * so they must be thread-safe; a policy is deterministic as long as it only draws from the provided generator.
+ */
+@FunctionalInterface
+public interface MovePolicy {
+
+    /**
+     * Choose the board to end the turn with.
+     *
+     * @param board     the board before the turn
+     * @param direction the playing direction
+     * @param roll      the rolled dice
+     * @param choices   the possible boards, never empty, always in the same order for the same board and roll
+     * @param random    the random generator of the game
+     * @return one of the choices
+     */
+    BoardSnapshot choose(BoardSnapshot board, Direction direction, DiceRoll roll,
+                         List<BoardSnapshot> choices, RandomGenerator random);
+
+    /**
+     * A policy choosing uniformly at random between the possible boards.
+     *
+     * @return the policy
+     */
+    static MovePolicy random() {
+        return (board, direction, roll, choices, random) -> choices.get(random.nextInt(choices.size()));
+    }
+
+    /**
+     * A policy choosing the board valued best by an evaluator, the first one in case of a tie.
+     *
+     * @param evaluator the evaluator
+     * @return the policy
+     */
+    static MovePolicy greedy(PositionEvaluator evaluator) {
+        return (board, direction, roll, choices, random) -> {
+            var best = choices.get(0);
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (var choice : choices) {
+                final double value = evaluator.evaluatePlay(choice, direction);
+                if (value > bestValue) {
+                    best = choice;
+                    bestValue = value;
+                }
+            }
+            return best;
+        };
+    }
+}
@@ -0,0 +1,465 @@
+package com.github.afloarea.obge.simulation;
+
+import com.github.afloarea.obge.Direction;
+import com.github.afloarea.obge.board.BoardSnapshot;
+import com.github.afloarea.obge.dice.DiceRoll;
+import com.github.afloarea.obge.dice.DiceSource;
+import com.github.afloarea.obge.evaluation.PositionEvaluator;
+import com.github.afloarea.obge.factory.BoardTemplate;
+import com.github.afloarea.obge.layout.BoardMapper;
+import com.github.afloarea.obge.layout.ColumnSequence;
+import com.github.afloarea.obge.layout.ColumnsFactory;
+import com.github.afloarea.obge.predictors.BestPlayPredictor;
+import com.github.afloarea.obge.predictors.BoardPredictor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import static com.github.afloarea.obge.common.Constants.DICE_ROLLS;
+import static com.github.afloarea.obge.common.Constants.PIECES_PER_PLAYER;
+
+/**
+ * Estimates the equity of a position by playing it to the end many times with a move policy.
+ * <p>
+ * Games are played in batches on a work-stealing pool, each thread on its own columns.
+ * After every batch the estimate is updated, and the rollout stops early once its confidence interval is tight enough.
+ * As with {@link SelfPlayRunner}, every game draws from its own seeded dice, so a rollout is deterministic
+ * whatever the parallelism.
+ * <p>
+ * Two techniques reduce the number of games needed:
+ * <ul>
+ *     <li>quasi-random dice: the first rolls of a game are not drawn but derived from the index of the game,
+ *     so that each block of 36 games rolls each of the 36 outcomes exactly once at each of these turns,
+ *     and every 1296 games play each pair of first rolls exactly once, and so on;</li>
+ *     <li>luck adjustment: given an evaluator, the luck of every roll is measured as the difference between
+ *     the value of the best play of the rolled dice and the average of the same over all the rolls.
+ *     The luck of a roll averages to 0 whatever the evaluator, so subtracting it from the result of the game keeps
+ *     the estimate unbiased, while removing most of the variance the dice bring if the evaluator is good.</li>
+ * </ul>
+ * Luck adjustment evaluates the plays of all the 21 rolls at every adjusted turn, on the columns as the plays are found,
+ * which still makes a game much slower; limiting it to the first turns keeps most of the gain.
+ */
+public final class Rollout {
+    private static final int GAMES_PER_TASK = 4;
+    private static final double Z_95 = 1.959964;
+
+    private final BoardTemplate template;
+    private final MovePolicy policy;
+    private final PositionEvaluator evaluator;
+    private final long seed;
+    private final int parallelism;
+    private final long maxGames;
+    private final long minGames;
+    private final int batchSize;
+    private final double targetHalfWidth;
+    private final int quasiRandomTurns;
+    private final int luckAdjustedTurns;
+    private final int maxTurns;
+
+    private Rollout(Builder builder) {
+        template = builder.template;
+        policy = builder.policy;
+        evaluator = builder.evaluator;
+        seed = builder.seed;
+        parallelism = builder.parallelism;
+        maxGames = builder.maxGames;
+        minGames = builder.minGames;
+        batchSize = builder.batchSize;
+        targetHalfWidth = builder.targetHalfWidth;
+        quasiRandomTurns = builder.quasiRandomTurns;
+        luckAdjustedTurns = evaluator == null ? 0 : builder.luckAdjustedTurns;
+        maxTurns = builder.maxTurns;
+    }
+
+    /**
+     * Build a new rollout.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Roll out a position.
+     *
+     * @param board     the position
+     * @param direction the direction of the player about to roll
+     * @return the estimates, from the point of view of that player
+     * @throws IllegalArgumentException if the direction is invalid or the position already ends the game
+     */
+    public RolloutResult run(BoardSnapshot board, Direction direction) {
+        Objects.requireNonNull(board);
+        if (direction == null || direction == Direction.NONE) {
+            throw new IllegalArgumentException("Invalid direction provided");
+        }
+        if (board.getClockwiseCollected() == PIECES_PER_PLAYER || board.getAnticlockwiseCollected() == PIECES_PER_PLAYER) {
+            throw new IllegalArgumentException("The game is already finished");
+        }
+
+        final var totals = new Totals();
+        final var workers = ThreadLocal.withInitial(Worker::new);
+        final var pool = new ForkJoinPool(parallelism);
+        final long start = System.nanoTime();
+        try {
+            for (long from = 0; from < maxGames; from += batchSize) {
+                final var batch = new Batch(from, (int) Math.min(batchSize, maxGames - from));
+                pool.invoke(new GameRange(board, direction, batch, 0, batch.size(), workers));
+                // summed in the order of the games, so that the estimates do not depend on the scheduling
+                totals.add(batch);
+                if (totals.games >= minGames && totals.halfWidth() <= targetHalfWidth) {
+                    break;
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return totals.toResult(Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private final class Worker {
+        private final ColumnSequence columns = ColumnsFactory.buildStartingSequence(template);
+        private final BoardPredictor predictor = new BoardPredictor();
+        private final BestPlayPredictor bestPlayPredictor = evaluator == null ? null : new BestPlayPredictor(evaluator);
+        private double luck;
+
+        void play(BoardSnapshot root, Direction rootDirection, Batch batch, int slot) {
+            final long game = batch.from() + slot;
+            final var dice = DiceSource.seeded(SelfPlayRunner.seedOf(seed, game));
+            final var choiceRandom = dice.split().getGenerator();
+            BoardMapper.loadSnapshot(columns, root);
+
+            var direction = rootDirection;
+            var board = root;
+            var winner = Direction.NONE;
+            double totalLuck = 0;
+            long stratum = game;
+            int outcome = 0;
+            for (int turn = 0; turn < maxTurns && winner == Direction.NONE; turn++) {
+                final DiceRoll roll;
+                if (turn < quasiRandomTurns) {
+                    // summing the digits, each block of 36 games still rolls every outcome once at every turn
+                    outcome = (int) ((outcome + stratum) % DiceRoll.outcomeCount());
+                    stratum /= DiceRoll.outcomeCount();
+                    roll = DiceRoll.ofOutcome(outcome);
+                } else {
+                    roll = dice.roll();
+                }
+
+                final Set<BoardSnapshot> choices;
+                if (turn < luckAdjustedTurns) {
+                    choices = predictWithLuck(direction, roll);
+                    totalLuck += direction == rootDirection ? luck : -luck;
+                } else {
+                    choices = predictor.predict(columns, roll, direction);
+                }
+
+                if (!choices.isEmpty()) {
+                    final var sortedChoices = new ArrayList<>(choices);
+                    sortedChoices.sort(SelfPlayRunner.BOARD_ORDER);
+                    board = policy.choose(board, direction, roll, sortedChoices, choiceRandom);
+                    BoardMapper.loadSnapshot(columns, board);
+                    if (board.getCollected(direction) == PIECES_PER_PLAYER) {
+                        winner = direction;
+                    }
+                }
+                direction = direction.reverse();
+            }
+
+            final var winType = SelfPlayRunner.winTypeOf(board, winner);
+            final int points = winner == rootDirection ? winType.getPoints() : -winType.getPoints();
+            batch.record(slot, points, points - totalLuck);
+        }
+
+        /**
+         * Value the best play of every roll, predict the plays of the rolled dice
+         * and set the luck of the roll from the point of view of the player.
+         */
+        private Set<BoardSnapshot> predictWithLuck(Direction direction, DiceRoll roll) {
+            double rolledValue = 0;
+            double expectedValue = 0;
+            for (var candidate : DICE_ROLLS) {
+                double value = bestPlayPredictor.predict(columns, candidate, direction);
+                if (Double.isNaN(value)) {
+                    value = -evaluator.evaluate(columns, direction.reverse());
+                }
+                expectedValue += candidate.isDouble() ? value : 2 * value;
+                if (candidate.equals(roll)) {
+                    rolledValue = value;
+                }
+            }
+            luck = rolledValue - expectedValue / DiceRoll.outcomeCount();
+            return predictor.predict(columns, roll, direction);
+        }
+    }
+
+    private record Batch(long from, int[] points, double[] values) {
+
+        Batch(long from, int size) {
+            this(from, new int[size], new double[size]);
+        }
+
+        int size() {
+            return points.length;
+        }
+
+        void record(int slot, int gamePoints, double value) {
+            points[slot] = gamePoints;
+            values[slot] = value;
+        }
+    }
+
+    private final class GameRange extends RecursiveAction {
+        private final BoardSnapshot root;
+        private final Direction direction;
+        private final Batch batch;
+        private final int from;
+        private final int to;
+        private final ThreadLocal<Worker> workers;
+
+        private GameRange(BoardSnapshot root, Direction direction, Batch batch, int from, int to,
+                          ThreadLocal<Worker> workers) {
+            this.root = root;
+            this.direction = direction;
+            this.batch = batch;
+            this.from = from;
+            this.to = to;
+            this.workers = workers;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > GAMES_PER_TASK) {
+                final int middle = (from + to) >>> 1;
+                invokeAll(new GameRange(root, direction, batch, from, middle, workers),
+                        new GameRange(root, direction, batch, middle, to, workers));
+                return;
+            }
+            final var worker = workers.get();
+            for (int slot = from; slot < to; slot++) {
+                worker.play(root, direction, batch, slot);
+            }
+        }
+    }
+
+    private static final class Totals {
+        private long games;
+        private double sum;
+        private double sumOfSquares;
+        // games by signed points: -3 to 3
+        private final long[] outcomes = new long[7];
+
+        void add(Batch batch) {
+            for (int slot = 0; slot < batch.size(); slot++) {
+                final double value = batch.values()[slot];
+                sum += value;
+                sumOfSquares += value * value;
+                outcomes[batch.points()[slot] + 3]++;
+            }
+            games += batch.size();
+        }
+
+        double mean() {
+            return games == 0 ? 0 : sum / games;
+        }
+
+        double standardError() {
+            if (games < 2) {
+                return Double.POSITIVE_INFINITY;
+            }
+            final double mean = mean();
+            final double variance = Math.max(0, (sumOfSquares - games * mean * mean) / (games - 1));
+            return Math.sqrt(variance / games);
+        }
+
+        double halfWidth() {
+            return Z_95 * standardError();
+        }
+
+        RolloutResult toResult(Duration elapsed) {
+            final double count = Math.max(1, games);
+            return new RolloutResult(games, mean(), standardError(), halfWidth(),
+                    (outcomes[4] + outcomes[5] + outcomes[6]) / count,
+                    (outcomes[5] + outcomes[6]) / count,
+                    outcomes[6] / count,
+                    (outcomes[0] + outcomes[1]) / count,
+                    outcomes[0] / count,
+                    outcomes[3] / count,
+                    elapsed);
+        }
+    }
+
+    public static final class Builder {
+        private BoardTemplate template = BoardTemplate.getDefault();
+        private MovePolicy policy = MovePolicy.random();
+        private PositionEvaluator evaluator;
+        private long seed = 0;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private long maxGames = 1296;
+        private long minGames = 324;
+        private int batchSize = 324;
+        private double targetHalfWidth = 0;
+        private int quasiRandomTurns = 2;
+        private int luckAdjustedTurns = Integer.MAX_VALUE;
+        private int maxTurns = 10_000;
+
+        private Builder() {
+        }
+
+        public Builder withTemplate(BoardTemplate template) {
+            this.template = Objects.requireNonNull(template);
+            return this;
+        }
+
+        /**
+         * Set the policy playing both sides. Defaults to {@link MovePolicy#random()}.
+         *
+         * @param policy the policy
+         * @return the builder
+         */
+        public Builder withPolicy(MovePolicy policy) {
+            this.policy = Objects.requireNonNull(policy);
+            return this;
+        }
+
+        /**
+         * Set the evaluator measuring the luck of the rolls. Without one, the results of the games are not adjusted.
+         *
+         * @param evaluator the evaluator or null
+         * @return the builder
+         */
+        public Builder withEvaluator(PositionEvaluator evaluator) {
+            this.evaluator = evaluator;
+            return this;
+        }
+
+        public Builder withSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Set the number of threads playing games. Defaults to the number of available processors.
+         *
+         * @param parallelism the number of threads
+         * @return the builder
+         */
+        public Builder withParallelism(int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("Parallelism must be at least 1");
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Set the number of games after which the rollout stops. Defaults to 1296.
+         *
+         * @param maxGames the maximum number of games
+         * @return the builder
+         */
+        public Builder withMaxGames(long maxGames) {
+            if (maxGames < 1) {
+                throw new IllegalArgumentException("Max games must be at least 1");
+            }
+            this.maxGames = maxGames;
+            return this;
+        }
+
+        /**
+         * Set the number of games played before the rollout may stop early. Defaults to 324.
+         *
+         * @param minGames the minimum number of games
+         * @return the builder
+         */
+        public Builder withMinGames(long minGames) {
+            if (minGames < 2) {
+                throw new IllegalArgumentException("Min games must be at least 2");
+            }
+            this.minGames = minGames;
+            return this;
+        }
+
+        /**
+         * Set the number of games played between two checks of the confidence interval. Defaults to 324.
+         * A multiple of 36 keeps the first rolls of the played games balanced.
+         *
+         * @param batchSize the number of games of a batch
+         * @return the builder
+         */
+        public Builder withBatchSize(int batchSize) {
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("Batch size must be at least 1");
+            }
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Stop the rollout as soon as the half width of the 95% confidence interval of the equity is at most
+         * the given value. Defaults to 0, which plays all the games unless the equity is certain.
+         *
+         * @param targetHalfWidth the target half width, in points
+         * @return the builder
+         */
+        public Builder withTargetHalfWidth(double targetHalfWidth) {
+            if (targetHalfWidth < 0) {
+                throw new IllegalArgumentException("Negative target half width");
+            }
+            this.targetHalfWidth = targetHalfWidth;
+            return this;
+        }
+
+        /**
+         * Set the number of turns of every game played with quasi-random dice. Defaults to 2.
+         *
+         * @param quasiRandomTurns the number of turns, 0 to draw all the dice
+         * @return the builder
+         */
+        public Builder withQuasiRandomTurns(int quasiRandomTurns) {
+            if (quasiRandomTurns < 0) {
+                throw new IllegalArgumentException("Negative number of quasi-random turns");
+            }
+            this.quasiRandomTurns = quasiRandomTurns;
+            return this;
+        }
+
+        /**
+         * Set the number of turns of every game whose luck is measured, if there is an evaluator.
+         * Defaults to all the turns.
+         *
+         * @param luckAdjustedTurns the number of turns
+         * @return the builder
+         */
+        public Builder withLuckAdjustedTurns(int luckAdjustedTurns) {
+            if (luckAdjustedTurns < 0) {
+                throw new IllegalArgumentException("Negative number of luck adjusted turns");
+            }
+            this.luckAdjustedTurns = luckAdjustedTurns;
+            return this;
+        }
+
+        /**
+         * Set the number of turns after which a game is stopped as unfinished, counting as 0 points.
+         * Defaults to 10000.
+         *
+         * @param maxTurns the maximum number of turns
+         * @return the builder
+         */
+        public Builder withMaxTurns(int maxTurns) {
+            if (maxTurns < 1) {
+                throw new IllegalArgumentException("Max turns must be at least 1");
+            }
+            this.maxTurns = maxTurns;
+            return this;
+        }
+
+        public Rollout build() {
+            return new Rollout(this);
+        }
+    }
+}
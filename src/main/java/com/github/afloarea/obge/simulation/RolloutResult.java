@@ -0,0 +1,37 @@
+package com.github.afloarea.obge.simulation;
+
+import java.time.Duration;
+
+/**
+ * The estimates of a rollout, all from the point of view of the player to move in the rolled out position.
+ * Equities are cubeless, in points per game.
+ *
+ * @param games           the number of games played
+ * @param equity          the estimated equity, corrected by the luck of the dice if an evaluator was used
+ * @param standardError   the standard error of the equity
+ * @param halfWidth       the half width of the 95% confidence interval of the equity
+ * @param wins            the rate of games won
+ * @param winGammons      the rate of games won by a gammon or a backgammon
+ * @param winBackgammons  the rate of games won by a backgammon
+ * @param lossGammons     the rate of games lost by a gammon or a backgammon
+ * @param lossBackgammons the rate of games lost by a backgammon
+ * @param unfinished      the rate of games stopped before a player won
+ * @param elapsed         the time taken by the rollout
+ */
+public record RolloutResult(long games, double equity, double standardError, double halfWidth,
+                            double wins, double winGammons, double winBackgammons,
+                            double lossGammons, double lossBackgammons, double unfinished,
+                            Duration elapsed) {
+
+    public double lowerBound() {
+        return equity - halfWidth;
+    }
+
+    public double upperBound() {
+        return equity + halfWidth;
+    }
+
+    public double losses() {
+        return 1 - wins - unfinished;
+    }
+}
@@ -0,0 +1,27 @@
+package com.github.afloarea.obge.simulation;
+
+import java.time.Duration;
+
+/**
+ * The totals of a self-play run.
+ *
+ * @param games             the number of games played
+ * @param clockwiseWins     the games won by the clockwise player
+ * @param anticlockwiseWins the games won by the anticlockwise player
+ * @param gammons           the games won by a gammon
+ * @param backgammons       the games won by a backgammon
+ * @param turns             the number of turns played in all the games
+ * @param elapsed           the time taken by the run
+ */
+public record SelfPlayReport(long games, long clockwiseWins, long anticlockwiseWins,
+                             long gammons, long backgammons, long turns, Duration elapsed) {
+
+    public long unfinishedGames() {
+        return games - clockwiseWins - anticlockwiseWins;
+    }
+
+    public double gamesPerSecond() {
+        final long nanos = Math.max(1, elapsed.toNanos());
+        return games * 1e9 / nanos;
+    }
+}
@@ -0,0 +1,338 @@
+package com.github.afloarea.obge.simulation;
+
+import com.github.afloarea.obge.Direction;
+import com.github.afloarea.obge.TurnBasedObgEngine;
+import com.github.afloarea.obge.board.BoardSnapshot;
+import com.github.afloarea.obge.dice.DiceRoll;
+import com.github.afloarea.obge.dice.DiceSource;
+import com.github.afloarea.obge.factory.BoardTemplate;
+import com.github.afloarea.obge.factory.EngineOptions;
+import com.github.afloarea.obge.factory.ObgEngines;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import static com.github.afloarea.obge.common.Constants.BOARD_COLUMNS;
+import static com.github.afloarea.obge.common.Constants.COLLECT_INDEX;
+import static com.github.afloarea.obge.common.Constants.HOME_START;
+
+/**
+ * Plays complete games between two move policies, on turn based engines.
+ * <p>
+ * Games are split in ranges that are played on a work-stealing pool, each thread reusing its own engine.
+ * Every game draws its dice from its own {@link DiceSource}, seeded from the seed of the run and the index of the game,
+ * and its random choices from a split of that source, so a run is deterministic whatever the parallelism
+ * and the scheduling, and the same seed gives the same dice whatever the policies.
+ */
+public final class SelfPlayRunner {
+    private static final int GAMES_PER_TASK = 16;
+    private static final int ROLLS_PER_BATCH = 64;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    // any total order works, as long as it only depends on the boards
+    static final Comparator<BoardSnapshot> BOARD_ORDER = (first, second) -> {
+        for (int index = 0; index < BOARD_COLUMNS; index++) {
+            final int comparison = Integer.compare(first.getSignedPieceCount(index), second.getSignedPieceCount(index));
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        for (var direction : new Direction[] {Direction.CLOCKWISE, Direction.ANTICLOCKWISE}) {
+            final int suspended = Integer.compare(first.getSuspended(direction), second.getSuspended(direction));
+            if (suspended != 0) {
+                return suspended;
+            }
+            final int collected = Integer.compare(first.getCollected(direction), second.getCollected(direction));
+            if (collected != 0) {
+                return collected;
+            }
+        }
+        return 0;
+    };
+
+    private final BoardTemplate template;
+    private final EngineOptions engineOptions;
+    private final MovePolicy clockwisePolicy;
+    private final MovePolicy anticlockwisePolicy;
+    private final long seed;
+    private final int parallelism;
+    private final int maxTurns;
+
+    private SelfPlayRunner(Builder builder) {
+        template = builder.template;
+        engineOptions = builder.engineOptions;
+        clockwisePolicy = builder.clockwisePolicy;
+        anticlockwisePolicy = builder.anticlockwisePolicy;
+        seed = builder.seed;
+        parallelism = builder.parallelism;
+        maxTurns = builder.maxTurns;
+    }
+
+    /**
+     * Build a new self-play runner.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public SelfPlayReport run(long games) {
+        return run(games, result -> {
+        });
+    }
+
+    /**
+     * Play a number of games.
+     *
+     * @param games the number of games
+     * @param sink  receives the result of every game as soon as it is over. Called concurrently
+     *              from the threads playing the games, in no particular order, so it must be thread-safe
+     * @return the totals of the run
+     */
+    public SelfPlayReport run(long games, Consumer<GameResult> sink) {
+        if (games < 0) {
+            throw new IllegalArgumentException("Negative number of games");
+        }
+        Objects.requireNonNull(sink);
+
+        final var totals = new Totals();
+        final var engines = ThreadLocal.withInitial(
+                () -> ObgEngines.create(TurnBasedObgEngine.class, template, engineOptions));
+        final var pool = new ForkJoinPool(parallelism);
+        final long start = System.nanoTime();
+        try {
+            pool.invoke(new GameRange(0, games, engines, sink, totals));
+        } finally {
+            pool.shutdown();
+        }
+        return totals.toReport(games, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /**
+     * Replay a single game of a run.
+     *
+     * @param game the index of the game
+     * @return the result of the game
+     */
+    public GameResult replay(long game) {
+        return play(ObgEngines.create(TurnBasedObgEngine.class, template, engineOptions), game);
+    }
+
+    private GameResult play(TurnBasedObgEngine engine, long game) {
+        final long gameSeed = seedOf(seed, game);
+        final var dice = DiceSource.seeded(gameSeed);
+        // the choices draw from their own generator, so the dice of a game do not depend on the policies
+        final var choiceRandom = dice.split().getGenerator();
+        final var rolls = new DiceRoll[ROLLS_PER_BATCH];
+        engine.reset();
+
+        // opening roll: each player rolls one die, the higher one starts and plays both
+        int clockwiseDie;
+        int anticlockwiseDie;
+        do {
+            clockwiseDie = dice.die();
+            anticlockwiseDie = dice.die();
+        } while (clockwiseDie == anticlockwiseDie);
+        var direction = clockwiseDie > anticlockwiseDie ? Direction.CLOCKWISE : Direction.ANTICLOCKWISE;
+        var roll = DiceRoll.of(clockwiseDie, anticlockwiseDie);
+
+        int turns = 0;
+        while (!engine.isGameComplete() && turns < maxTurns) {
+            final var board = engine.getCurrentBoard();
+            engine.applyDiceRoll(direction, roll);
+            if (!engine.isCurrentTurnDone()) {
+                final var choices = new ArrayList<>(engine.getBoardChoices());
+                choices.sort(BOARD_ORDER);
+                final var policy = direction == Direction.CLOCKWISE ? clockwisePolicy : anticlockwisePolicy;
+                engine.chooseBoard(direction, policy.choose(board, direction, roll, choices, choiceRandom));
+            }
+            if (turns % ROLLS_PER_BATCH == 0) {
+                dice.fill(rolls);
+            }
+            roll = rolls[turns % ROLLS_PER_BATCH];
+            turns++;
+            direction = direction.reverse();
+        }
+
+        final var winner = engine.getWinningDirection();
+        return new GameResult(game, gameSeed, winner, winTypeOf(engine.getCurrentBoard(), winner), turns);
+    }
+
+    static long seedOf(long seed, long game) {
+        // one SplitMix64 step, so that neighbouring games get unrelated seeds
+        long mixed = seed + (game + 1) * GOLDEN_GAMMA;
+        mixed = (mixed ^ (mixed >>> 30)) * 0xBF58476D1CE4E5B9L;
+        mixed = (mixed ^ (mixed >>> 27)) * 0x94D049BB133111EBL;
+        return mixed ^ (mixed >>> 31);
+    }
+
+    static WinType winTypeOf(BoardSnapshot board, Direction winner) {
+        if (winner == Direction.NONE) {
+            return WinType.UNFINISHED;
+        }
+        final var loser = winner.reverse();
+        if (board.getCollected(loser) > 0) {
+            return WinType.SINGLE;
+        }
+        if (board.getSuspended(loser) > 0) {
+            return WinType.BACKGAMMON;
+        }
+        // the winner's home holds its last columns, which are the first ones in the loser's direction
+        final long loserPiecesInWinnerHome = board.stream(loser)
+                .limit(COLLECT_INDEX - HOME_START)
+                .filter(column -> column.elementsDirection() == loser)
+                .count();
+        return loserPiecesInWinnerHome > 0 ? WinType.BACKGAMMON : WinType.GAMMON;
+    }
+
+    private final class GameRange extends RecursiveAction {
+        private final long from;
+        private final long to;
+        private final ThreadLocal<TurnBasedObgEngine> engines;
+        private final Consumer<GameResult> sink;
+        private final Totals totals;
+
+        private GameRange(long from, long to, ThreadLocal<TurnBasedObgEngine> engines,
+                          Consumer<GameResult> sink, Totals totals) {
+            this.from = from;
+            this.to = to;
+            this.engines = engines;
+            this.sink = sink;
+            this.totals = totals;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > GAMES_PER_TASK) {
+                final long middle = (from + to) >>> 1;
+                invokeAll(new GameRange(from, middle, engines, sink, totals),
+                        new GameRange(middle, to, engines, sink, totals));
+                return;
+            }
+            final var engine = engines.get();
+            for (long game = from; game < to; game++) {
+                final var result = play(engine, game);
+                totals.add(result);
+                sink.accept(result);
+            }
+        }
+    }
+
+    private static final class Totals {
+        private final LongAdder clockwiseWins = new LongAdder();
+        private final LongAdder anticlockwiseWins = new LongAdder();
+        private final LongAdder gammons = new LongAdder();
+        private final LongAdder backgammons = new LongAdder();
+        private final LongAdder turns = new LongAdder();
+
+        void add(GameResult result) {
+            switch (result.winner()) {
+                case CLOCKWISE -> clockwiseWins.increment();
+                case ANTICLOCKWISE -> anticlockwiseWins.increment();
+                case NONE -> {
+                }
+            }
+            switch (result.winType()) {
+                case GAMMON -> gammons.increment();
+                case BACKGAMMON -> backgammons.increment();
+                default -> {
+                }
+            }
+            turns.add(result.turns());
+        }
+
+        SelfPlayReport toReport(long games, Duration elapsed) {
+            return new SelfPlayReport(games, clockwiseWins.sum(), anticlockwiseWins.sum(),
+                    gammons.sum(), backgammons.sum(), turns.sum(), elapsed);
+        }
+    }
+
+    public static final class Builder {
+        private BoardTemplate template = BoardTemplate.getDefault();
+        private EngineOptions engineOptions = EngineOptions.getDefault();
+        private MovePolicy clockwisePolicy = MovePolicy.random();
+        private MovePolicy anticlockwisePolicy = MovePolicy.random();
+        private long seed = 0;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private int maxTurns = 10_000;
+
+        private Builder() {
+        }
+
+        public Builder withTemplate(BoardTemplate template) {
+            this.template = Objects.requireNonNull(template);
+            return this;
+        }
+
+        public Builder withEngineOptions(EngineOptions engineOptions) {
+            this.engineOptions = Objects.requireNonNull(engineOptions);
+            return this;
+        }
+
+        /**
+         * Set the policy of the player moving clockwise. Defaults to {@link MovePolicy#random()}.
+         *
+         * @param clockwisePolicy the policy
+         * @return the builder
+         */
+        public Builder withClockwisePolicy(MovePolicy clockwisePolicy) {
+            this.clockwisePolicy = Objects.requireNonNull(clockwisePolicy);
+            return this;
+        }
+
+        /**
+         * Set the policy of the player moving anticlockwise. Defaults to {@link MovePolicy#random()}.
+         *
+         * @param anticlockwisePolicy the policy
+         * @return the builder
+         */
+        public Builder withAnticlockwisePolicy(MovePolicy anticlockwisePolicy) {
+            this.anticlockwisePolicy = Objects.requireNonNull(anticlockwisePolicy);
+            return this;
+        }
+
+        public Builder withSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Set the number of threads playing games. Defaults to the number of available processors.
+         *
+         * @param parallelism the number of threads
+         * @return the builder
+         */
+        public Builder withParallelism(int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("Parallelism must be at least 1");
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Set the number of turns after which a game is stopped as unfinished. Defaults to 10000.
+         *
+         * @param maxTurns the maximum number of turns
+         * @return the builder
+         */
+        public Builder withMaxTurns(int maxTurns) {
+            if (maxTurns < 1) {
+                throw new IllegalArgumentException("Max turns must be at least 1");
+            }
+            this.maxTurns = maxTurns;
+            return this;
+        }
+
+        public SelfPlayRunner build() {
+            return new SelfPlayRunner(this);
+        }
+    }
+}
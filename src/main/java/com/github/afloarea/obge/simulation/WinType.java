@@ -0,0 +1,33 @@
+package com.github.afloarea.obge.simulation;
+
+/**
+ * How a game was won.
+ */
+public enum WinType {
+    /**
+     * The loser collected at least one piece.
+     */
+    SINGLE(1),
+    /**
+     * The loser collected no piece.
+     */
+    GAMMON(2),
+    /**
+     * The loser collected no piece and still has pieces suspended or in the winner's home.
+     */
+    BACKGAMMON(3),
+    /**
+     * The game was stopped before a player won.
+     */
+    UNFINISHED(0);
+
+    private final int points;
+
+    WinType(int points) {
+        this.points = points;
+    }
+
+    public int getPoints() {
+        return points;
+    }
+}
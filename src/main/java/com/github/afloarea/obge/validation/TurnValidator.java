@@ -0,0 +1,104 @@
+package com.github.afloarea.obge.validation;
+
+import com.github.afloarea.obge.Direction;
+import com.github.afloarea.obge.board.BoardSnapshot;
+import com.github.afloarea.obge.dice.DiceRoll;
+import com.github.afloarea.obge.exceptions.IllegalObgActionException;
+import com.github.afloarea.obge.factory.BoardTemplate;
+import com.github.afloarea.obge.layout.BoardMapper;
+import com.github.afloarea.obge.layout.ColumnSequence;
+import com.github.afloarea.obge.layout.ColumnsFactory;
+import com.github.afloarea.obge.moves.ObgTransition;
+import com.github.afloarea.obge.predictors.MoveRules;
+import com.github.afloarea.obge.predictors.PlayLengthPredictor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Validates a whole turn, submitted as a list of transitions, without predicting every possible sequence.
+ * <p>
+ * The transitions are simulated one by one. When they do not use all the dice, a search bounded by the number
+ * of dice checks that no longer sequence exists, as the players must use as many dice as possible.
+ * <p>
+ * A validator reuses its columns between validations, so it must not be shared by multiple threads.
+ */
+public final class TurnValidator {
+
+    private final ColumnSequence columns;
+    private final PlayLengthPredictor playLengthPredictor = new PlayLengthPredictor();
+
+    /**
+     * Create a validator for boards using a template.
+     *
+     * @param template the board template
+     */
+    public TurnValidator(BoardTemplate template) {
+        columns = ColumnsFactory.buildStartingSequence(template);
+    }
+
+    /**
+     * Create a validator for boards using the default template.
+     */
+    public TurnValidator() {
+        this(BoardTemplate.getDefault());
+    }
+
+    /**
+     * Check if a turn is legal.
+     *
+     * @param board       the board at the start of the turn
+     * @param dice        the rolled dice
+     * @param direction   the playing direction
+     * @param transitions the transitions played during the turn
+     * @return true if the turn is legal
+     */
+    public boolean isLegal(BoardSnapshot board, DiceRoll dice, Direction direction, List<ObgTransition> transitions) {
+        try {
+            validate(board, dice, direction, transitions);
+            return true;
+        } catch (IllegalObgActionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Validate a turn.
+     *
+     * @param board       the board at the start of the turn
+     * @param dice        the rolled dice
+     * @param direction   the playing direction
+     * @param transitions the transitions played during the turn
+     * @return the board at the end of the turn
+     * @throws IllegalObgActionException if the turn is not legal
+     */
+    public BoardSnapshot validate(BoardSnapshot board, DiceRoll dice, Direction direction,
+                                  List<ObgTransition> transitions) {
+        if (direction == null || direction == Direction.NONE) {
+            throw new IllegalObgActionException("Invalid direction provided");
+        }
+        BoardMapper.loadSnapshot(columns, board);
+
+        final var availableDice = new ArrayList<Integer>(4);
+        dice.stream().forEach(availableDice::add);
+        if (transitions.size() > availableDice.size()) {
+            throw new IllegalObgActionException("Too many moves provided");
+        }
+        if (transitions.size() < availableDice.size()
+                && playLengthPredictor.predict(columns, dice, direction) > transitions.size()) {
+            throw new IllegalObgActionException("More dice can be used");
+        }
+
+        for (var transition : transitions) {
+            if (!availableDice.remove(Integer.valueOf(transition.usedDie()))) {
+                throw new IllegalObgActionException("Die " + transition.usedDie() + " is not available");
+            }
+            if (!MoveRules.isLegal(columns, direction, transition)) {
+                throw new IllegalObgActionException("Invalid move provided " + transition);
+            }
+            MoveRules.apply(columns, direction, transition);
+        }
+
+        return BoardMapper.takeSnapshot(columns);
+    }
+}
@@ -1,9 +1,18 @@
 module com.github.afloarea.obge {
+    requires jdk.jfr;
+    requires jdk.management;
+
     exports com.github.afloarea.obge;
     exports com.github.afloarea.obge.exceptions;
     exports com.github.afloarea.obge.board;
     exports com.github.afloarea.obge.factory;
     exports com.github.afloarea.obge.moves;
     exports com.github.afloarea.obge.dice;
+    exports com.github.afloarea.obge.session;
+    exports com.github.afloarea.obge.perft;
+    exports com.github.afloarea.obge.validation;
+    exports com.github.afloarea.obge.metrics;
+    exports com.github.afloarea.obge.simulation;
+    exports com.github.afloarea.obge.evaluation;
 //    exports com.github.afloarea.obge.expander; // experimental
 }
\ No newline at end of file
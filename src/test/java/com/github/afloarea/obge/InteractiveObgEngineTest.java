@@ -4,6 +4,8 @@ import com.github.afloarea.obge.dice.DiceRoll;
 import com.github.afloarea.obge.dice.DiceValues;
 import com.github.afloarea.obge.engines.HybridObgEngine;
 import com.github.afloarea.obge.engines.InteractiveTurnSlicingObgEngine;
+import com.github.afloarea.obge.engines.SnapshotPublishingObgEngine;
+import com.github.afloarea.obge.exceptions.IllegalObgActionException;
 import com.github.afloarea.obge.moves.ObgMove;
 import com.github.afloarea.obge.utils.EngineUtils;
 import org.junit.jupiter.api.Assertions;
@@ -15,12 +17,16 @@ import java.util.Set;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class InteractiveObgEngineTest {
 
     private static Stream<Arguments> interactiveEngines() {
-        return Stream.of(Arguments.of(InteractiveTurnSlicingObgEngine.class), Arguments.of(HybridObgEngine.class));
+        return Stream.of(Arguments.of(InteractiveTurnSlicingObgEngine.class), Arguments.of(HybridObgEngine.class),
+                Arguments.of(SnapshotPublishingObgEngine.class));
     }
 
     @ParameterizedTest
@@ -367,4 +373,64 @@ class InteractiveObgEngineTest {
         assertEquals(6, transitions.get(0).usedDie());
     }
 
+    @ParameterizedTest
+    @MethodSource("interactiveEngines")
+    void testForkKeepsPendingMoves(Class<? extends InteractiveObgEngine> type) {
+        final var engine = EngineUtils.buildDefault(type);
+        engine.applyDiceRoll(Direction.CLOCKWISE, DiceRoll.of(2, 1));
+        engine.execute(Direction.CLOCKWISE, "A", "B");
+
+        final var fork = engine.fork();
+        assertEquals(Direction.CLOCKWISE, fork.getCurrentTurnDirection());
+        assertEquals(engine.getPossibleMoves(), fork.getPossibleMoves());
+
+        fork.execute(Direction.CLOCKWISE, "A", "C");
+        assertTrue(fork.isCurrentTurnDone());
+        assertFalse(engine.isCurrentTurnDone());
+
+        engine.execute(Direction.CLOCKWISE, "B", "D");
+        assertTrue(engine.isCurrentTurnDone());
+    }
+
+    @ParameterizedTest
+    @MethodSource("interactiveEngines")
+    void testUndoAndRedoSuspendingMove(Class<? extends InteractiveObgEngine> type) {
+        final var engine = EngineUtils.buildDefault(type, new int[][] {
+                new int[]{ 2, 0, 0, 0, -1, -4,      0, -3, 0, 0, -1,  5},
+                new int[]{-2, 0, 0, 0,  0,  5,      0,  3, 0, 0,  0, -4}
+        });
+        engine.applyDiceRoll(Direction.CLOCKWISE, DiceRoll.of(4, 1));
+        final var initialMoves = engine.getPossibleMoves();
+
+        final var executed = engine.execute(Direction.CLOCKWISE, "A", "E");
+        final var movesAfterExecute = engine.getPossibleMoves();
+
+        assertEquals(executed, engine.undo(Direction.CLOCKWISE));
+        assertEquals(initialMoves, engine.getPossibleMoves());
+
+        assertEquals(executed, engine.redo(Direction.CLOCKWISE));
+        assertEquals(movesAfterExecute, engine.getPossibleMoves());
+
+        engine.undo(Direction.CLOCKWISE);
+        engine.execute(Direction.CLOCKWISE, "A", "B");
+        assertThrows(IllegalObgActionException.class, () -> engine.redo(Direction.CLOCKWISE));
+    }
+
+    @ParameterizedTest
+    @MethodSource("interactiveEngines")
+    void testPossibleMovesBySource(Class<? extends InteractiveObgEngine> type) {
+        final var engine = EngineUtils.buildDefault(type);
+        engine.applyDiceRoll(Direction.CLOCKWISE, DiceRoll.of(2, 1));
+
+        assertEquals(Set.of(
+                ObgMove.of("A", "B", DiceValues.of(1)),
+                ObgMove.of("A", "C", DiceValues.of(2)),
+                ObgMove.of("A", "D", DiceValues.of(1, 2)),
+                ObgMove.of("A", "D", DiceValues.of(2, 1))), engine.getPossibleMoves("A"));
+        assertTrue(engine.getPossibleMoves("B").isEmpty());
+        assertSame(engine.getPossibleMoves(), engine.getPossibleMoves());
+
+        engine.execute(Direction.CLOCKWISE, "A", "B");
+        assertEquals(Set.of(ObgMove.of("B", "D", DiceValues.of(2))), engine.getPossibleMoves("B"));
+    }
 }
@@ -1,13 +1,34 @@
 package com.github.afloarea.obge;
 
 import com.github.afloarea.obge.dice.DiceRoll;
+import com.github.afloarea.obge.dice.DiceSource;
+import com.github.afloarea.obge.board.ColumnSnapshot;
+import com.github.afloarea.obge.common.Constants;
 import com.github.afloarea.obge.engines.HybridObgEngine;
+import com.github.afloarea.obge.engines.SnapshotPublishingObgEngine;
+import com.github.afloarea.obge.exceptions.IllegalObgActionException;
+import com.github.afloarea.obge.factory.BoardTemplate;
+import com.github.afloarea.obge.factory.EngineOptions;
+import com.github.afloarea.obge.factory.ObgEngines;
 import com.github.afloarea.obge.layout.ColumnsFactory;
+import com.github.afloarea.obge.metrics.HistogramMetricsListener;
+import com.github.afloarea.obge.metrics.ObgCache;
+import com.github.afloarea.obge.moves.ObgMove;
 import com.github.afloarea.obge.moves.ObgTransition;
 import com.github.afloarea.obge.utils.EngineUtils;
 import org.junit.jupiter.api.Test;
 
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class MixedModeObgEngineTest {
@@ -28,4 +49,188 @@ class MixedModeObgEngineTest {
         assertTrue(transitions.contains(new ObgTransition("A", "B", 1, null)));
     }
 
+    @Test
+    void testUndoRestoresBoard() {
+        final var engine = EngineUtils.buildDefault(HybridObgEngine.class, new int[][] {
+                new int[]{ 2, 0, 0, 0, -1, -4,      0, -3, 0, 0, -1,  5},
+                new int[]{-2, 0, 0, 0,  0,  5,      0,  3, 0, 0,  0, -4}
+        });
+        engine.applyDiceRoll(Direction.CLOCKWISE, DiceRoll.of(4, 1));
+        final var initialBoard = engine.getCurrentBoard();
+        final var initialChoices = engine.getBoardChoices();
+
+        engine.execute(Direction.CLOCKWISE, "A", "E");
+        engine.execute(Direction.CLOCKWISE, "A", "B");
+        assertTrue(engine.isCurrentTurnDone());
+
+        engine.undo(Direction.CLOCKWISE);
+        engine.undo(Direction.CLOCKWISE);
+        assertEquals(initialBoard, engine.getCurrentBoard());
+        assertEquals(initialChoices, engine.getBoardChoices());
+    }
+
+    @Test
+    void testCompactPredictionsBehaveLikeFullOnes() {
+        final var random = new Random(42);
+        final var full = new HybridObgEngine(ColumnsFactory.buildStartingSequence(), false, null);
+        final var compact = new HybridObgEngine(ColumnsFactory.buildStartingSequence(), true, null);
+
+        var direction = Direction.CLOCKWISE;
+        for (int turn = 0; turn < 100 && !full.isGameComplete(); turn++) {
+            final var roll = DiceRoll.of(random.nextInt(6) + 1, random.nextInt(6) + 1);
+            full.applyDiceRoll(direction, roll);
+            compact.applyDiceRoll(direction, roll);
+            assertEquals(full.getBoardChoices(), compact.getBoardChoices());
+
+            while (!full.isCurrentTurnDone()) {
+                assertEquals(full.getPossibleMoves(), compact.getPossibleMoves());
+                final var moves = sorted(full.getPossibleMoves());
+                final var move = moves.get(random.nextInt(moves.size()));
+                assertEquals(full.execute(direction, move.source(), move.target()),
+                        compact.execute(direction, move.source(), move.target()));
+                assertEquals(full.getBoardChoices(), compact.getBoardChoices());
+            }
+            assertTrue(compact.isCurrentTurnDone());
+            assertEquals(full.getCurrentBoard(), compact.getCurrentBoard());
+            direction = direction.reverse();
+        }
+    }
+
+    @Test
+    void testBoardChoicesFollowExecuteUndoAndRedo() {
+        for (boolean compactPredictions : new boolean[] {false, true}) {
+            final var engine = new HybridObgEngine(ColumnsFactory.buildStartingSequence(), compactPredictions, null);
+            engine.applyDiceRoll(Direction.CLOCKWISE, DiceRoll.of(3, 3));
+            final var initialChoices = Set.copyOf(engine.getBoardChoices());
+
+            final var move = sorted(engine.getPossibleMoves()).get(0);
+            engine.execute(Direction.CLOCKWISE, move.source(), move.target());
+            final var narrowedChoices = Set.copyOf(engine.getBoardChoices());
+            assertTrue(initialChoices.containsAll(narrowedChoices));
+            assertTrue(narrowedChoices.size() < initialChoices.size());
+
+            engine.undo(Direction.CLOCKWISE);
+            assertEquals(initialChoices, engine.getBoardChoices());
+            engine.redo(Direction.CLOCKWISE);
+            assertEquals(narrowedChoices, engine.getBoardChoices());
+
+            // every remaining choice can still be reached from the narrowed state
+            for (var board : narrowedChoices) {
+                final var fork = engine.fork();
+                fork.transitionTo(Direction.CLOCKWISE, board);
+                assertEquals(board, fork.getCurrentBoard());
+                assertEquals(board, engine.fork().chooseBoard(Direction.CLOCKWISE, board));
+            }
+            final var outsider = initialChoices.stream().filter(board -> !narrowedChoices.contains(board)).findFirst();
+            assertTrue(outsider.isPresent());
+            assertThrows(IllegalObgActionException.class, () -> engine.chooseBoard(Direction.CLOCKWISE, outsider.get()));
+        }
+    }
+
+    @Test
+    void testSpeculativePredictionsAreUsedForTheNextTurn() {
+        final var random = new Random(11);
+        final var metrics = new HistogramMetricsListener();
+        // runs the predictions right away, so they are all done before the next roll
+        final Executor executor = Runnable::run;
+        final var plain = new HybridObgEngine(ColumnsFactory.buildStartingSequence(), false, null);
+        final var speculative = new HybridObgEngine(ColumnsFactory.buildStartingSequence(), false, executor);
+        speculative.setMetricsListener(metrics);
+
+        var direction = Direction.CLOCKWISE;
+        int rolls = 0;
+        for (int turn = 0; turn < 50 && !plain.isGameComplete(); turn++) {
+            final var roll = DiceRoll.of(random.nextInt(6) + 1, random.nextInt(6) + 1);
+            plain.applyDiceRoll(direction, roll);
+            speculative.applyDiceRoll(direction, roll);
+            rolls++;
+            assertEquals(plain.getBoardChoices(), speculative.getBoardChoices());
+
+            while (!plain.isCurrentTurnDone()) {
+                assertEquals(plain.getPossibleMoves(), speculative.getPossibleMoves());
+                final var moves = sorted(plain.getPossibleMoves());
+                final var move = moves.get(random.nextInt(moves.size()));
+                plain.execute(direction, move.source(), move.target());
+                speculative.execute(direction, move.source(), move.target());
+            }
+            direction = direction.reverse();
+        }
+        // only the first roll had nothing predicted in advance
+        assertEquals(rolls - 1, metrics.getCacheHits(ObgCache.SPECULATIVE_PREDICTIONS));
+        assertEquals(0, metrics.getCacheMisses(ObgCache.SPECULATIVE_PREDICTIONS));
+    }
+
+    @Test
+    void testSpeculativePredictionsFollowARollWithoutPlay() {
+        final var metrics = new HistogramMetricsListener();
+        final var engine = new HybridObgEngine(ColumnsFactory.buildColumnSequence(new int[][] {
+                { 15, -2, -2, -2, -2, -2,    -2, 0, 0, 0, 0, 0},
+                { -3,  0,  0,  0,  0,  0,     0, 0, 0, 0, 0, 0}
+        }), false, Runnable::run);
+        engine.setMetricsListener(metrics);
+
+        engine.applyDiceRoll(Direction.CLOCKWISE, DiceRoll.of(6, 5));
+        assertTrue(engine.isCurrentTurnDone());
+        engine.applyDiceRoll(Direction.ANTICLOCKWISE, DiceRoll.of(2, 1));
+
+        assertEquals(1, metrics.getCacheHits(ObgCache.SPECULATIVE_PREDICTIONS));
+        assertEquals(0, metrics.getCacheMisses(ObgCache.SPECULATIVE_PREDICTIONS));
+    }
+
+    @Test
+    void testConcurrentReadersSeeConsistentBoards() throws InterruptedException {
+        final var engine = EngineUtils.buildDefault(SnapshotPublishingObgEngine.class);
+        final var inconsistentReads = new AtomicInteger();
+        final var done = new AtomicBoolean(false);
+
+        final var reader = new Thread(() -> {
+            while (!done.get()) {
+                // the moves and choices are derived by the readers, while the engine keeps moving
+                engine.getPossibleMoves();
+                engine.getBoardChoices();
+                final var board = engine.getCurrentBoard();
+                final int clockwisePieces = board.stream(Direction.CLOCKWISE)
+                        .filter(column -> column.elementsDirection() == Direction.CLOCKWISE)
+                        .mapToInt(ColumnSnapshot::pieceCount)
+                        .sum() + board.getClockwiseSuspended() + board.getClockwiseCollected();
+                if (clockwisePieces != Constants.PIECES_PER_PLAYER) {
+                    inconsistentReads.incrementAndGet();
+                }
+            }
+        });
+        reader.start();
+
+        final var dice = DiceSource.seeded(42);
+        var direction = Direction.CLOCKWISE;
+        for (int turn = 0; turn < 200 && !engine.isGameComplete(); turn++) {
+            engine.applyDiceRoll(direction, dice.roll());
+            while (!engine.isCurrentTurnDone()) {
+                final var move = sorted(engine.getPossibleMoves()).get(0);
+                engine.execute(direction, move.source(), move.target());
+            }
+            direction = direction.reverse();
+        }
+        done.set(true);
+        reader.join();
+
+        assertEquals(0, inconsistentReads.get());
+    }
+
+    @Test
+    void testConcurrentEngineUsesTheOptionsAndDerivesMovesOnce() {
+        final var metrics = new HistogramMetricsListener();
+        final var engine = ObgEngines.createConcurrent(MixedModeObgEngine.class, BoardTemplate.getDefault(),
+                EngineOptions.builder().withMetricsListener(metrics).build());
+        engine.applyDiceRoll(Direction.CLOCKWISE, DiceRoll.of(6, 5));
+
+        final var moves = engine.getPossibleMoves();
+        assertSame(moves, engine.getPossibleMoves());
+        assertEquals(1, metrics.getCacheMisses(ObgCache.POSSIBLE_MOVES));
+        assertEquals(0, metrics.getCacheHits(ObgCache.POSSIBLE_MOVES));
+    }
+
+    private static List<ObgMove> sorted(Set<ObgMove> moves) {
+        // the iteration order of the sets changes between runs
+        return moves.stream().sorted(Comparator.comparing(ObgMove::toString)).toList();
+    }
 }
@@ -3,12 +3,17 @@ package com.github.afloarea.obge;
 import com.github.afloarea.obge.dice.DiceRoll;
 import com.github.afloarea.obge.engines.BoardStatePredictingObgEngine;
 import com.github.afloarea.obge.engines.HybridObgEngine;
+import com.github.afloarea.obge.engines.SnapshotPublishingObgEngine;
+import com.github.afloarea.obge.exceptions.IllegalObgActionException;
 import com.github.afloarea.obge.layout.ColumnsFactory;
 import com.github.afloarea.obge.utils.EngineUtils;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
 import java.util.stream.Stream;
 
@@ -17,7 +22,8 @@ import static org.junit.jupiter.api.Assertions.*;
 class TurnBasedObgEngineTest {
 
     private static Stream<Arguments> turnBased() {
-        return Stream.of(Arguments.of(BoardStatePredictingObgEngine.class), Arguments.of(HybridObgEngine.class));
+        return Stream.of(Arguments.of(BoardStatePredictingObgEngine.class), Arguments.of(HybridObgEngine.class),
+                Arguments.of(SnapshotPublishingObgEngine.class));
     }
 
     @ParameterizedTest
@@ -384,4 +390,63 @@ class TurnBasedObgEngineTest {
         assertEquals(Set.of(firstChoice, secondChoice), engine.getBoardChoices());
     }
 
+    @ParameterizedTest
+    @MethodSource("turnBased")
+    void testForkIsIndependent(Class<? extends TurnBasedObgEngine> type) {
+        final var engine = EngineUtils.buildDefault(type);
+        engine.applyDiceRoll(Direction.CLOCKWISE, DiceRoll.of(2, 1));
+        final var startingBoard = engine.getCurrentBoard();
+
+        final var fork = engine.fork();
+        assertEquals(engine.getBoardChoices(), fork.getBoardChoices());
+
+        final var desiredBoard = ColumnsFactory.buildBoardSnapshot(new int[][]{
+                { 0, 1, 1, 0, 0, -5,    0, -3, 0, 0, 0,  5},
+                {-2, 0, 0, 0, 0,  5,    0,  3, 0, 0, 0, -5}
+        });
+        fork.chooseBoard(Direction.CLOCKWISE, desiredBoard);
+
+        assertEquals(desiredBoard, fork.getCurrentBoard());
+        assertTrue(fork.isCurrentTurnDone());
+        assertEquals(startingBoard, engine.getCurrentBoard());
+        assertFalse(engine.isCurrentTurnDone());
+    }
+
+    @Test
+    void testLazyPredictionAcceptsExactlyThePredictedBoards() {
+        final var random = new Random(7);
+        final var eager = new BoardStatePredictingObgEngine(ColumnsFactory.buildStartingSequence(), false, null);
+        final var lazy = new BoardStatePredictingObgEngine(ColumnsFactory.buildStartingSequence(), true, null);
+
+        var direction = Direction.CLOCKWISE;
+        for (int turn = 0; turn < 60 && !eager.isGameComplete(); turn++) {
+            final var roll = DiceRoll.of(random.nextInt(6) + 1, random.nextInt(6) + 1);
+            final var otherRoll = DiceRoll.of(roll.dice1() % 6 + 1, roll.dice2());
+
+            final var otherChoices = eager.fork();
+            otherChoices.applyDiceRoll(direction, otherRoll);
+            eager.applyDiceRoll(direction, roll);
+            lazy.applyDiceRoll(direction, roll);
+            assertEquals(eager.isCurrentTurnDone(), lazy.isCurrentTurnDone());
+
+            for (var board : eager.getBoardChoices()) {
+                assertEquals(board, lazy.fork().chooseBoard(direction, board));
+            }
+            for (var board : otherChoices.getBoardChoices()) {
+                if (!eager.getBoardChoices().contains(board)) {
+                    final var playingDirection = direction;
+                    assertThrows(IllegalObgActionException.class, () -> lazy.fork().chooseBoard(playingDirection, board));
+                }
+            }
+
+            if (!eager.isCurrentTurnDone()) {
+                final var choices = List.copyOf(eager.getBoardChoices());
+                final var board = choices.get(random.nextInt(choices.size()));
+                eager.chooseBoard(direction, board);
+                lazy.chooseBoard(direction, board);
+            }
+            assertTrue(lazy.isCurrentTurnDone());
+            direction = direction.reverse();
+        }
+    }
 }
@@ -0,0 +1,136 @@
+package com.github.afloarea.obge.board;
+
+import com.github.afloarea.obge.Direction;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static com.github.afloarea.obge.common.Constants.BOARD_COLUMNS;
+import static com.github.afloarea.obge.common.Constants.PIECES_PER_PLAYER;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardSnapshotTest {
+
+    @Test
+    void columnsRoundTripThroughThePackedLayout() {
+        // every signed count from -15 to 15, and the extremes in both words
+        final var columns = new ColumnSnapshot[BOARD_COLUMNS];
+        for (int index = 0; index < BOARD_COLUMNS; index++) {
+            columns[index] = ColumnSnapshot.ofSigned(index - PIECES_PER_PLAYER + 4);
+        }
+        columns[0] = ColumnSnapshot.of(PIECES_PER_PLAYER, Direction.ANTICLOCKWISE);
+        columns[11] = ColumnSnapshot.of(PIECES_PER_PLAYER, Direction.CLOCKWISE);
+        columns[12] = ColumnSnapshot.of(PIECES_PER_PLAYER, Direction.ANTICLOCKWISE);
+        columns[23] = ColumnSnapshot.of(PIECES_PER_PLAYER, Direction.CLOCKWISE);
+        final var board = BoardSnapshot.builder().withColumns(columns).build();
+
+        for (int index = 0; index < BOARD_COLUMNS; index++) {
+            assertSame(columns[index], board.getColumn(index));
+            assertEquals(columns[index].signedPieceCount(), board.getSignedPieceCount(index));
+        }
+        assertArrayEquals(columns, board.stream(Direction.CLOCKWISE).toArray());
+        assertThrows(IndexOutOfBoundsException.class, () -> board.getSignedPieceCount(BOARD_COLUMNS));
+    }
+
+    @Test
+    void emptyColumnsHaveNoDirection() {
+        final var board = BoardSnapshot.builder().withColumns(emptyColumns()).build();
+
+        for (int index = 0; index < BOARD_COLUMNS; index++) {
+            assertSame(ColumnSnapshot.EMPTY, board.getColumn(index));
+            assertEquals(0, board.getSignedPieceCount(index));
+        }
+    }
+
+    @Test
+    void countersRoundTripAtTheirBounds() {
+        for (int count : new int[] {0, PIECES_PER_PLAYER}) {
+            final var board = BoardSnapshot.builder().withColumns(emptyColumns())
+                    .withClockwiseCollected(count)
+                    .withAnticlockwiseCollected(count)
+                    .withClockwiseSuspended(count)
+                    .withAnticlockwiseSuspended(count)
+                    .build();
+
+            assertEquals(count, board.getClockwiseCollected());
+            assertEquals(count, board.getAnticlockwiseCollected());
+            assertEquals(count, board.getClockwiseSuspended());
+            assertEquals(count, board.getAnticlockwiseSuspended());
+        }
+
+        // each counter is packed on its own
+        final var board = BoardSnapshot.builder().withColumns(emptyColumns())
+                .withClockwiseCollected(1)
+                .withAnticlockwiseCollected(2)
+                .withClockwiseSuspended(3)
+                .withAnticlockwiseSuspended(PIECES_PER_PLAYER)
+                .build();
+        assertEquals(1, board.getCollected(Direction.CLOCKWISE));
+        assertEquals(2, board.getCollected(Direction.ANTICLOCKWISE));
+        assertEquals(3, board.getSuspended(Direction.CLOCKWISE));
+        assertEquals(PIECES_PER_PLAYER, board.getSuspended(Direction.ANTICLOCKWISE));
+    }
+
+    @Test
+    void equalBoardsBuiltSeparatelyAreEqual() {
+        final var columns = emptyColumns();
+        columns[5] = ColumnSnapshot.of(5, Direction.ANTICLOCKWISE);
+        columns[18] = ColumnSnapshot.of(3, Direction.CLOCKWISE);
+        final var first = BoardSnapshot.builder().withColumns(columns).withClockwiseCollected(12)
+                .withAnticlockwiseSuspended(10).build();
+        final var second = BoardSnapshot.builder().withColumns(columns.clone()).withClockwiseCollected(12)
+                .withAnticlockwiseSuspended(10).build();
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+
+        // the same pieces moving the other way, or counted elsewhere, make a different board
+        final var reversed = columns.clone();
+        reversed[18] = ColumnSnapshot.of(3, Direction.ANTICLOCKWISE);
+        assertNotEquals(first, BoardSnapshot.builder().withColumns(reversed).withClockwiseCollected(12)
+                .withAnticlockwiseSuspended(10).build());
+        assertNotEquals(first, BoardSnapshot.builder().withColumns(columns).withClockwiseCollected(10)
+                .withAnticlockwiseSuspended(12).build());
+    }
+
+    @Test
+    void outOfRangeCountsAreRejected() {
+        final var tooMany = emptyColumns();
+        tooMany[3] = new ColumnSnapshot(PIECES_PER_PLAYER + 1, Direction.CLOCKWISE);
+        final var negative = emptyColumns();
+        negative[20] = new ColumnSnapshot(-1, Direction.ANTICLOCKWISE);
+
+        assertThrows(IllegalArgumentException.class, () -> BoardSnapshot.builder().withColumns(tooMany).build());
+        assertThrows(IllegalArgumentException.class, () -> BoardSnapshot.builder().withColumns(negative).build());
+        assertThrows(IllegalArgumentException.class, () -> BoardSnapshot.builder()
+                .withColumns(Arrays.copyOf(emptyColumns(), BOARD_COLUMNS - 1)).build());
+        assertThrows(IllegalArgumentException.class, () -> BoardSnapshot.builder().withColumns(emptyColumns())
+                .withClockwiseCollected(PIECES_PER_PLAYER + 1).build());
+        assertThrows(IllegalArgumentException.class, () -> BoardSnapshot.builder().withColumns(emptyColumns())
+                .withAnticlockwiseSuspended(-1).build());
+
+        assertThrows(IllegalArgumentException.class, () -> ColumnSnapshot.of(PIECES_PER_PLAYER + 1, Direction.CLOCKWISE));
+        assertThrows(IllegalArgumentException.class, () -> ColumnSnapshot.ofSigned(-PIECES_PER_PLAYER - 1));
+        assertThrows(IllegalArgumentException.class, () -> ColumnSnapshot.of(1, Direction.NONE));
+    }
+
+    @Test
+    void columnSnapshotsAreShared() {
+        for (int pieceCount = 0; pieceCount <= PIECES_PER_PLAYER; pieceCount++) {
+            for (var direction : new Direction[] {Direction.CLOCKWISE, Direction.ANTICLOCKWISE}) {
+                final var column = ColumnSnapshot.of(pieceCount, direction);
+                assertSame(column, ColumnSnapshot.of(pieceCount, direction));
+                assertSame(column, ColumnSnapshot.ofSigned(column.signedPieceCount()));
+                assertEquals(pieceCount, column.pieceCount());
+            }
+        }
+        assertSame(ColumnSnapshot.EMPTY, ColumnSnapshot.of(0, Direction.CLOCKWISE));
+        assertEquals(Direction.NONE, ColumnSnapshot.ofSigned(0).elementsDirection());
+    }
+
+    private static ColumnSnapshot[] emptyColumns() {
+        final var columns = new ColumnSnapshot[BOARD_COLUMNS];
+        Arrays.fill(columns, ColumnSnapshot.EMPTY);
+        return columns;
+    }
+}
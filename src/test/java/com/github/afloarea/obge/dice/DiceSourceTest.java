@@ -0,0 +1,56 @@
+package com.github.afloarea.obge.dice;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiceSourceTest {
+
+    @Test
+    void seededSourcesAreReproducible() {
+        final var batch = DiceSource.seeded(11).rolls(100);
+        final var oneByOne = DiceSource.seeded(11);
+        for (var roll : batch) {
+            assertSame(roll, oneByOne.roll());
+        }
+        assertFalse(Arrays.equals(batch, DiceSource.seeded(12).rolls(100)));
+    }
+
+    @Test
+    void splitsAreReproducibleAndIndependent() {
+        final List<List<DiceRoll>> first = DiceSource.seeded(5).splits(3).map(source -> List.of(source.rolls(20))).toList();
+        final List<List<DiceRoll>> second = DiceSource.seeded(5).splits(3).map(source -> List.of(source.rolls(20))).toList();
+
+        assertEquals(first, second);
+        assertNotEquals(first.get(0), first.get(1));
+        assertNotEquals(first.get(1), first.get(2));
+    }
+
+    @Test
+    void rollsAreUniform() {
+        final int samples = 36_000;
+        final var counts = new HashMap<DiceRoll, Integer>();
+        for (var roll : DiceSource.seeded(1).rolls(samples)) {
+            counts.merge(roll, 1, Integer::sum);
+        }
+
+        assertEquals(21, counts.size());
+        counts.forEach((roll, count) -> {
+            // 1/36 for doubles, 2/36 for the others, within 15%
+            final int expected = roll.isDouble() ? 1000 : 2000;
+            assertEquals(expected, count, expected * 0.15, roll.toString());
+        });
+    }
+
+    @Test
+    void rollsAreInterned() {
+        assertSame(DiceRoll.of(3, 5), DiceRoll.of(5, 3));
+        assertEquals(new DiceRoll(3, 5), DiceRoll.of(5, 3));
+        assertThrows(IllegalArgumentException.class, () -> DiceRoll.of(0, 3));
+        assertNotNull(DiceRoll.generate());
+    }
+}
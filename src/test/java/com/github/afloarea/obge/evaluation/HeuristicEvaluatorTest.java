@@ -0,0 +1,133 @@
+package com.github.afloarea.obge.evaluation;
+
+import com.github.afloarea.obge.Direction;
+import com.github.afloarea.obge.board.BoardSnapshot;
+import com.github.afloarea.obge.board.ColumnSnapshot;
+import com.github.afloarea.obge.dice.DiceRoll;
+import com.github.afloarea.obge.dice.DiceSource;
+import com.github.afloarea.obge.layout.BoardMapper;
+import com.github.afloarea.obge.layout.ColumnsFactory;
+import com.github.afloarea.obge.layout.PositionFeatures;
+import com.github.afloarea.obge.predictors.BestPlayPredictor;
+import com.github.afloarea.obge.predictors.BoardPredictor;
+import com.github.afloarea.obge.simulation.MovePolicy;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeuristicEvaluatorTest {
+    private static final PositionEvaluator EVALUATOR = HeuristicEvaluator.getDefault();
+
+    @Test
+    void featuresFollowThePiecesAsTheyMove() {
+        final var columns = ColumnsFactory.buildStartingSequence();
+        final var predictor = new BoardPredictor();
+        final var dice = DiceSource.seeded(17);
+        final var random = dice.split().getGenerator();
+
+        var direction = Direction.CLOCKWISE;
+        for (int turn = 0; turn < 200; turn++) {
+            final var choices = new ArrayList<>(predictor.predict(columns, dice.roll(), direction));
+            // the prediction moves the pieces back and forth, and must leave the features as they were
+            assertEquals(PositionFeatures.of(BoardMapper.takeSnapshot(columns)), columns.getFeatures());
+            if (!choices.isEmpty()) {
+                choices.sort((first, second) -> first.toString().compareTo(second.toString()));
+                final var choice = choices.get(random.nextInt(choices.size()));
+                BoardMapper.loadSnapshot(columns, choice);
+                assertEquals(PositionFeatures.of(choice), columns.getFeatures());
+                if (choice.getCollected(direction) == 15) {
+                    break;
+                }
+            }
+            direction = direction.reverse();
+        }
+
+        columns.reset();
+        assertEquals(PositionFeatures.of(BoardMapper.takeSnapshot(columns)), columns.getFeatures());
+        assertEquals(columns.getFeatures(), columns.copy().getFeatures());
+    }
+
+    @Test
+    void startingPositionFeatures() {
+        final var features = ColumnsFactory.buildStartingSequence().getFeatures();
+
+        for (var direction : new Direction[] {Direction.CLOCKWISE, Direction.ANTICLOCKWISE}) {
+            assertEquals(167, features.getPipCount(direction));
+            assertEquals(4, Integer.bitCount(features.getMadePoints(direction)));
+            assertEquals(0, features.getBlots(direction));
+            assertEquals(1, features.getRearmostIndex(direction));
+            assertEquals(1, Integer.bitCount(features.getMadePoints(direction) & PositionFeatures.OPPONENT_HOME_MASK));
+            assertEquals(1, Integer.bitCount(features.getMadePoints(direction) & PositionFeatures.HOME_MASK));
+        }
+        assertTrue(features.isContact());
+    }
+
+    @Test
+    void evaluationsAreSymmetric() {
+        final var start = ColumnsFactory.buildStartingSequence();
+        final double clockwise = EVALUATOR.evaluate(start, Direction.CLOCKWISE);
+
+        assertEquals(clockwise, EVALUATOR.evaluate(start, Direction.ANTICLOCKWISE));
+        assertEquals(clockwise, EVALUATOR.evaluate(BoardMapper.takeSnapshot(start), Direction.CLOCKWISE));
+        // being on roll is an advantage
+        assertTrue(clockwise > 0);
+    }
+
+    @Test
+    void racesAreScoredByPipCount() {
+        final var columns = new ColumnSnapshot[24];
+        Arrays.fill(columns, ColumnSnapshot.EMPTY);
+        columns[23] = ColumnSnapshot.of(15, Direction.CLOCKWISE);
+        columns[5] = ColumnSnapshot.of(15, Direction.ANTICLOCKWISE);
+        final var board = BoardSnapshot.builder().withColumns(columns).build();
+
+        assertFalse(PositionFeatures.of(board).isContact());
+        assertTrue(EVALUATOR.evaluate(board, Direction.CLOCKWISE) > 0.5);
+        assertTrue(EVALUATOR.evaluate(board, Direction.ANTICLOCKWISE) < -0.5);
+    }
+
+    @Test
+    void longestPrimeCountsConsecutiveMadePoints() {
+        assertEquals(0, HeuristicEvaluator.longestPrime(0));
+        assertEquals(1, HeuristicEvaluator.longestPrime(0b1010101));
+        assertEquals(4, HeuristicEvaluator.longestPrime(0b1101111011));
+    }
+
+    @Test
+    void rankingPutsWinningPlaysFirst() {
+        final var columns = new ColumnSnapshot[24];
+        Arrays.fill(columns, ColumnSnapshot.EMPTY);
+        columns[22] = ColumnSnapshot.of(1, Direction.CLOCKWISE);
+        columns[18] = ColumnSnapshot.of(15, Direction.ANTICLOCKWISE);
+        final var board = BoardSnapshot.builder().withColumns(columns).withClockwiseCollected(14).build();
+
+        final var sequence = ColumnsFactory.buildStartingSequence();
+        BoardMapper.loadSnapshot(sequence, board);
+        final var choices = new BoardPredictor().predict(sequence, DiceRoll.of(2, 1), Direction.CLOCKWISE);
+        final var ranked = EVALUATOR.rank(choices, Direction.CLOCKWISE);
+
+        assertEquals(choices.size(), ranked.size());
+        assertEquals(15, ranked.get(0).getClockwiseCollected());
+        // the loser still has pieces in the winner's home
+        assertEquals(3, EVALUATOR.evaluatePlay(ranked.get(0), Direction.CLOCKWISE));
+        assertEquals(ranked.get(0), MovePolicy.greedy(EVALUATOR)
+                .choose(board, Direction.CLOCKWISE, DiceRoll.of(2, 1), new ArrayList<>(choices), null));
+    }
+
+    @Test
+    void bestPlayMatchesTheBestRankedBoard() {
+        final var columns = ColumnsFactory.buildStartingSequence();
+        final var boardPredictor = new BoardPredictor();
+        final var bestPlayPredictor = new BestPlayPredictor(EVALUATOR);
+
+        for (var roll : new DiceRoll[] {DiceRoll.of(3, 1), DiceRoll.of(6, 5), DiceRoll.of(4, 4)}) {
+            final var best = EVALUATOR.rank(boardPredictor.predict(columns, roll, Direction.ANTICLOCKWISE),
+                    Direction.ANTICLOCKWISE).get(0);
+            assertEquals(EVALUATOR.evaluatePlay(best, Direction.ANTICLOCKWISE),
+                    bestPlayPredictor.predict(columns, roll, Direction.ANTICLOCKWISE), 1e-12);
+        }
+    }
+}
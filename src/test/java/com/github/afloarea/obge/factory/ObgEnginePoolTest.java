@@ -0,0 +1,72 @@
+package com.github.afloarea.obge.factory;
+
+import com.github.afloarea.obge.Direction;
+import com.github.afloarea.obge.InteractiveObgEngine;
+import com.github.afloarea.obge.ObgEngine;
+import com.github.afloarea.obge.TurnBasedObgEngine;
+import com.github.afloarea.obge.dice.DiceRoll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ObgEnginePoolTest {
+
+    @Test
+    void releasedEngineIsResetAndReused() {
+        final var pool = ObgEngines.createPool(TurnBasedObgEngine.class, BoardTemplate.getDefault(), 2);
+        final var engine = pool.acquire();
+        final var startingBoard = engine.getCurrentBoard();
+
+        engine.applyDiceRoll(Direction.CLOCKWISE, DiceRoll.of(6, 5));
+        assertFalse(engine.isCurrentTurnDone());
+
+        assertTrue(pool.release(engine));
+        final var reused = pool.acquire();
+
+        assertSame(engine, reused);
+        assertTrue(reused.isCurrentTurnDone());
+        assertEquals(Direction.NONE, reused.getCurrentTurnDirection());
+        assertEquals(startingBoard, reused.getCurrentBoard());
+    }
+
+    @Test
+    void poolIsBounded() {
+        final var pool = ObgEngines.createPool(InteractiveObgEngine.class, BoardTemplate.getDefault(), 1);
+        final var first = pool.acquire();
+        final var second = pool.acquire();
+
+        assertNotSame(first, second);
+        assertTrue(pool.release(first));
+        assertFalse(pool.release(second));
+        assertEquals(1, pool.idleCount());
+    }
+
+    @Test
+    void prefillCreatesIdleEngines() {
+        final var pool = ObgEngines.createPool(TurnBasedObgEngine.class, BoardTemplate.getDefault(), 3).prefill();
+        assertEquals(3, pool.idleCount());
+
+        pool.acquire();
+        assertEquals(2, pool.idleCount());
+    }
+
+    @Test
+    void doubleReleasesAreRejected() {
+        final var pool = ObgEngines.createPool(TurnBasedObgEngine.class, BoardTemplate.getDefault(), 2);
+        final var engine = pool.acquire();
+
+        assertTrue(pool.release(engine));
+        assertThrows(IllegalArgumentException.class, () -> pool.release(engine));
+        assertEquals(1, pool.idleCount());
+
+        // an engine handed out again can be released again
+        assertSame(engine, pool.acquire());
+        assertTrue(pool.release(engine));
+    }
+
+    @Test
+    void invalidTypeIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ObgEngines.createPool(ObgEngine.class, BoardTemplate.getDefault(), 1));
+    }
+}
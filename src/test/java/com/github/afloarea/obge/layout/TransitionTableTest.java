@@ -0,0 +1,124 @@
+package com.github.afloarea.obge.layout;
+
+import com.github.afloarea.obge.Direction;
+import com.github.afloarea.obge.InteractiveObgEngine;
+import com.github.afloarea.obge.dice.DiceRoll;
+import com.github.afloarea.obge.dice.DiceValues;
+import com.github.afloarea.obge.engines.HybridObgEngine;
+import com.github.afloarea.obge.engines.InteractiveTurnSlicingObgEngine;
+import com.github.afloarea.obge.factory.BoardTemplate;
+import com.github.afloarea.obge.moves.ObgMove;
+import com.github.afloarea.obge.moves.ObgTransition;
+import com.github.afloarea.obge.predictors.TransitionTreePredictor;
+import com.github.afloarea.obge.utils.EngineUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransitionTableTest {
+    // blots on both sides, so some transitions suspend a piece
+    private static final int[][] HITTING_POSITION = {
+            { 1, -1, 0, 0, 0, -5,    0, -3, 0, 0, 1,  5},
+            {-1, 1, 0, 0, -1,  4,    0,  3, 0, 0, 0, -4}
+    };
+
+    @Test
+    void sequencesOfATemplateShareItsTable() {
+        final var table = TransitionTable.of(BoardTemplate.getDefault());
+
+        assertSame(table, TransitionTable.of(BoardTemplate.getDefault()));
+        assertSame(table, ColumnsFactory.buildStartingSequence().getTransitionTable());
+        assertSame(table, ColumnsFactory.buildColumnSequence(HITTING_POSITION).getTransitionTable());
+    }
+
+    @Test
+    void differentTemplatesGetSeparateTables() {
+        final var renamed = BoardTemplate.builder()
+                .withUpperRowIds("a", "b", "c", "d", "e", "f", "g", "h", "i", "j", "k", "l")
+                .withLowerRowIds("m", "n", "o", "p", "q", "r", "s", "t", "u", "v", "w", "x")
+                .build();
+        // same ids as the default, but still another template
+        final var copy = BoardTemplate.builder().build();
+
+        final var table = TransitionTable.of(BoardTemplate.getDefault());
+        final var renamedTable = TransitionTable.of(renamed);
+        assertNotSame(table, renamedTable);
+        assertNotSame(table, TransitionTable.of(copy));
+        assertSame(renamedTable, ColumnsFactory.buildStartingSequence(renamed).getTransitionTable());
+
+        final var transition = table.getTransition(Direction.CLOCKWISE, 1, 3, false);
+        final var renamedTransition = renamedTable.getTransition(Direction.CLOCKWISE, 1, 3, false);
+        assertEquals(new ObgTransition("A", "D", 3, null), transition);
+        assertEquals(new ObgTransition("a", "d", 3, null), renamedTransition);
+
+        final var move = renamedTable.getMove(Direction.ANTICLOCKWISE, 1, new int[] {2, 2, 2}, 3);
+        assertEquals(ObgMove.of("m", "s", DiceValues.of(2, 2, 2)), move);
+        assertSame(DiceValues.of(2, 2, 2), move.diceValues());
+    }
+
+    @Test
+    void predictedTransitionsAreShared() {
+        final var shared = new HashMap<ObgTransition, ObgTransition>();
+        final var predictor = new TransitionTreePredictor(false);
+
+        final List<Supplier<ColumnSequence>> positions = List.of(
+                ColumnsFactory::buildStartingSequence, () -> ColumnsFactory.buildColumnSequence(HITTING_POSITION));
+        for (var position : positions) {
+            for (var direction : List.of(Direction.CLOCKWISE, Direction.ANTICLOCKWISE)) {
+                for (int first = 1; first <= 6; first++) {
+                    for (int second = first; second <= 6; second++) {
+                        // a new sequence each time, so nothing is shared through the columns
+                        final var columns = position.get();
+                        final var root = predictor.predict(columns, DiceRoll.of(first, second), direction);
+                        root.forEachLeaf(leaf -> leaf.getTransitionsFrom(root)
+                                .forEach(transition -> assertShared(shared, transition)));
+                    }
+                }
+            }
+        }
+        assertTrue(shared.keySet().stream().anyMatch(ObgTransition::isSuspending));
+    }
+
+    @Test
+    void enginesShareMovesDiceValuesAndTransitions() {
+        for (Class<? extends InteractiveObgEngine> type
+                : List.of(HybridObgEngine.class, InteractiveTurnSlicingObgEngine.class)) {
+            final var moves = new HashMap<ObgMove, ObgMove>();
+            final var transitions = new HashMap<ObgTransition, ObgTransition>();
+
+            for (int game = 0; game < 2; game++) {
+                final var engine = EngineUtils.buildDefault(type, HITTING_POSITION);
+                engine.applyDiceRoll(Direction.CLOCKWISE, DiceRoll.of(4, 4));
+
+                final var possibleMoves = engine.getPossibleMoves();
+                assertFalse(possibleMoves.isEmpty());
+                for (var move : possibleMoves) {
+                    assertShared(moves, move);
+                    assertSame(DiceValues.of(move.diceValues().stream().toArray(),
+                            move.diceValues().size()), move.diceValues());
+                }
+
+                while (!engine.isCurrentTurnDone()) {
+                    final var move = engine.getPossibleMoves().stream()
+                            .min(Comparator.comparing(ObgMove::source).thenComparing(ObgMove::target))
+                            .orElseThrow();
+                    assertShared(moves, move);
+                    engine.execute(Direction.CLOCKWISE, move.source(), move.target())
+                            .forEach(transition -> assertShared(transitions, transition));
+                }
+            }
+            assertFalse(transitions.isEmpty());
+        }
+    }
+
+    private static <T> void assertShared(Map<T, T> shared, T value) {
+        assertSame(shared.computeIfAbsent(value, Function.identity()), value);
+    }
+}
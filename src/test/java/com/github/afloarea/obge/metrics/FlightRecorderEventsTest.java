@@ -0,0 +1,75 @@
+package com.github.afloarea.obge.metrics;
+
+import com.github.afloarea.obge.Direction;
+import com.github.afloarea.obge.MixedModeObgEngine;
+import com.github.afloarea.obge.dice.DiceRoll;
+import com.github.afloarea.obge.factory.BoardTemplate;
+import com.github.afloarea.obge.factory.ObgEngines;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecorderEventsTest {
+
+    @Test
+    void enabledEventsAreRecorded() throws Exception {
+        final var file = Files.createTempFile("obge", ".jfr");
+        try (var recording = new Recording()) {
+            recording.enable(PredictionEvent.class).withoutThreshold();
+            recording.enable(EngineCommandEvent.class).withoutThreshold();
+            recording.start();
+            assertTrue(PredictionEvent.isRecorded());
+            assertTrue(EngineCommandEvent.isRecorded());
+            assertFalse(ExpandEvent.isRecorded());
+
+            final var engine = ObgEngines.create(MixedModeObgEngine.class, BoardTemplate.getDefault());
+            engine.applyDiceRoll(Direction.CLOCKWISE, DiceRoll.of(6, 5));
+            final var move = engine.getPossibleMoves().iterator().next();
+            engine.execute(Direction.CLOCKWISE, move.source(), move.target());
+
+            recording.stop();
+            recording.dump(file);
+        }
+        assertFalse(PredictionEvent.isRecorded());
+
+        final Map<String, List<RecordedEvent>> eventsByType;
+        try {
+            eventsByType = RecordingFile.readAllEvents(file).stream()
+                    .collect(Collectors.groupingBy(event -> event.getEventType().getName()));
+        } finally {
+            Files.delete(file);
+        }
+
+        final var predictions = eventsByType.get("com.github.afloarea.obge.Prediction");
+        assertEquals(1, predictions.size());
+        assertEquals("CLOCKWISE", predictions.get(0).getString("direction"));
+        assertTrue(predictions.get(0).getLong("visitedNodes") > 0);
+        assertTrue(predictions.get(0).getLong("resultCount") > 0);
+
+        final var commands = eventsByType.get("com.github.afloarea.obge.EngineCommand").stream()
+                .sorted(Comparator.comparing(RecordedEvent::getStartTime))
+                .map(event -> event.getString("command"))
+                .toList();
+        assertEquals(List.of("APPLY_DICE_ROLL", "GET_POSSIBLE_MOVES", "EXECUTE"), commands);
+    }
+
+    @Test
+    void eventsAreDisabledByDefault() {
+        // no event is even created while none is recorded
+        assertFalse(PredictionEvent.isRecorded());
+        assertFalse(ExpandEvent.isRecorded());
+        assertFalse(EngineCommandEvent.isRecorded());
+        assertFalse(new PredictionEvent().isEnabled());
+        assertFalse(new ExpandEvent().isEnabled());
+        assertFalse(new EngineCommandEvent().isEnabled());
+    }
+}
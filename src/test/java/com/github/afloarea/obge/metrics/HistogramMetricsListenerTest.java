@@ -0,0 +1,93 @@
+package com.github.afloarea.obge.metrics;
+
+import com.github.afloarea.obge.Direction;
+import com.github.afloarea.obge.MixedModeObgEngine;
+import com.github.afloarea.obge.dice.DiceRoll;
+import com.github.afloarea.obge.factory.BoardTemplate;
+import com.github.afloarea.obge.factory.EngineOptions;
+import com.github.afloarea.obge.factory.ObgEngines;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class HistogramMetricsListenerTest {
+
+    @Test
+    void percentilesAreWithinTheBucketPrecision() {
+        final var histogram = new LogLinearHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(100_000, histogram.getMax());
+        for (double percentile : new double[] {0.5, 0.99, 0.999}) {
+            final long expected = (long) (percentile * 100_000);
+            final long actual = histogram.getPercentile(percentile);
+            assertTrue(actual >= expected && actual <= expected + expected / 16 + 1,
+                    "p" + percentile + " was " + actual);
+        }
+        assertEquals(100_000, histogram.getPercentile(1));
+        assertEquals(0, new LogLinearHistogram().getPercentile(0.5));
+    }
+
+    @Test
+    void engineReportsOperationsPredictionsAndCacheAccesses() {
+        final var listener = new HistogramMetricsListener();
+        final var engine = ObgEngines.create(MixedModeObgEngine.class, BoardTemplate.getDefault(),
+                EngineOptions.builder().withMetricsListener(listener).build());
+
+        engine.applyDiceRoll(Direction.CLOCKWISE, DiceRoll.of(6, 5));
+        final var choices = engine.getBoardChoices();
+        engine.getPossibleMoves();
+        engine.getPossibleMoves("A");
+        final var move = engine.getPossibleMoves().iterator().next();
+        engine.execute(Direction.CLOCKWISE, move.source(), move.target());
+        engine.undo(Direction.CLOCKWISE);
+        engine.chooseBoard(Direction.CLOCKWISE, choices.iterator().next());
+
+        engine.applyDiceRoll(Direction.ANTICLOCKWISE, DiceRoll.of(3, 3));
+
+        for (var operation : new ObgOperation[] {ObgOperation.EXECUTE, ObgOperation.UNDO, ObgOperation.CHOOSE_BOARD}) {
+            assertEquals(1, listener.getLatencies(operation, RollType.SIMPLE).getCount(), operation.name());
+        }
+        assertEquals(1, listener.getLatencies(ObgOperation.APPLY_DICE_ROLL, RollType.SIMPLE).getCount());
+        assertEquals(1, listener.getLatencies(ObgOperation.APPLY_DICE_ROLL, RollType.DOUBLE).getCount());
+        assertEquals(0, listener.getLatencies(ObgOperation.REDO, RollType.SIMPLE).getCount());
+
+        assertEquals(1, listener.getVisitedNodes(RollType.SIMPLE).getCount());
+        assertTrue(listener.getVisitedNodes(RollType.SIMPLE).getMax() >= listener.getSavedLeaves(RollType.SIMPLE).getMax());
+        // the mixed mode engine keeps sequences, at least one per board
+        assertTrue(listener.getKeptResults(RollType.SIMPLE).getMax() >= choices.size());
+
+        assertTrue(listener.getCacheMisses(ObgCache.POSSIBLE_MOVES) >= 1);
+        assertTrue(listener.getCacheHits(ObgCache.POSSIBLE_MOVES) >= 2);
+        assertEquals(0, listener.getCacheHits(ObgCache.SPECULATIVE_PREDICTIONS)
+                + listener.getCacheMisses(ObgCache.SPECULATIVE_PREDICTIONS));
+    }
+
+    @Test
+    void allocationsAreMeasuredWhenRequested() {
+        assumeTrue(AllocationCounter.isSupported());
+        final var listener = new HistogramMetricsListener(true);
+        final var engine = ObgEngines.create(MixedModeObgEngine.class, BoardTemplate.getDefault(),
+                EngineOptions.builder().withMetricsListener(listener).build());
+
+        engine.applyDiceRoll(Direction.CLOCKWISE, DiceRoll.of(6, 5));
+        engine.getPossibleMoves();
+        engine.getPossibleMoves();
+
+        final var applied = listener.getAllocatedBytes(ObgOperation.APPLY_DICE_ROLL, RollType.SIMPLE);
+        assertEquals(1, applied.getCount());
+        assertTrue(applied.getMax() > 0);
+
+        final var possibleMoves = listener.getAllocatedBytes(ObgOperation.GET_POSSIBLE_MOVES, RollType.SIMPLE);
+        assertEquals(2, possibleMoves.getCount());
+        // the second call is served from the cache
+        assertTrue(possibleMoves.getPercentile(0) < possibleMoves.getMax());
+
+        assertEquals(0, new HistogramMetricsListener()
+                .getAllocatedBytes(ObgOperation.APPLY_DICE_ROLL, RollType.SIMPLE).getCount());
+    }
+}
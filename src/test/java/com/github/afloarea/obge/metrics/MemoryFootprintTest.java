@@ -0,0 +1,62 @@
+package com.github.afloarea.obge.metrics;
+
+import com.github.afloarea.obge.Direction;
+import com.github.afloarea.obge.InteractiveObgEngine;
+import com.github.afloarea.obge.MixedModeObgEngine;
+import com.github.afloarea.obge.ObgEngine;
+import com.github.afloarea.obge.TurnBasedObgEngine;
+import com.github.afloarea.obge.dice.DiceRoll;
+import com.github.afloarea.obge.factory.BoardTemplate;
+import com.github.afloarea.obge.factory.ObgEngines;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoryFootprintTest {
+
+    @Test
+    void predictionsAreAccountedForUntilTheTurnIsPlayed() {
+        final var engine = ObgEngines.create(MixedModeObgEngine.class, BoardTemplate.getDefault());
+        final var initial = ObgEngines.estimateFootprint(engine);
+        assertTrue(initial.bytesOf(MemoryFootprint.COLUMNS) > 0);
+        assertEquals(0, initial.bytesOf(MemoryFootprint.PREDICTIONS));
+
+        engine.applyDiceRoll(Direction.CLOCKWISE, DiceRoll.of(1, 1));
+        engine.getPossibleMoves();
+        final var rolled = ObgEngines.estimateFootprint(engine);
+        assertTrue(rolled.bytesOf(MemoryFootprint.PREDICTIONS) > 0);
+        assertTrue(rolled.bytesOf(MemoryFootprint.POSSIBLE_MOVES) > 0);
+        assertEquals(initial.bytesOf(MemoryFootprint.COLUMNS), rolled.bytesOf(MemoryFootprint.COLUMNS));
+        assertEquals(rolled.bytesByComponent().values().stream().mapToLong(Long::longValue).sum(), rolled.totalBytes());
+
+        engine.chooseBoard(Direction.CLOCKWISE, engine.getBoardChoices().iterator().next());
+        assertEquals(0, ObgEngines.estimateFootprint(engine).bytesOf(MemoryFootprint.PREDICTIONS));
+    }
+
+    @Test
+    void mixedModeEnginesRetainTheMostPredictions() {
+        final var roll = DiceRoll.of(2, 2);
+        final long interactive = predictionsAfterRoll(InteractiveObgEngine.class, roll);
+        final long turnBased = predictionsAfterRoll(TurnBasedObgEngine.class, roll);
+        final long mixedMode = predictionsAfterRoll(MixedModeObgEngine.class, roll);
+
+        assertTrue(mixedMode > interactive);
+        assertTrue(mixedMode > turnBased);
+    }
+
+    @Test
+    void concurrentEnginesAccountForThePublishedState() {
+        final var engine = ObgEngines.createConcurrent(MixedModeObgEngine.class, BoardTemplate.getDefault());
+        engine.applyDiceRoll(Direction.ANTICLOCKWISE, DiceRoll.of(6, 4));
+
+        final var footprint = ObgEngines.estimateFootprint(engine);
+        assertTrue(footprint.bytesOf(MemoryFootprint.PUBLISHED_STATE) > 0);
+        assertTrue(footprint.bytesOf(MemoryFootprint.PREDICTIONS) > 0);
+    }
+
+    private static long predictionsAfterRoll(Class<? extends ObgEngine> type, DiceRoll roll) {
+        final var engine = ObgEngines.create(type, BoardTemplate.getDefault());
+        engine.applyDiceRoll(Direction.CLOCKWISE, roll);
+        return ObgEngines.estimateFootprint(engine).bytesOf(MemoryFootprint.PREDICTIONS);
+    }
+}
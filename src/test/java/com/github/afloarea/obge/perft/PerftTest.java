@@ -0,0 +1,157 @@
+package com.github.afloarea.obge.perft;
+
+import com.github.afloarea.obge.Direction;
+import com.github.afloarea.obge.board.BoardSnapshot;
+import com.github.afloarea.obge.layout.BoardMapper;
+import com.github.afloarea.obge.layout.ColumnsFactory;
+import com.github.afloarea.obge.predictors.BoardPredictor;
+import com.github.afloarea.obge.predictors.TransitionTreePredictor;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+
+import static com.github.afloarea.obge.common.Constants.DICE_ROLLS;
+import static com.github.afloarea.obge.common.Constants.PIECES_PER_PLAYER;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerftTest {
+
+    // reference counts for the starting position, clockwise playing first
+    private static final long[] STARTING_POSITIONS = {447, 202_782};
+    private static final long[] STARTING_PLAYS = {2195, 966_917};
+
+    // positions of the benchmark corpus, clockwise playing first
+    private static final String BEAR_OFF = "-4,-3,-3,-2,-1,-1,0,0,0,0,0,0,0,0,0,0,0,0,0,1,2,2,3,3,0,0,4,1";
+    private static final long[] BEAR_OFF_POSITIONS = {155, 42_315};
+    private static final long[] BEAR_OFF_PLAYS = {862, 278_225};
+    // blots on both sides: clockwise can hit, so anticlockwise often enters from the bar on the second ply
+    private static final String CONTACT = "2,-1,0,0,0,-4,0,-3,1,0,0,4,-4,-1,0,0,3,0,3,1,1,0,0,-2";
+    private static final long[] CONTACT_POSITIONS = {958, 523_315};
+    private static final long[] CONTACT_PLAYS = {6705, 2_650_696};
+
+    @Test
+    void startingPositionMatchesTheReferenceCounts() {
+        final var root = BoardMapper.takeSnapshot(ColumnsFactory.buildStartingSequence());
+
+        final var sequential = Perft.builder().build().run(root, Direction.CLOCKWISE, 2);
+        final var parallel = Perft.builder().withParallelism(4).build().run(root, Direction.CLOCKWISE, 2);
+
+        for (int ply = 1; ply <= 2; ply++) {
+            assertEquals(STARTING_POSITIONS[ply - 1], sequential.get(ply).positions());
+            assertEquals(STARTING_PLAYS[ply - 1], sequential.get(ply).plays());
+        }
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    void bearOffAndContactMatchTheReferenceCounts() {
+        assertReferenceCounts(PerftCommand.parsePosition(BEAR_OFF), BEAR_OFF_POSITIONS, BEAR_OFF_PLAYS);
+        assertReferenceCounts(PerftCommand.parsePosition(CONTACT), CONTACT_POSITIONS, CONTACT_PLAYS);
+    }
+
+    @Test
+    void firstPlyMatchesThePredictors() {
+        final var columns = ColumnsFactory.buildColumnSequence(new int[][]{
+                { 2, -1, 0, 0, 0, -4,   0, -3, 1, 0,  0,  4},
+                {-2,  0, 0, 1, 1,  3,   0,  3, 0, 0, -1, -4}
+        });
+        final var root = BoardMapper.takeSnapshot(columns);
+
+        long expectedPositions = 0;
+        long expectedPlays = 0;
+        for (var roll : DICE_ROLLS) {
+            expectedPositions += Math.max(1, new BoardPredictor().predict(columns, roll, Direction.ANTICLOCKWISE).size());
+            final var tree = new TransitionTreePredictor(false).predict(columns, roll, Direction.ANTICLOCKWISE);
+            if (!tree.isLeaf()) {
+                final long[] leaves = new long[1];
+                tree.forEachLeaf(leaf -> leaves[0]++);
+                expectedPlays += leaves[0];
+            }
+        }
+
+        final var result = Perft.builder().build().run(root, Direction.ANTICLOCKWISE, 1);
+        assertEquals(expectedPositions, result.get(1).positions());
+        assertEquals(expectedPlays, result.get(1).plays());
+    }
+
+    @Test
+    void bearOffAndEntryMatchBruteForce() {
+        // anticlockwise bears off, then clockwise enters its suspended piece against a five point board
+        final var root = PerftCommand.parsePosition(
+                "-3,-3,-2,-2,-1,0,0,0,0,0,0,0,0,0,0,0,0,0,3,3,2,2,2,2,1,0,0,4");
+        final int depth = 2;
+
+        final long[] expectedPositions = new long[depth];
+        final long[] expectedPlays = new long[depth];
+        bruteForce(root, Direction.ANTICLOCKWISE, 1, expectedPositions, expectedPlays);
+
+        final var sequential = Perft.builder().build().run(root, Direction.ANTICLOCKWISE, depth);
+        for (int ply = 1; ply <= depth; ply++) {
+            assertEquals(expectedPositions[ply - 1], sequential.get(ply).positions());
+            assertEquals(expectedPlays[ply - 1], sequential.get(ply).plays());
+        }
+        assertEquals(sequential, Perft.builder().withParallelism(4).build().run(root, Direction.ANTICLOCKWISE, depth));
+    }
+
+    @Test
+    void finishedGameHasNothingToCount() {
+        final var root = PerftCommand.parsePosition("0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,0,-15,0,0,15,0");
+
+        for (var perft : new Perft[] {Perft.builder().build(), Perft.builder().withParallelism(4).build()}) {
+            final var result = perft.run(root, Direction.ANTICLOCKWISE, 2);
+            for (int ply = 1; ply <= 2; ply++) {
+                assertEquals(0, result.get(ply).positions());
+                assertEquals(0, result.get(ply).plays());
+            }
+        }
+    }
+
+    @Test
+    void malformedPositionsAreRejected() {
+        assertEquals(BoardMapper.takeSnapshot(ColumnsFactory.buildStartingSequence()), PerftCommand.parsePosition(
+                "2,0,0,0,0,-5,0,-3,0,0,0,5,-5,0,0,0,3,0,5,0,0,0,0,-2"));
+        assertThrows(IllegalArgumentException.class, () -> PerftCommand.parsePosition("1,2,3"));
+        assertThrows(IllegalArgumentException.class, () -> PerftCommand.parsePosition(
+                "2,0,0,0,0,-5,0,-3,0,0,0,5,-5,0,0,0,3,0,5,0,0,0,0,x"));
+        assertThrows(IllegalArgumentException.class, () -> PerftCommand.parsePosition(
+                "2,0,0,0,0,-5,0,-3,0,0,0,5,-5,0,0,0,3,0,5,0,0,0,0,-3"));
+    }
+
+    private static void assertReferenceCounts(BoardSnapshot root, long[] positions, long[] plays) {
+        final var result = Perft.builder().withParallelism(4).build().run(root, Direction.CLOCKWISE, positions.length);
+        for (int ply = 1; ply <= positions.length; ply++) {
+            assertEquals(positions[ply - 1], result.get(ply).positions());
+            assertEquals(plays[ply - 1], result.get(ply).plays());
+        }
+    }
+
+    /**
+     * Count every play with the transition tree, and expand every distinct board it leads to.
+     */
+    private static void bruteForce(BoardSnapshot board, Direction direction, int ply,
+                                   long[] positions, long[] plays) {
+        if (ply > positions.length || board.getClockwiseCollected() == PIECES_PER_PLAYER
+                || board.getAnticlockwiseCollected() == PIECES_PER_PLAYER) {
+            return;
+        }
+        final var columns = ColumnsFactory.buildStartingSequence();
+        BoardMapper.loadSnapshot(columns, board);
+        for (var roll : DICE_ROLLS) {
+            final var tree = new TransitionTreePredictor(true).predict(columns, roll, direction);
+            if (tree.isLeaf()) {
+                positions[ply - 1]++;
+                bruteForce(board, direction.reverse(), ply + 1, positions, plays);
+                continue;
+            }
+            final var boards = new HashSet<BoardSnapshot>();
+            tree.forEachLeaf(leaf -> {
+                plays[ply - 1]++;
+                boards.add(leaf.getBoard());
+            });
+            positions[ply - 1] += boards.size();
+            for (var next : boards) {
+                bruteForce(next, direction.reverse(), ply + 1, positions, plays);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.afloarea.obge.predictors;
+
+import com.github.afloarea.obge.moves.ObgTransition;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransitionNodeTest {
+
+    private static final ObgTransition A_B = new ObgTransition("A", "B", 1, null);
+    private static final ObgTransition B_D = new ObgTransition("B", "D", 2, null);
+    private static final ObgTransition A_C = new ObgTransition("A", "C", 2, null);
+    private static final ObgTransition C_D = new ObgTransition("C", "D", 1, null);
+    private static final ObgTransition X_Y = new ObgTransition("X", "Y", 1, null);
+
+    @Test
+    void sharedPrefixesAreMerged() {
+        final var root = TransitionNode.of(Set.of(List.of(A_C, C_D), List.of(A_C, X_Y), List.of(A_B, B_D)));
+
+        assertEquals(2, root.getChildren().size());
+        assertEquals(A_C, root.getChildren().get(0).getTransition()); // higher die first
+        assertEquals(2, root.getChildren().get(0).getChildren().size());
+    }
+
+    @Test
+    void findPathPrefersShortestThenHigherDie() {
+        final var root = TransitionNode.of(Set.of(List.of(A_B, B_D), List.of(A_C, C_D), List.of(A_C, X_Y)));
+
+        final var composite = root.findPath("A", "D");
+        assertEquals(List.of(A_C, C_D), composite.stream().map(TransitionNode::getTransition).toList());
+
+        final var simple = root.findPath("A", "C");
+        assertEquals(1, simple.size());
+        assertEquals(2, simple.get(0).getChildren().size());
+
+        assertTrue(root.findPath("B", "D").isEmpty());
+        assertTrue(TransitionNode.EMPTY.isLeaf());
+    }
+}
@@ -0,0 +1,50 @@
+package com.github.afloarea.obge.predictors;
+
+import com.github.afloarea.obge.Direction;
+import com.github.afloarea.obge.dice.DiceRoll;
+import com.github.afloarea.obge.layout.BoardMapper;
+import com.github.afloarea.obge.layout.ColumnsFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransitionTreePredictorTest {
+
+    @Test
+    void onlyTheLongestSequencesAreKeptAndShareTheirPrefixes() {
+        final var columns = ColumnsFactory.buildStartingSequence();
+        final var root = new TransitionTreePredictor(true).predict(columns, DiceRoll.of(3, 3), Direction.CLOCKWISE);
+
+        final var leaves = new ArrayList<TransitionNode>();
+        root.forEachLeaf(leaves::add);
+
+        assertFalse(leaves.isEmpty());
+        for (var leaf : leaves) {
+            final var sequence = leaf.getTransitionsFrom(root);
+            assertEquals(4, sequence.size());
+            assertNotNull(leaf.getBoard());
+            // the prefix is the parent's sequence, not a copy
+            assertEquals(sequence.subList(0, 3), leaf.getParent().getTransitionsFrom(root));
+        }
+        // the columns are left as they were
+        assertEquals(BoardMapper.takeSnapshot(ColumnsFactory.buildStartingSequence()), BoardMapper.takeSnapshot(columns));
+    }
+
+    @Test
+    void boardsAreOnlyTakenWhenRequested() {
+        final var columns = ColumnsFactory.buildStartingSequence();
+        final var root = new TransitionTreePredictor(false).predict(columns, DiceRoll.of(6, 5), Direction.ANTICLOCKWISE);
+
+        final var leaves = new ArrayList<TransitionNode>();
+        root.forEachLeaf(leaves::add);
+
+        assertFalse(leaves.isEmpty());
+        assertTrue(leaves.stream().allMatch(leaf -> leaf.getBoard() == null));
+        assertEquals(List.of(6, 5), List.of(
+                root.getChildren().get(0).getTransition().usedDie(),
+                root.getChildren().get(root.getChildren().size() - 1).getTransition().usedDie()));
+    }
+}
@@ -0,0 +1,162 @@
+package com.github.afloarea.obge.session;
+
+import com.github.afloarea.obge.Direction;
+import com.github.afloarea.obge.TurnBasedObgEngine;
+import com.github.afloarea.obge.dice.DiceRoll;
+import com.github.afloarea.obge.exceptions.IllegalObgActionException;
+import com.github.afloarea.obge.factory.BoardTemplate;
+import com.github.afloarea.obge.factory.ObgEngines;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ObgSessionManagerTest {
+
+    @Test
+    void commandsOfAGameRunInOrder() {
+        final var manager = ObgSessionManager.<String, TurnBasedObgEngine>builder(TurnBasedObgEngine.class).build();
+        manager.open("game");
+
+        manager.run("game", engine -> engine.applyDiceRoll(Direction.CLOCKWISE, DiceRoll.of(6, 5)));
+        final var choices = manager.submit("game", TurnBasedObgEngine::getBoardChoices).join();
+
+        assertFalse(choices.isEmpty());
+        manager.close("game").join();
+        assertFalse(manager.isOpen("game"));
+    }
+
+    @Test
+    void engineExceptionsCompleteTheFuture() {
+        final var manager = ObgSessionManager.<Integer, TurnBasedObgEngine>builder(TurnBasedObgEngine.class).build();
+        manager.open(1);
+
+        final var result = manager.run(1, engine -> engine.applyDiceRoll(Direction.NONE, DiceRoll.of(1, 2)));
+
+        final var exception = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(IllegalObgActionException.class, exception.getCause());
+    }
+
+    @Test
+    void commandsAfterCloseFail() {
+        final var manager = ObgSessionManager.<Integer, TurnBasedObgEngine>builder(TurnBasedObgEngine.class).build();
+        manager.open(1);
+        manager.close(1).join();
+
+        assertThrows(CompletionException.class, () -> manager.submit(1, TurnBasedObgEngine::getCurrentBoard).join());
+
+        manager.open(2);
+        assertThrows(IllegalArgumentException.class, () -> manager.open(2));
+    }
+
+    @Test
+    void gamesRunInParallel() {
+        final var executor = Executors.newFixedThreadPool(4);
+        try {
+            final var manager = ObgSessionManager.<Integer, TurnBasedObgEngine>builder(TurnBasedObgEngine.class)
+                    .withExecutor(executor)
+                    .withPoolCapacity(16)
+                    .build();
+
+            final var futures = IntStream.range(0, 100)
+                    .peek(manager::open)
+                    .mapToObj(gameId -> {
+                        manager.run(gameId, engine -> engine.applyDiceRoll(Direction.CLOCKWISE, DiceRoll.of(3, 1)));
+                        manager.run(gameId, engine -> engine.chooseBoard(Direction.CLOCKWISE,
+                                engine.getBoardChoices().iterator().next()));
+                        return manager.submit(gameId, TurnBasedObgEngine::isCurrentTurnDone);
+                    })
+                    .toList();
+
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+            assertTrue(futures.stream().allMatch(CompletableFuture::join));
+            assertEquals(100, manager.getOpenGameCount());
+
+            // every game waits for the others, which only works if they run at the same time
+            final var barrier = new CyclicBarrier(4);
+            final var meetings = IntStream.range(0, 4)
+                    .mapToObj(gameId -> manager.submit(gameId, engine -> {
+                        try {
+                            return barrier.await(10, TimeUnit.SECONDS) >= 0;
+                        } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }))
+                    .toList();
+            assertTrue(meetings.stream().allMatch(CompletableFuture::join));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void rejectedCommandsFailWithoutBlockingTheGame() {
+        final var rejecting = new AtomicBoolean(true);
+        final Executor executor = task -> {
+            if (rejecting.get()) {
+                throw new RejectedExecutionException("Rejected");
+            }
+            task.run();
+        };
+        final var manager = ObgSessionManager.<Integer, TurnBasedObgEngine>builder(TurnBasedObgEngine.class)
+                .withExecutor(executor)
+                .build();
+        manager.open(1);
+
+        final var rejected = manager.submit(1, TurnBasedObgEngine::getCurrentBoard);
+        final var exception = assertThrows(CompletionException.class, rejected::join);
+        assertInstanceOf(RejectedExecutionException.class, exception.getCause());
+
+        rejecting.set(false);
+        assertNotNull(manager.submit(1, TurnBasedObgEngine::getCurrentBoard).join());
+    }
+
+    @Test
+    void rejectedCloseStillReleasesTheEngine() {
+        final var rejecting = new AtomicBoolean(false);
+        final Executor executor = task -> {
+            if (rejecting.get()) {
+                throw new RejectedExecutionException("Rejected");
+            }
+            task.run();
+        };
+        final var manager = ObgSessionManager.<Integer, TurnBasedObgEngine>builder(TurnBasedObgEngine.class)
+                .withExecutor(executor)
+                .build();
+        manager.open(1);
+        final var engine = manager.submit(1, Function.identity()).join();
+
+        rejecting.set(true);
+        assertNull(manager.close(1).join());
+        assertFalse(manager.isOpen(1));
+
+        rejecting.set(false);
+        manager.open(2);
+        assertSame(engine, manager.submit(2, Function.identity()).join());
+    }
+
+    @Test
+    void failingReleaseCompletesTheClose() {
+        final var session = new GameSession<>(ObgEngines.create(TurnBasedObgEngine.class, BoardTemplate.getDefault()),
+                Runnable::run);
+
+        final var closing = session.close(engine -> {
+            throw new IllegalStateException("Release failed");
+        });
+        final var exception = assertThrows(CompletionException.class, closing::join);
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+
+        // the mailbox keeps going
+        assertThrows(CompletionException.class, () -> session.submit(TurnBasedObgEngine::getCurrentBoard).join());
+    }
+}
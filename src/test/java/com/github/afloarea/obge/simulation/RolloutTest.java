@@ -0,0 +1,122 @@
+package com.github.afloarea.obge.simulation;
+
+import com.github.afloarea.obge.Direction;
+import com.github.afloarea.obge.board.BoardSnapshot;
+import com.github.afloarea.obge.board.ColumnSnapshot;
+import com.github.afloarea.obge.evaluation.PositionEvaluator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RolloutTest {
+
+    // both players bearing off, with 3 pieces on each of the 5 last columns
+    private static final BoardSnapshot RACE = race();
+
+    // a rough race evaluator: the pip difference, plus half a roll for being on roll
+    private static final PositionEvaluator PIP_COUNT = (board, direction) ->
+            Math.tanh((pips(board, direction.reverse()) - pips(board, direction) + 4) / 10.0);
+
+    @Test
+    void rolloutsAreDeterministicWhateverTheParallelism() {
+        final var sequential = Rollout.builder().withSeed(5).withMaxGames(144).withParallelism(1).build()
+                .run(RACE, Direction.CLOCKWISE);
+        final var parallel = Rollout.builder().withSeed(5).withMaxGames(144).withParallelism(4).build()
+                .run(RACE, Direction.CLOCKWISE);
+
+        assertEquals(144, sequential.games());
+        assertEquals(sequential.equity(), parallel.equity());
+        assertEquals(sequential.standardError(), parallel.standardError());
+        assertEquals(sequential.wins(), parallel.wins());
+    }
+
+    @Test
+    void playerOnRollIsFavouredInASymmetricRace() {
+        final var result = Rollout.builder().withSeed(1).withMaxGames(720).withParallelism(2).build()
+                .run(RACE, Direction.ANTICLOCKWISE);
+
+        assertTrue(result.equity() > 0);
+        assertTrue(result.wins() > 0.5);
+        assertEquals(0, result.unfinished());
+        assertEquals(1, result.wins() + result.losses(), 1e-9);
+        assertTrue(result.lowerBound() < result.equity() && result.equity() < result.upperBound());
+    }
+
+    @Test
+    void certainOutcomesStopEarly() {
+        final var columns = new ColumnSnapshot[24];
+        Arrays.fill(columns, ColumnSnapshot.EMPTY);
+        columns[23] = ColumnSnapshot.of(1, Direction.CLOCKWISE);
+        columns[0] = ColumnSnapshot.of(1, Direction.ANTICLOCKWISE);
+        final var board = BoardSnapshot.builder().withColumns(columns)
+                .withClockwiseCollected(14).withAnticlockwiseCollected(14).build();
+
+        final var result = Rollout.builder().withMinGames(36).withBatchSize(36).withMaxGames(3600).build()
+                .run(board, Direction.CLOCKWISE);
+
+        assertEquals(36, result.games());
+        assertEquals(1, result.equity());
+        assertEquals(0, result.halfWidth());
+        assertEquals(1, result.wins());
+    }
+
+    @Test
+    void finishedGamesAreRejected() {
+        final var columns = new ColumnSnapshot[24];
+        Arrays.fill(columns, ColumnSnapshot.EMPTY);
+        columns[0] = ColumnSnapshot.of(15, Direction.ANTICLOCKWISE);
+        final var board = BoardSnapshot.builder().withColumns(columns).withClockwiseCollected(15).build();
+        final var rollout = Rollout.builder().build();
+
+        assertThrows(IllegalArgumentException.class, () -> rollout.run(board, Direction.CLOCKWISE));
+        assertThrows(IllegalArgumentException.class, () -> rollout.run(board, Direction.ANTICLOCKWISE));
+    }
+
+    @Test
+    void luckAdjustmentReducesTheVariance() {
+        final var plain = Rollout.builder().withSeed(2).withMaxGames(360).withParallelism(2).build()
+                .run(RACE, Direction.CLOCKWISE);
+        final var adjusted = Rollout.builder().withSeed(2).withMaxGames(360).withParallelism(2)
+                .withEvaluator(PIP_COUNT).withLuckAdjustedTurns(3).build()
+                .run(RACE, Direction.CLOCKWISE);
+
+        assertTrue(adjusted.standardError() < plain.standardError());
+        // the same games are played, only their results are adjusted
+        assertEquals(plain.wins(), adjusted.wins());
+        assertEquals(plain.equity(), adjusted.equity(), plain.halfWidth() + adjusted.halfWidth());
+    }
+
+    @Test
+    void rolloutStopsOnceTheConfidenceIntervalIsTight() {
+        final var result = Rollout.builder().withSeed(3).withBatchSize(72).withMinGames(72).withMaxGames(36_000)
+                .withTargetHalfWidth(0.25).build()
+                .run(RACE, Direction.CLOCKWISE);
+
+        assertTrue(result.games() < 36_000);
+        assertEquals(0, result.games() % 72);
+        assertTrue(result.halfWidth() <= 0.25);
+    }
+
+    private static BoardSnapshot race() {
+        final var columns = new ColumnSnapshot[24];
+        Arrays.fill(columns, ColumnSnapshot.EMPTY);
+        for (int index = 0; index < 5; index++) {
+            columns[index] = ColumnSnapshot.of(3, Direction.ANTICLOCKWISE);
+            columns[23 - index] = ColumnSnapshot.of(3, Direction.CLOCKWISE);
+        }
+        return BoardSnapshot.builder().withColumns(columns).build();
+    }
+
+    private static int pips(BoardSnapshot board, Direction direction) {
+        int pips = 25 * board.getSuspended(direction);
+        for (int index = 0; index < 24; index++) {
+            final var column = board.getColumn(index);
+            if (column.elementsDirection() == direction) {
+                pips += column.pieceCount() * (direction == Direction.CLOCKWISE ? 24 - index : index + 1);
+            }
+        }
+        return pips;
+    }
+}
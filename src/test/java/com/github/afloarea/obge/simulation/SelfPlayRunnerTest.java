@@ -0,0 +1,78 @@
+package com.github.afloarea.obge.simulation;
+
+import com.github.afloarea.obge.Direction;
+import com.github.afloarea.obge.board.BoardSnapshot;
+import com.github.afloarea.obge.board.ColumnSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SelfPlayRunnerTest {
+    private static final int GAMES = 40;
+
+    @Test
+    void runsAreDeterministicWhateverTheParallelism() {
+        final var sequential = play(SelfPlayRunner.builder().withSeed(7).withParallelism(1).build());
+        final var parallel = play(SelfPlayRunner.builder().withSeed(7).withParallelism(4).build());
+        final var otherSeed = play(SelfPlayRunner.builder().withSeed(8).withParallelism(4).build());
+
+        assertEquals(GAMES, sequential.size());
+        assertEquals(sequential, parallel);
+        assertNotEquals(sequential, otherSeed);
+    }
+
+    @Test
+    void reportSumsUpTheGames() {
+        final var runner = SelfPlayRunner.builder().withSeed(3).withParallelism(2).build();
+        final var results = new ConcurrentHashMap<Long, GameResult>();
+        final var report = runner.run(GAMES, result -> results.put(result.game(), result));
+
+        assertEquals(GAMES, report.games());
+        assertEquals(0, report.unfinishedGames());
+        assertEquals(results.values().stream().filter(result -> result.winner() == Direction.CLOCKWISE).count(),
+                report.clockwiseWins());
+        assertEquals(results.values().stream().mapToLong(GameResult::turns).sum(), report.turns());
+        assertTrue(report.gamesPerSecond() > 0);
+
+        assertEquals(results.get(5L), runner.replay(5));
+    }
+
+    @Test
+    void gamesCanBeStoppedUnfinished() {
+        final var report = SelfPlayRunner.builder().withMaxTurns(10).withParallelism(1).build().run(5);
+
+        assertEquals(5, report.unfinishedGames());
+        assertEquals(50, report.turns());
+    }
+
+    @Test
+    void winTypesDependOnTheLosersPieces() {
+        final var columns = new ColumnSnapshot[24];
+        Arrays.fill(columns, ColumnSnapshot.EMPTY);
+        final var builder = BoardSnapshot.builder().withColumns(columns).withClockwiseCollected(15);
+
+        columns[0] = ColumnSnapshot.of(15, Direction.ANTICLOCKWISE);
+        assertEquals(WinType.GAMMON, SelfPlayRunner.winTypeOf(builder.build(), Direction.CLOCKWISE));
+
+        columns[0] = ColumnSnapshot.of(14, Direction.ANTICLOCKWISE);
+        builder.withAnticlockwiseCollected(1);
+        assertEquals(WinType.SINGLE, SelfPlayRunner.winTypeOf(builder.build(), Direction.CLOCKWISE));
+
+        columns[0] = ColumnSnapshot.of(14, Direction.ANTICLOCKWISE);
+        columns[23] = ColumnSnapshot.of(1, Direction.ANTICLOCKWISE);
+        builder.withAnticlockwiseCollected(0);
+        assertEquals(WinType.BACKGAMMON, SelfPlayRunner.winTypeOf(builder.build(), Direction.CLOCKWISE));
+
+        assertEquals(WinType.UNFINISHED, SelfPlayRunner.winTypeOf(builder.build(), Direction.NONE));
+    }
+
+    private static Map<Long, GameResult> play(SelfPlayRunner runner) {
+        final var results = new ConcurrentHashMap<Long, GameResult>();
+        runner.run(GAMES, result -> results.put(result.game(), result));
+        return Map.copyOf(results);
+    }
+}
@@ -4,6 +4,7 @@ import com.github.afloarea.obge.ObgEngine;
 import com.github.afloarea.obge.engines.BoardStatePredictingObgEngine;
 import com.github.afloarea.obge.engines.HybridObgEngine;
 import com.github.afloarea.obge.engines.InteractiveTurnSlicingObgEngine;
+import com.github.afloarea.obge.engines.SnapshotPublishingObgEngine;
 import com.github.afloarea.obge.factory.BoardTemplate;
 import com.github.afloarea.obge.layout.ColumnSequence;
 import com.github.afloarea.obge.layout.ColumnsFactory;
@@ -35,6 +36,9 @@ public final class EngineUtils {
         if (engineClass == HybridObgEngine.class) {
             return engineClass.cast(new HybridObgEngine(columnSequence));
         }
+        if (engineClass == SnapshotPublishingObgEngine.class) {
+            return engineClass.cast(new SnapshotPublishingObgEngine(new HybridObgEngine(columnSequence)));
+        }
         throw new IllegalArgumentException("No implementation");
     }
 
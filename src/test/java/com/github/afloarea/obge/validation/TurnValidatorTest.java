@@ -0,0 +1,73 @@
+package com.github.afloarea.obge.validation;
+
+import com.github.afloarea.obge.Direction;
+import com.github.afloarea.obge.dice.DiceRoll;
+import com.github.afloarea.obge.exceptions.IllegalObgActionException;
+import com.github.afloarea.obge.layout.BoardMapper;
+import com.github.afloarea.obge.layout.ColumnsFactory;
+import com.github.afloarea.obge.moves.ObgTransition;
+import com.github.afloarea.obge.predictors.TransitionNode;
+import com.github.afloarea.obge.predictors.TransitionTreePredictor;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TurnValidatorTest {
+
+    private final TurnValidator validator = new TurnValidator();
+
+    @Test
+    void predictedSequencesAreLegalAndTheirPrefixesAreNot() {
+        final var random = new Random(3);
+        final var columns = ColumnsFactory.buildStartingSequence();
+        final var predictor = new TransitionTreePredictor(true);
+
+        var direction = Direction.CLOCKWISE;
+        for (int turn = 0; turn < 40; turn++) {
+            final var board = BoardMapper.takeSnapshot(columns);
+            final var roll = DiceRoll.of(random.nextInt(6) + 1, random.nextInt(6) + 1);
+            final var root = predictor.predict(columns, roll, direction);
+
+            final var leaves = new ArrayList<TransitionNode>();
+            root.forEachLeaf(leaves::add);
+            for (var leaf : leaves) {
+                final var sequence = leaf.getTransitionsFrom(root);
+                if (!sequence.isEmpty()) {
+                    assertEquals(leaf.getBoard(), validator.validate(board, roll, direction, sequence));
+                    assertFalse(validator.isLegal(board, roll, direction, sequence.subList(0, sequence.size() - 1)));
+                }
+            }
+
+            final var chosen = leaves.get(random.nextInt(leaves.size()));
+            if (chosen.getBoard() != null) {
+                BoardMapper.loadSnapshot(columns, chosen.getBoard());
+            }
+            direction = direction.reverse();
+        }
+    }
+
+    @Test
+    void invalidTurnsAreRejected() {
+        final var board = BoardMapper.takeSnapshot(ColumnsFactory.buildStartingSequence());
+        final var roll = DiceRoll.of(2, 1);
+
+        assertTrue(validator.isLegal(board, roll, Direction.CLOCKWISE, List.of(
+                new ObgTransition("A", "C", 2, null), new ObgTransition("A", "B", 1, null))));
+        // wrong die
+        assertFalse(validator.isLegal(board, roll, Direction.CLOCKWISE, List.of(
+                new ObgTransition("A", "D", 3, null), new ObgTransition("A", "B", 1, null))));
+        // same die twice
+        assertFalse(validator.isLegal(board, roll, Direction.CLOCKWISE, List.of(
+                new ObgTransition("A", "B", 1, null), new ObgTransition("A", "B", 1, null))));
+        // not using all the dice
+        assertThrows(IllegalObgActionException.class, () -> validator.validate(board, roll, Direction.CLOCKWISE,
+                List.of(new ObgTransition("A", "C", 2, null))));
+        // moving the opponent's pieces
+        assertFalse(validator.isLegal(board, roll, Direction.ANTICLOCKWISE, List.of(
+                new ObgTransition("A", "C", 2, null), new ObgTransition("A", "B", 1, null))));
+    }
+}